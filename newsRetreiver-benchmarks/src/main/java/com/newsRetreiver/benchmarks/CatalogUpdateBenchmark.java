@@ -0,0 +1,93 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Service.CatalogSnapshot;
+import com.newsRetreiver.newsRetreiver.Util.DuplicateIndex;
+import com.newsRetreiver.newsRetreiver.Util.GeoIndex;
+import com.newsRetreiver.newsRetreiver.Util.TextIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One incremental catalog update, as the ingest writer applies it, against a catalog of {@code size}
+ * articles: half the batch is new articles and half replaces existing ones. Besides the whole
+ * {@link CatalogSnapshot#withUpserted} it times the text, geo and duplicate index steps on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class CatalogUpdateBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    // One ingest batch, and the most the ingest writer applies in one update.
+    @Param({"1000", "8000"})
+    public int batch;
+
+    private CatalogSnapshot snapshot;
+    private List<NewsArticle> upserted;
+    private double[] latitude;
+    private double[] longitude;
+
+    @Setup
+    public void setUp() {
+        List<NewsArticle> corpus = Corpus.of(size + batch / 2);
+        snapshot = CatalogSnapshot.build(corpus.subList(0, size), 1);
+        upserted = new ArrayList<>(corpus.subList(size, size + batch / 2));
+        for (int i = 0; i < batch - batch / 2; i++) {
+            NewsArticle replacement = new NewsArticle(corpus.get(i * (size / batch)));
+            replacement.setRelevanceScore(0.5);
+            upserted.add(replacement);
+        }
+        latitude = new double[size + batch];
+        longitude = new double[size + batch];
+        for (int i = 0; i < latitude.length; i++) {
+            latitude[i] = i < size ? snapshot.latitude(i) : Double.NaN;
+            longitude[i] = i < size ? snapshot.longitude(i) : Double.NaN;
+        }
+        for (int i = 0; i < upserted.size(); i++) {
+            NewsArticle article = upserted.get(i);
+            if (article.getLatitude() != null && article.getLongitude() != null) {
+                latitude[size + i] = article.getLatitude();
+                longitude[size + i] = article.getLongitude();
+            }
+        }
+    }
+
+    @Benchmark
+    public CatalogSnapshot withUpserted() {
+        return snapshot.withUpserted(upserted, 2);
+    }
+
+    @Benchmark
+    public TextIndex textIndex() {
+        return snapshot.textIndex().withAdded(upserted);
+    }
+
+    @Benchmark
+    public GeoIndex geoIndex() {
+        return snapshot.geoIndex().withAdded(latitude, longitude, size);
+    }
+
+    @Benchmark
+    public DuplicateIndex duplicateIndex() {
+        return snapshot.duplicateIndex().withAdded(upserted);
+    }
+}
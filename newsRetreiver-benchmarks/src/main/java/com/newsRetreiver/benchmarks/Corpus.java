@@ -0,0 +1,72 @@
+package com.newsRetreiver.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic corpora scaled up from the bundled {@code news_data.json}.
+ * <p>
+ * Each seed article is copied as often as needed with a fresh id and jittered date, score and
+ * location, so text, category and source distributions match the real data while the index sizes grow.
+ * The same size always yields the same corpus.
+ */
+final class Corpus {
+
+    private static final String SEED = "news_data.json";
+
+    private Corpus() {
+    }
+
+    static List<NewsArticle> of(int size) {
+        List<NewsArticle> seed = seed();
+        Random random = new Random(42);
+        List<NewsArticle> articles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            NewsArticle original = seed.get(i % seed.size());
+            NewsArticle copy = new NewsArticle(original);
+            copy.setId(original.getId() + "-" + (i / seed.size()));
+            copy.setPublicationDate(shift(original.getPublicationDate(), random.nextInt(60 * 24 * 365)));
+            copy.setRelevanceScore(Math.round(random.nextDouble() * 100) / 100.0);
+            if (original.getLatitude() != null && original.getLongitude() != null) {
+                copy.setLatitude(clamp(original.getLatitude() + random.nextGaussian(), 90));
+                copy.setLongitude(clamp(original.getLongitude() + random.nextGaussian(), 180));
+            }
+            articles.add(copy);
+        }
+        return articles;
+    }
+
+    static List<NewsArticle> seed() {
+        ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try (InputStream in = Corpus.class.getClassLoader().getResourceAsStream(SEED)) {
+            if (in == null) throw new IllegalStateException(SEED + " not on the classpath");
+            return Arrays.asList(mapper.readValue(in, NewsArticle[].class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String shift(String date, int minutes) {
+        if (date == null) return null;
+        try {
+            return LocalDateTime.parse(date).minusMinutes(minutes).toString();
+        } catch (DateTimeParseException e) {
+            return date;
+        }
+    }
+
+    private static double clamp(double value, double bound) {
+        return Math.max(-bound, Math.min(bound, value));
+    }
+}
@@ -0,0 +1,218 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Model.GeminiResult;
+import com.newsRetreiver.newsRetreiver.Model.LLMResponse;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Repository.CachedSummaryRepository;
+import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import com.newsRetreiver.newsRetreiver.Service.ArticleCatalog;
+import com.newsRetreiver.newsRetreiver.Service.DatasetVersion;
+import com.newsRetreiver.newsRetreiver.Service.GeminiService;
+import com.newsRetreiver.newsRetreiver.Service.HashingEmbeddingProvider;
+import com.newsRetreiver.newsRetreiver.Service.LocalEntityExtractor;
+import com.newsRetreiver.newsRetreiver.Service.NewsService;
+import com.newsRetreiver.newsRetreiver.Service.PipelineMetrics;
+import com.newsRetreiver.newsRetreiver.Service.QueryUnderstandingCache;
+import com.newsRetreiver.newsRetreiver.Service.SemanticIndex;
+import com.newsRetreiver.newsRetreiver.Service.SummaryCache;
+import com.newsRetreiver.newsRetreiver.Service.SummaryWarmer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Wires a {@link NewsService} by hand, without a Spring context or MongoDB: the catalog holds the
+ * corpus, Gemini answers instantly from a stub, and the repositories are empty stand-ins.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static NewsService newsService(List<NewsArticle> corpus) {
+        ArticleCatalog catalog = catalog(corpus);
+        return newsService(catalog, semanticIndex(catalog));
+    }
+
+    static NewsService newsService(ArticleCatalog catalog, SemanticIndex semanticIndex) {
+        PipelineMetrics metrics = new PipelineMetrics();
+        set(metrics, "registry", new SimpleMeterRegistry());
+        GeminiService gemini = new StubGeminiService();
+        NewsArticleRepository articles = stub(NewsArticleRepository.class);
+
+        QueryUnderstandingCache queryUnderstanding = new QueryUnderstandingCache();
+        set(queryUnderstanding, "geminiService", gemini);
+        set(queryUnderstanding, "metrics", metrics);
+        set(queryUnderstanding, "localExtractor", localExtractor(catalog));
+        set(queryUnderstanding, "maxSize", 10_000L);
+        set(queryUnderstanding, "ttlMinutes", 60L);
+        set(queryUnderstanding, "negativeTtlSeconds", 30L);
+        queryUnderstanding.init();
+
+        SummaryCache summaryCache = new SummaryCache();
+        set(summaryCache, "geminiService", gemini);
+        set(summaryCache, "repository", stub(CachedSummaryRepository.class));
+        set(summaryCache, "metrics", metrics);
+        set(summaryCache, "maxSize", 10_000L);
+        set(summaryCache, "ttlMinutes", 1440L);
+        set(summaryCache, "loaderThreads", 8);
+        set(summaryCache, "batchSize", 10);
+        summaryCache.init();
+
+        // Counts served pages; never initialized, so no background pass runs during a benchmark.
+        SummaryWarmer summaryWarmer = new SummaryWarmer();
+        set(summaryWarmer, "catalog", catalog);
+        set(summaryWarmer, "summaryCache", summaryCache);
+        set(summaryWarmer, "geminiService", gemini);
+        set(summaryWarmer, "metrics", metrics);
+        set(summaryWarmer, "enabled", true);
+
+        NewsService service = new NewsService();
+        set(service, "catalog", catalog);
+        set(service, "repository", articles);
+        set(service, "queryUnderstanding", queryUnderstanding);
+        set(service, "geminiService", gemini);
+        set(service, "summaryCache", summaryCache);
+        set(service, "metrics", metrics);
+        set(service, "semanticIndex", semanticIndex);
+        set(service, "summaryWarmer", summaryWarmer);
+        set(service, "enrichmentDeadlineMs", 8000L);
+        set(service, "semanticCandidates", 200);
+        set(service, "minSimilarity", 0.2);
+        set(service, "semanticWeight", 1.0);
+        set(service, "textWeight", 0.5);
+        set(service, "relevanceWeight", 0.2);
+        return service;
+    }
+
+    static ArticleCatalog catalog(List<NewsArticle> corpus) {
+        ArticleCatalog catalog = new ArticleCatalog();
+        set(catalog, "repository", stub(NewsArticleRepository.class));
+        set(catalog, "enabled", true);
+        catalog.replace(corpus);
+        return catalog;
+    }
+
+    /**
+     * A local extractor over the catalog with its dictionary already built.
+     */
+    static LocalEntityExtractor localExtractor(ArticleCatalog catalog) {
+        LocalEntityExtractor extractor = new LocalEntityExtractor();
+        set(extractor, "catalog", catalog);
+        set(extractor, "datasetVersion", new DatasetVersion());
+        set(extractor, "enabled", true);
+        set(extractor, "minConfidence", 0.75);
+        set(extractor, "gazetteer", new ClassPathResource("gazetteer.txt"));
+        set(extractor, "titlePhraseMinArticles", 2);
+        set(extractor, "rebuildIntervalSeconds", 60L);
+        try {
+            extractor.init();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        extractor.rebuild();
+        return extractor;
+    }
+
+    /**
+     * A semantic index over the catalog with the hashing provider, empty until {@link SemanticIndex#rebuild()}.
+     */
+    static SemanticIndex semanticIndex(ArticleCatalog catalog) {
+        HashingEmbeddingProvider embeddings = new HashingEmbeddingProvider();
+        set(embeddings, "dimensions", 256);
+        SemanticIndex index = new SemanticIndex();
+        set(index, "catalog", catalog);
+        set(index, "embeddings", embeddings);
+        set(index, "enabled", true);
+        set(index, "maxLinks", 16);
+        set(index, "efConstruction", 100);
+        set(index, "efSearch", 64);
+        set(index, "batchSize", 256);
+        set(index, "retryIntervalSeconds", 30L);
+        index.init();
+        return index;
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) throw new IllegalStateException(target.getClass().getSimpleName() + " has no field " + name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * A repository that finds nothing and stores nothing; the catalog-backed paths never reach MongoDB.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findById" -> Optional.empty();
+                    case "findAllById", "findAll" -> List.of();
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> repository.getSimpleName() + " stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Answers every prompt immediately: the query's words as entities, a prefix of the text as summary.
+     */
+    private static final class StubGeminiService extends GeminiService {
+
+        @Override
+        public LLMResponse extractIntentAndEntitiesParsed(String query) {
+            LLMResponse response = new LLMResponse();
+            response.setEntities(Arrays.asList(query.toLowerCase(Locale.ROOT).split("\\s+")));
+            response.setIntent("search");
+            return response;
+        }
+
+        @Override
+        public GeminiResult summarizeArticle(String text) {
+            return GeminiResult.success(summary(text));
+        }
+
+        @Override
+        public GeminiResult summarizeArticleStreaming(String text, Consumer<String> onDelta) {
+            String summary = summary(text);
+            onDelta.accept(summary);
+            return GeminiResult.success(summary);
+        }
+
+        @Override
+        public Map<String, String> summarizeArticles(Map<String, String> textsById) {
+            Map<String, String> summaries = new HashMap<>();
+            textsById.forEach((id, text) -> summaries.put(id, summary(text)));
+            return summaries;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean hasSpareCapacity(double share) {
+            return true;
+        }
+
+        private static String summary(String text) {
+            return "Summary of the article: " + text.substring(0, Math.min(80, text.length()));
+        }
+    }
+}
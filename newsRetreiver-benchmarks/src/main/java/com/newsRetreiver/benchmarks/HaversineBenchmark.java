@@ -0,0 +1,34 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Util.Haversine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HaversineBenchmark {
+
+    // Non-final fields so the JIT cannot fold the call into a constant.
+    public double fromLat = 19.07;
+    public double fromLon = 72.87;
+    public double toLat = 28.61;
+    public double toLon = 77.21;
+
+    @Benchmark
+    public double calculateDistance() {
+        return Haversine.calculateDistance(fromLat, fromLon, toLat, toLon);
+    }
+}
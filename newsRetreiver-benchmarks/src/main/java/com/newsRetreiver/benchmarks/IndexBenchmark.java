@@ -0,0 +1,76 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Service.CatalogSnapshot;
+import com.newsRetreiver.newsRetreiver.Util.GeoIndex;
+import com.newsRetreiver.newsRetreiver.Util.TextIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The catalog's text and geo indexes on their own, without paging or copying articles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class IndexBenchmark {
+
+    private static final List<String> ENTITIES = List.of("bangladesh", "coup", "rumours");
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private TextIndex textIndex;
+    private GeoIndex geoIndex;
+
+    @Setup
+    public void setUp() {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(Corpus.of(size), 1);
+        textIndex = snapshot.textIndex();
+        geoIndex = snapshot.geoIndex();
+    }
+
+    @Benchmark
+    public TextIndex.Hits textSearch() {
+        return textIndex.search(ENTITIES);
+    }
+
+    @Benchmark
+    public GeoIndex.Matches geoWithin() {
+        return geoIndex.within(19.07, 72.87, 50);
+    }
+
+    @Benchmark
+    public int geoNearest() {
+        return nearest(19.07, 72.87);
+    }
+
+    // Mid-Pacific, thousands of kilometres from any point of the corpus.
+    @Benchmark
+    public int geoNearestRemote() {
+        return nearest(0, -150);
+    }
+
+    private int nearest(double lat, double lon) {
+        GeoIndex.Nearest nearest = geoIndex.nearest(lat, lon, 0);
+        int sum = 0;
+        for (int i = 0; i < 20 && nearest.next(); i++) {
+            sum += nearest.ordinal();
+        }
+        return sum;
+    }
+}
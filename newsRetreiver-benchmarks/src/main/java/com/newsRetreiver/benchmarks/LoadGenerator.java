@@ -0,0 +1,224 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the {@code /api/v1/news} endpoints at a fixed request rate and reports throughput and latency
+ * percentiles per endpoint.
+ * <p>
+ * Requests are sent on a fixed schedule whether or not earlier ones have returned (an open workload),
+ * and latency is measured from each request's scheduled time, so a stalled server shows up as
+ * latency instead of silently lowering the offered rate.
+ * <pre>
+ * java -cp target/benchmarks.jar com.newsRetreiver.benchmarks.LoadGenerator \
+ *     --base-url=http://localhost:8080 --rps=50 --duration=60 --warmup=10 \
+ *     --mix=category:4,source:2,score:2,nearby:2,search:1,query:1
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final String DEFAULT_MIX = "category:4,source:2,score:2,nearby:2,search:1,query:1";
+    private static final int DRAIN_SECONDS = 60;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String> endpoints = new ArrayList<>();
+    private final Map<String, Function<Random, HttpRequest>> requests = new LinkedHashMap<>();
+
+    LoadGenerator(String baseUrl, String mix, List<NewsArticle> seed) {
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(32))
+                .build();
+
+        // Parameters come from the seed data, so every request matches something.
+        List<String> categories = distinct(seed, a -> a.getCategory() == null || a.getCategory().isEmpty() ? null : a.getCategory().get(0));
+        List<String> sources = distinct(seed, NewsArticle::getSourceName);
+        List<NewsArticle> located = seed.stream().filter(a -> a.getLatitude() != null && a.getLongitude() != null).collect(Collectors.toList());
+        List<String> titles = distinct(seed, NewsArticle::getTitle);
+        requests.put("category", r -> get("/category?name=" + encode(pick(r, categories))));
+        requests.put("source", r -> get("/source?name=" + encode(pick(r, sources))));
+        requests.put("score", r -> get("/score?threshold=" + (5 + r.nextInt(5)) / 10.0));
+        requests.put("nearby", r -> {
+            NewsArticle at = pick(r, located);
+            return get("/nearby?lat=" + at.getLatitude() + "&lon=" + at.getLongitude() + "&radius=" + (10 + r.nextInt(90)));
+        });
+        requests.put("search", r -> get("/search?query=" + encode(words(pick(r, titles), r))));
+        requests.put("query", r -> request("/query")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"query\":\"" + words(pick(r, titles), r).replaceAll("[\"\\\\]", "") + "\"}"))
+                .build());
+
+        for (String entry : mix.split(",")) {
+            String[] weighted = entry.trim().split(":");
+            if (!requests.containsKey(weighted[0])) throw new IllegalArgumentException("Unknown endpoint in mix: " + weighted[0]);
+            int weight = weighted.length > 1 ? Integer.parseInt(weighted[1]) : 1;
+            for (int i = 0; i < weight; i++) endpoints.add(weighted[0]);
+        }
+    }
+
+    public static void main(String[] argv) throws InterruptedException {
+        Args args = new Args(argv);
+        LoadGenerator generator = new LoadGenerator(
+                args.get("base-url", "http://localhost:8080") + "/api/v1/news",
+                args.get("mix", DEFAULT_MIX),
+                Corpus.seed());
+        double rps = args.getDouble("rps", 20);
+        int warmup = args.getInt("warmup", 10);
+        int duration = args.getInt("duration", 60);
+        int maxInFlight = args.getInt("max-in-flight", 2000);
+
+        System.out.printf("Warming up for %d s at %.1f rps%n", warmup, rps);
+        Results warmupResults = generator.run(rps, warmup, maxInFlight);
+        if (warmupResults.outstanding > 0) {
+            System.out.printf("%d warmup requests still outstanding; they are not counted%n", warmupResults.outstanding);
+        }
+        System.out.printf("Measuring for %d s at %.1f rps%n", duration, rps);
+        long started = System.nanoTime();
+        Results results = generator.run(rps, duration, maxInFlight);
+        generator.report(results, (System.nanoTime() - started) / 1e9);
+        System.exit(0);
+    }
+
+    /**
+     * Offer {@code rps} requests per second for {@code seconds}, then wait up to {@link #DRAIN_SECONDS}
+     * for the stragglers. Requests that would exceed {@code maxInFlight} are not sent and are reported
+     * as "dropped". Each run records into its own results, so responses to an earlier run that arrive
+     * late never count towards a later one.
+     */
+    Results run(double rps, int seconds, int maxInFlight) throws InterruptedException {
+        Results results = new Results();
+        Random random = new Random(7);
+        long interval = (long) (1_000_000_000L / rps);
+        long total = (long) (rps * seconds);
+        AtomicInteger inFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            String endpoint = endpoints.get(random.nextInt(endpoints.size()));
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                results.record(endpoint, "dropped", -1);
+                done.countDown();
+                continue;
+            }
+            client.sendAsync(requests.get(endpoint).apply(random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        results.record(endpoint, error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode()), latency);
+                        inFlight.decrementAndGet();
+                        done.countDown();
+                    });
+        }
+        if (!done.await(DRAIN_SECONDS, TimeUnit.SECONDS)) {
+            results.outstanding = inFlight.get();
+        }
+        return results;
+    }
+
+    private void report(Results results, double elapsedSeconds) {
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = results.latencies;
+        long completed = latencies.getOrDefault("all", new ConcurrentLinkedQueue<>()).size();
+        System.out.printf("%nCompleted %d requests in %.1f s: %.1f req/s%n", completed, elapsedSeconds, completed / elapsedSeconds);
+        if (results.outstanding > 0) {
+            System.out.printf("%d requests still outstanding after %d s, not counted%n", results.outstanding, DRAIN_SECONDS);
+        }
+        System.out.println();
+        System.out.printf("%-10s %8s %9s %9s %9s %9s %9s%n", "endpoint", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<String> names = new ArrayList<>(requests.keySet());
+        names.add("all");
+        for (String name : names) {
+            ConcurrentLinkedQueue<Long> samples = latencies.get(name);
+            if (samples == null || samples.isEmpty()) continue;
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-10s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.println();
+        new TreeMap<>(results.statuses).forEach((key, count) -> System.out.printf("%-30s %8d%n", key, count.sum()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static List<String> distinct(List<NewsArticle> seed, Function<NewsArticle, String> field) {
+        return seed.stream().map(field).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * Two or three consecutive words of a title, the way people type searches.
+     */
+    private static String words(String title, Random random) {
+        List<String> words = Arrays.stream(title.split("\\s+")).filter(w -> w.length() > 2).collect(Collectors.toList());
+        if (words.size() <= 2) return title;
+        int count = 2 + random.nextInt(2);
+        int from = random.nextInt(Math.max(1, words.size() - count));
+        return String.join(" ", words.subList(from, Math.min(words.size(), from + count)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Latencies and status counts of one run, and how many of its requests had not completed when it stopped waiting.
+     */
+    static final class Results {
+        final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        int outstanding;
+
+        void record(String endpoint, String status, long latencyNanos) {
+            statuses.computeIfAbsent(endpoint + " " + status, k -> new LongAdder()).increment();
+            if (latencyNanos >= 0) {
+                latencies.computeIfAbsent(endpoint, k -> new ConcurrentLinkedQueue<>()).add(latencyNanos);
+                latencies.computeIfAbsent("all", k -> new ConcurrentLinkedQueue<>()).add(latencyNanos);
+            }
+        }
+    }
+}
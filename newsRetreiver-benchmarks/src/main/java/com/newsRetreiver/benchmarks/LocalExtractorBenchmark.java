@@ -0,0 +1,49 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Service.LocalEntityExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local entity extraction, the path that replaces a Gemini round-trip for queries made of known names.
+ * The dictionary grows with the corpus through its title phrases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LocalExtractorBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private LocalEntityExtractor extractor;
+
+    @Setup
+    public void setUp() {
+        extractor = Fixtures.localExtractor(Fixtures.catalog(Corpus.of(size)));
+    }
+
+    @Benchmark
+    public LocalEntityExtractor.Result confident() {
+        return extractor.extract("sports news from Reuters");
+    }
+
+    @Benchmark
+    public LocalEntityExtractor.Result ambiguous() {
+        return extractor.extract("cricket match in Mumbai after the rain delay");
+    }
+}
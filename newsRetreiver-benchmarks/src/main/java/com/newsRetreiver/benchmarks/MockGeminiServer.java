@@ -0,0 +1,249 @@
+package com.newsRetreiver.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A local stand-in for the Gemini API that speaks the {@code generateContent} and
+ * {@code streamGenerateContent?alt=sse} wire formats, so the service can be load-tested without quota.
+ * <p>
+ * It recognises the service's three prompts (entity extraction, single summary, batch summary) and
+ * answers each in the shape the service parses. Latency and failures are tunable:
+ * <pre>
+ * java -cp target/benchmarks.jar com.newsRetreiver.benchmarks.MockGeminiServer \
+ *     --port=8089 --latency=lognormal:800,0.6 --rate-429=0.02 --rate-5xx=0.01 --rate-safety=0.01
+ * </pre>
+ * and the service started with {@code --gemini.base-url=http://localhost:8089/v1beta}.
+ * Latency is {@code fixed:MS}, {@code uniform:MIN-MAX} or {@code lognormal:MEDIAN_MS,SIGMA}.
+ */
+public final class MockGeminiServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern QUOTED_QUERY = Pattern.compile("\"(.*)\"");
+    private static final Pattern ARTICLE_ID = Pattern.compile("Article id: (\\S+)");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "of", "in", "on", "at", "for", "to",
+            "and", "or", "is", "are", "me", "show", "give", "get", "find", "about", "news", "latest");
+    private static final int STREAM_CHUNKS = 4;
+
+    private final Latency latency;
+    private final double rate429;
+    private final double rate5xx;
+    private final double rateSafety;
+    private final int retryAfterSeconds;
+    private final ConcurrentHashMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    MockGeminiServer(Args args) {
+        this.latency = Latency.parse(args.get("latency", "lognormal:800,0.6"));
+        this.rate429 = args.getDouble("rate-429", 0);
+        this.rate5xx = args.getDouble("rate-5xx", 0);
+        this.rateSafety = args.getDouble("rate-safety", 0);
+        this.retryAfterSeconds = args.getInt("retry-after", 5);
+    }
+
+    public static void main(String[] argv) throws IOException {
+        Args args = new Args(argv);
+        int port = args.getInt("port", 8089);
+        MockGeminiServer mock = new MockGeminiServer(args);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", mock::handle);
+        // Each request sleeps for its latency, so threads are cheap to have and expensive to lack.
+        server.setExecutor(Executors.newFixedThreadPool(args.getInt("threads", 512)));
+        server.start();
+        System.out.println("Mock Gemini listening on http://localhost:" + port + "/v1beta (latency "
+                + args.get("latency", "lognormal:800,0.6") + ")");
+        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(mock::report, 10, 10, java.util.concurrent.TimeUnit.SECONDS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean stream = path.endsWith(":streamGenerateContent");
+            if (!"POST".equals(exchange.getRequestMethod()) || !(stream || path.endsWith(":generateContent"))) {
+                respond(exchange, 404, "{\"error\":{\"code\":404,\"message\":\"Not found\"}}");
+                count("404");
+                return;
+            }
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText("");
+            boolean structured = "application/json".equals(request.path("generationConfig").path("responseMimeType").asText());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double roll = random.nextDouble();
+            if (roll < rate429) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                respond(exchange, 429, "{\"error\":{\"code\":429,\"status\":\"RESOURCE_EXHAUSTED\"}}");
+                count("429");
+                return;
+            }
+            if (roll < rate429 + rate5xx) {
+                sleep(latency.sample(random));
+                respond(exchange, 503, "{\"error\":{\"code\":503,\"status\":\"UNAVAILABLE\"}}");
+                count("5xx");
+                return;
+            }
+
+            long delayMs = latency.sample(random);
+            boolean blocked = random.nextDouble() < rateSafety;
+            String text = answer(prompt, structured);
+            if (stream) {
+                stream(exchange, text, blocked, delayMs);
+            } else {
+                sleep(delayMs);
+                respond(exchange, 200, MAPPER.writeValueAsString(blocked ? safetyBlock() : candidate(text, true)));
+            }
+            count(blocked ? "safety" : "ok");
+        }
+    }
+
+    /**
+     * Sends the answer as several SSE events; the first arrives after part of the latency, the rest
+     * are spread over the remainder, like tokens trickling out of a real model.
+     */
+    private void stream(HttpExchange exchange, String text, boolean blocked, long delayMs) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        sleep(delayMs * 2 / 5);
+        if (blocked) {
+            event(out, safetyBlock());
+            return;
+        }
+        int chunk = Math.max(1, (text.length() + STREAM_CHUNKS - 1) / STREAM_CHUNKS);
+        for (int from = 0; from < text.length(); from += chunk) {
+            if (from > 0) sleep(delayMs * 3 / 5 / STREAM_CHUNKS);
+            int to = Math.min(text.length(), from + chunk);
+            event(out, candidate(text.substring(from, to), to == text.length()));
+        }
+    }
+
+    private static void event(OutputStream out, ObjectNode payload) throws IOException {
+        out.write(("data: " + MAPPER.writeValueAsString(payload) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * The text a model would plausibly return for one of the service's prompts. Without a response
+     * schema, JSON arrays come wrapped in a markdown fence the way free-text answers often are.
+     */
+    static String answer(String prompt, boolean structured) throws IOException {
+        if (prompt.startsWith("Extract entities")) {
+            Matcher quoted = QUOTED_QUERY.matcher(prompt);
+            String query = quoted.find() ? quoted.group(1) : prompt;
+            ObjectNode json = MAPPER.createObjectNode();
+            ArrayNode entities = json.putArray("entities");
+            Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                    .filter(word -> !word.isEmpty() && !STOP_WORDS.contains(word.toLowerCase(Locale.ROOT)))
+                    .forEach(entities::add);
+            json.put("intent", "search");
+            return MAPPER.writeValueAsString(json);
+        }
+        if (prompt.contains("Return only a JSON array")) {
+            ArrayNode summaries = MAPPER.createArrayNode();
+            Matcher ids = ARTICLE_ID.matcher(prompt);
+            while (ids.find()) {
+                summaries.addObject().put("id", ids.group(1)).put("summary", summarize(ids.group(1)));
+            }
+            String json = MAPPER.writeValueAsString(summaries);
+            return structured ? json : "```json\n" + json + "\n```";
+        }
+        String article = prompt.substring(prompt.indexOf('\n') + 1);
+        return summarize(article);
+    }
+
+    private static String summarize(String text) {
+        String start = text.length() > 60 ? text.substring(0, 60) : text;
+        return "This article reports on " + start.strip() + ".\nIt covers the main developments and their impact.";
+    }
+
+    private static ObjectNode candidate(String text, boolean last) {
+        ObjectNode response = MAPPER.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        ObjectNode content = candidate.putObject("content");
+        content.putArray("parts").addObject().put("text", text);
+        content.put("role", "model");
+        if (last) candidate.put("finishReason", "STOP");
+        return response;
+    }
+
+    private static ObjectNode safetyBlock() {
+        ObjectNode response = MAPPER.createObjectNode();
+        response.putArray("candidates").addObject().put("finishReason", "SAFETY");
+        return response;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    private void report() {
+        List<String> parts = new ArrayList<>();
+        outcomes.forEach((outcome, count) -> parts.add(outcome + "=" + count.sumThenReset()));
+        System.out.println("Mock Gemini last 10s: " + parts.stream().sorted().collect(Collectors.joining(" ")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Response latency in milliseconds.
+     */
+    interface Latency {
+        long sample(ThreadLocalRandom random);
+
+        static Latency parse(String spec) {
+            String[] kind = spec.split(":", 2);
+            String[] values = kind.length > 1 ? kind[1].split("[,-]") : new String[0];
+            switch (kind[0]) {
+                case "fixed" -> {
+                    long ms = Long.parseLong(values[0]);
+                    return random -> ms;
+                }
+                case "uniform" -> {
+                    long min = Long.parseLong(values[0]);
+                    long max = Long.parseLong(values[1]);
+                    return random -> random.nextLong(min, max + 1);
+                }
+                case "lognormal" -> {
+                    // Median and sigma of the underlying normal: sigma 0.6 puts p99 near 4x the median.
+                    double median = Double.parseDouble(values[0]);
+                    double sigma = Double.parseDouble(values[1]);
+                    return random -> Math.round(median * Math.exp(sigma * random.nextGaussian()));
+                }
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Service.NewsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link NewsService} retrieval path against the in-memory catalog. The {@code find*} benchmarks
+ * measure retrieval alone; {@code enriched*} adds summary enrichment with every summary already cached,
+ * which is the steady state of a warm server. {@code projected*} asks for id, title and url only, so
+ * nothing is summarized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class NewsServiceBenchmark {
+
+    private static final int LIMIT = 20;
+    private static final int DEEP_PAGE = 50;
+    private static final ArticleFields ID_TITLE_URL = ArticleFields.parse("id,title,url");
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private NewsService service;
+    private String deepCategoryCursor;
+    private ArticleFilter categorySourceScore;
+    private ArticleFilter nearbyRecentScore;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.newsService(Corpus.of(size));
+        String cursor = null;
+        for (int page = 1; page < DEEP_PAGE && (page == 1 || cursor != null); page++) {
+            cursor = service.findByCategory("world", LIMIT, cursor, ArticleFields.ALL).getNextCursor();
+        }
+        deepCategoryCursor = cursor;
+        service.getByCategory("world", LIMIT, null, ArticleFields.ALL).join();
+
+        categorySourceScore = new ArticleFilter();
+        categorySourceScore.setCategory("world");
+        categorySourceScore.setSource("News18");
+        categorySourceScore.setMinScore(0.6);
+        categorySourceScore.setLimit(LIMIT);
+        nearbyRecentScore = new ArticleFilter();
+        nearbyRecentScore.setLat(19.07);
+        nearbyRecentScore.setLon(72.87);
+        nearbyRecentScore.setRadius(50.0);
+        nearbyRecentScore.setMinScore(0.6);
+        nearbyRecentScore.setFrom("2025-03-01");
+        nearbyRecentScore.setSort("distance");
+        nearbyRecentScore.setLimit(LIMIT);
+    }
+
+    @Benchmark
+    public ArticlePage category() {
+        return service.findByCategory("world", LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage categoryDeepPage() {
+        return service.findByCategory("world", LIMIT, deepCategoryCursor, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage source() {
+        return service.findBySource("News18", LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage score() {
+        return service.findByScore(0.7, LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage search() {
+        return service.findBySearch("Bangladesh coup rumours", LIMIT, null);
+    }
+
+    @Benchmark
+    public ArticlePage query() {
+        return service.findByQuery("cricket match in Mumbai", LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage nearbyWithinRadius() {
+        return service.findNearby(19.07, 72.87, 50.0, LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage nearbyNearest() {
+        return service.findNearby(19.07, 72.87, null, LIMIT, null, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage filterCategorySourceScore() {
+        return service.findByFilter(categorySourceScore, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage filterNearbyRecentScore() {
+        return service.findByFilter(nearbyRecentScore, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage enrichedCategory() {
+        return service.getByCategory("world", LIMIT, null, ArticleFields.ALL).join();
+    }
+
+    @Benchmark
+    public ArticlePage projectedCategory() {
+        return service.getByCategory("world", LIMIT, null, ID_TITLE_URL).join();
+    }
+}
@@ -0,0 +1,72 @@
+package com.newsRetreiver.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.newsRetreiver.newsRetreiver.Config.JacksonConfig;
+import com.newsRetreiver.newsRetreiver.Model.ApiResponse;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing one summarized 20-article {@code /category} page as JSON, CBOR and Smile, with every property
+ * and with the mobile projection {@code fields=id,title,url,llmSummary}. Mappers are configured like the
+ * server's; each combination prints its body size once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ResponseEncodingBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"all", "mobile"})
+    public String fields;
+
+    private ObjectWriter writer;
+    private ApiResponse<NewsArticle> response;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ArticleFields projection = ArticleFields.parse(fields.equals("mobile") ? "id,title,url,llmSummary" : null);
+        ArticlePage page = Fixtures.newsService(Corpus.of(10_000)).getByCategory("world", LIMIT, null, projection).join();
+        response = new ApiResponse<>(page.getArticles(), "category:world", page.getTotalResults(), page.getNextCursor());
+
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().articleFieldsFilter().customize(builder);
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> { }
+        }
+        writer = builder.build().writer(projection.filters());
+        System.out.printf("%n%s/%s: %d bytes%n", format, fields, writer.writeValueAsBytes(response).length);
+    }
+
+    @Benchmark
+    public byte[] write() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
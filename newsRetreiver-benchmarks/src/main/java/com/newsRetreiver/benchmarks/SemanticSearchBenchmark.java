@@ -0,0 +1,66 @@
+package com.newsRetreiver.benchmarks;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Service.ArticleCatalog;
+import com.newsRetreiver.newsRetreiver.Service.NewsService;
+import com.newsRetreiver.newsRetreiver.Service.SemanticIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semantic search with the hashing embedding provider: the raw HNSW lookup, and the semantic and hybrid
+ * {@code /search} pages built on it. Setup embeds and indexes the whole corpus, which is why the sizes
+ * stop at 100k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SemanticSearchBenchmark {
+
+    private static final String QUERY = "Bangladesh coup rumours";
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private SemanticIndex index;
+    private NewsService service;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        ArticleCatalog catalog = Fixtures.catalog(Corpus.of(size));
+        index = Fixtures.semanticIndex(catalog);
+        index.rebuild();
+        service = Fixtures.newsService(catalog, index);
+    }
+
+    @Benchmark
+    public SemanticIndex.Matches nearest() {
+        return index.search(QUERY, 200);
+    }
+
+    @Benchmark
+    public ArticlePage semantic() {
+        return service.findBySearch(QUERY, LIMIT, null, NewsService.SearchMode.SEMANTIC, ArticleFields.ALL);
+    }
+
+    @Benchmark
+    public ArticlePage hybrid() {
+        return service.findBySearch(QUERY, LIMIT, null, NewsService.SearchMode.HYBRID, ArticleFields.ALL);
+    }
+}
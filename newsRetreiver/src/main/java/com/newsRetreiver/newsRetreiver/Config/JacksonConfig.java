@@ -0,0 +1,44 @@
+package com.newsRetreiver.newsRetreiver.Config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Article projection ({@link ArticleFields}) for every Jackson mapper Spring builds, and CBOR and
+ * Smile converters next to JSON, picked by the request's Accept header. JSON stays the default.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer articleFieldsFilter() {
+        return builder -> builder
+                .mixIn(NewsArticle.class, ArticleFieldsMixin.class)
+                .filters(ArticleFields.ALL.filters());
+    }
+
+    // Built from Spring Boot's builder so the binary formats share the JSON mapper's modules and filters.
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @JsonFilter(ArticleFields.FILTER_ID)
+    private abstract static class ArticleFieldsMixin {
+    }
+}
@@ -0,0 +1,19 @@
+package com.newsRetreiver.newsRetreiver.Config;
+
+import com.newsRetreiver.newsRetreiver.Controller.ReadinessInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ReadinessInterceptor readinessInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readinessInterceptor).addPathPatterns("/api/v1/news/**");
+    }
+}
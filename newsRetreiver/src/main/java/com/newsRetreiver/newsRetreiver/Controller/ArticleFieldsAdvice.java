@@ -0,0 +1,31 @@
+package com.newsRetreiver.newsRetreiver.Controller;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Serializes only the article properties named by the {@code fields} parameter, in whichever Jackson
+ * format (JSON, CBOR, Smile) the response is written. {@link NewsController} has already rejected
+ * unknown names with a 400.
+ */
+@ControllerAdvice(assignableTypes = NewsController.class)
+public class ArticleFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue body, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) return;
+        try {
+            body.setFilters(ArticleFields.parse(servletRequest.getServletRequest().getParameter("fields")).filters());
+        } catch (IllegalArgumentException e) {
+            // The 400 body has no articles to project.
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.newsRetreiver.newsRetreiver.Controller;
 
+import com.newsRetreiver.newsRetreiver.Service.ArticleIngestService;
 import com.newsRetreiver.newsRetreiver.Service.GeminiService;
 import com.newsRetreiver.newsRetreiver.Service.NewsService;
 import com.newsRetreiver.newsRetreiver.Model.ApiResponse;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Model.IngestReport;
 import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
 import com.newsRetreiver.newsRetreiver.Model.QueryRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/news")
@@ -24,72 +35,171 @@ public class NewsController {
     @Autowired
     private GeminiService geminiService;
 
+    @Autowired
+    private ArticleIngestService ingestService;
+
+    @Value("${news.enrichment.deadline-ms:8000}")
+    private long enrichmentDeadlineMs;
+
     @GetMapping("/category")
-    public ResponseEntity<ApiResponse<NewsArticle>> getByCategory(@RequestParam String name) {
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> getByCategory(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
         try {
-            List<NewsArticle> articles = newsService.getByCategory(name);
-            return ResponseEntity.ok(new ApiResponse<>(articles, "category:" + name, articles.size()));
+            return newsService.getByCategory(name, limit, cursor, ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, "category:" + name));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, "category:" + name, 0));
+            return badRequest("category:" + name);
         }
     }
 
     @GetMapping("/score")
-    public ResponseEntity<ApiResponse<NewsArticle>> getByScore(@RequestParam(defaultValue = "0.7") double threshold) {
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> getByScore(
+            @RequestParam(defaultValue = "0.7") double threshold,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
         try {
-            List<NewsArticle> articles = newsService.getByScore(threshold);
-            return ResponseEntity.ok(new ApiResponse<>(articles, "score:" + threshold, articles.size()));
+            return newsService.getByScore(threshold, limit, cursor, ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, "score:" + threshold));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, "score:" + threshold, 0));
+            return badRequest("score:" + threshold);
         }
     }
 
+    /**
+     * {@code mode} is keyword (the default), semantic or hybrid; see {@link NewsService.SearchMode}.
+     */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<NewsArticle>> search(@RequestParam String query) {
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> search(
+            @RequestParam String query,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
         try {
-            List<NewsArticle> articles = newsService.searchArticles(query);
-            return ResponseEntity.ok(new ApiResponse<>(articles, query, articles.size()));
+            return newsService.searchArticles(query, limit, cursor, NewsService.SearchMode.parse(mode),
+                            ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, query));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, query, 0));
+            return badRequest(query);
         }
     }
 
     @GetMapping("/source")
-    public ResponseEntity<ApiResponse<NewsArticle>> getBySource(@RequestParam String name) {
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> getBySource(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
         try {
-            List<NewsArticle> articles = newsService.getBySource(name);
-            return ResponseEntity.ok(new ApiResponse<>(articles, "source:" + name, articles.size()));
+            return newsService.getBySource(name, limit, cursor, ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, "source:" + name));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, "source:" + name, 0));
+            return badRequest("source:" + name);
         }
     }
 
+    /**
+     * Articles within {@code radius} km, nearest first. With {@code k}, the nearest articles at any
+     * distance instead, {@code k} per page.
+     */
     @GetMapping("/nearby")
-    public ResponseEntity<ApiResponse<NewsArticle>> getNearby(
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> getNearby(
             @RequestParam double lat,
             @RequestParam double lon,
-            @RequestParam(defaultValue = "10") double radius) {
+            @RequestParam(defaultValue = "10") double radius,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        try {
+            if (k != null) {
+                return newsService.getNearby(lat, lon, null, k, cursor, ArticleFields.parse(fields))
+                        .thenApply(page -> ok(page, "nearby:lat=" + lat + ",lon=" + lon + ",k=" + k));
+            }
+            return newsService.getNearby(lat, lon, radius, limit, cursor, ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, "nearby:lat=" + lat + ",lon=" + lon + ",radius=" + radius));
+        } catch (IllegalArgumentException e) {
+            return badRequest("nearby:lat=" + lat + ",lon=" + lon);
+        }
+    }
+
+    /**
+     * Articles matching every condition given (category, source, radius, score and date ranges, text
+     * phrase) in one call, paged like the single-condition endpoints; see {@link ArticleFilter}.
+     */
+    @GetMapping("/filter")
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> filter(
+            ArticleFilter filter,
+            @RequestParam(required = false) String fields) {
         try {
-            List<NewsArticle> articles = newsService.getNearby(lat, lon, radius);
-            return ResponseEntity.ok(new ApiResponse<>(articles, "nearby:lat=" + lat + ",lon=" + lon + ",radius=" + radius, articles.size()));
+            return newsService.getByFilter(filter, ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, filter.describe()));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, "nearby:lat=" + lat + ",lon=" + lon, 0));
+            return badRequest(filter.describe());
         }
     }
 
     @PostMapping("/query")
-    public ResponseEntity<ApiResponse<NewsArticle>> processQuery(@RequestBody QueryRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> processQuery(
+            @RequestBody QueryRequest request,
+            @RequestParam(required = false) String fields) {
+        try {
+            return newsService.processUserQuery(request.getQuery(), request.getLimit(), request.getCursor(),
+                            ArticleFields.parse(fields))
+                    .thenApply(page -> ok(page, request.getQuery()));
+        } catch (IllegalArgumentException e) {
+            return badRequest(request.getQuery());
+        }
+    }
+
+    // Streaming variants: the ranked page goes out as the first "articles" event, then each article's
+    // summary as "summary-delta" chunks and a final "summary" event, then "done". Summaries are only
+    // streamed when fields includes llmSummary.
+
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> searchStream(
+            @RequestParam String query,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) throws IOException {
+        try {
+            ArticleFields projection = ArticleFields.parse(fields);
+            return stream(newsService.findBySearch(query, limit, cursor, NewsService.SearchMode.parse(mode), projection),
+                    query, projection);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> processQueryStream(
+            @RequestBody QueryRequest request,
+            @RequestParam(required = false) String fields) throws IOException {
         try {
-            List<NewsArticle> articles = newsService.processUserQuery(request.getQuery());
-            return ResponseEntity.ok(new ApiResponse<>(articles, request.getQuery(), articles.size()));
+            ArticleFields projection = ArticleFields.parse(fields);
+            return stream(newsService.findByQuery(request.getQuery(), request.getLimit(), request.getCursor(), projection),
+                    request.getQuery(), projection);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(null, request.getQuery(), 0));
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/category/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getByCategoryStream(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) throws IOException {
+        try {
+            ArticleFields projection = ArticleFields.parse(fields);
+            return stream(newsService.findByCategory(name, limit, cursor, projection), "category:" + name, projection);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -104,4 +214,58 @@ public class NewsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to generate summary");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Bulk upsert of NDJSON articles, one per line.
+     */
+    @PostMapping(value = "/ingest", consumes = "application/x-ndjson")
+    public ResponseEntity<IngestReport> ingest(InputStream body) throws IOException {
+        return ResponseEntity.ok(ingestService.ingest(body));
+    }
+
+    private ResponseEntity<SseEmitter> stream(ArticlePage page, String query, ArticleFields fields) throws IOException {
+        // Outlives the summary deadline, after which every article has had its final event.
+        SseEmitter emitter = new SseEmitter(enrichmentDeadlineMs + 5000);
+        MappingJacksonValue articles = new MappingJacksonValue(
+                new ApiResponse<>(page.getArticles(), query, page.getTotalResults(), page.getNextCursor()));
+        articles.setFilters(fields.filters());
+        emitter.send(SseEmitter.event().name("articles").data(articles));
+        if (!fields.includesSummary()) {
+            send(emitter, "done", Map.of());
+            emitter.complete();
+            return ResponseEntity.ok(emitter);
+        }
+        newsService.streamSummaries(page.getArticles(), new NewsService.SummaryListener() {
+            @Override
+            public void onDelta(String articleId, String text) {
+                send(emitter, "summary-delta", Map.of("id", articleId, "text", text));
+            }
+
+            @Override
+            public void onSummary(String articleId, String summary, boolean fallback) {
+                send(emitter, "summary", Map.of("id", articleId, "llmSummary", summary, "fallback", fallback));
+            }
+        }).whenComplete((ignored, error) -> {
+            send(emitter, "done", Map.of());
+            emitter.complete();
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; summaries still finish and land in the cache.
+        }
+    }
+
+    private static CompletableFuture<ResponseEntity<ApiResponse<NewsArticle>>> badRequest(String query) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse<>(null, query, 0)));
+    }
+
+    private static ResponseEntity<ApiResponse<NewsArticle>> ok(ArticlePage page, String query) {
+        return ResponseEntity.ok(new ApiResponse<>(page.getArticles(), query, page.getTotalResults(), page.getNextCursor()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.newsRetreiver.newsRetreiver.Controller;
+
+import com.newsRetreiver.newsRetreiver.Service.NewsDataInitializer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers 503 until the seed load has succeeded, instead of serving an empty catalog.
+ */
+@Component
+public class ReadinessInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private NewsDataInitializer initializer;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (initializer.isReady()) return true;
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        if (initializer.loadFailure() != null) {
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, initializer.retryIntervalMs() / 1000)));
+            response.getWriter().write("News data could not be loaded; retrying");
+        } else {
+            response.setHeader("Retry-After", "5");
+            response.getWriter().write("News data is still loading");
+        }
+        return false;
+    }
+}
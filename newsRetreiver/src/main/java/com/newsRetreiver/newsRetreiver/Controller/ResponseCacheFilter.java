@@ -0,0 +1,207 @@
+package com.newsRetreiver.newsRetreiver.Controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.newsRetreiver.newsRetreiver.Service.DatasetVersion;
+import com.newsRetreiver.newsRetreiver.Service.NewsService;
+import com.newsRetreiver.newsRetreiver.Service.PipelineMetrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the serialized bodies of the deterministic list endpoints and answers conditional requests.
+ * <p>
+ * Entries are keyed by the {@link DatasetVersion}, the path, the normalized query parameters and the
+ * Accept header (which picks JSON, CBOR or Smile), so any load or ingest makes every older entry
+ * unreachable. Each 200 response carries an ETag derived from its bytes; a matching
+ * {@code If-None-Match} gets a 304 without a body. The ETag is weak because Tomcat only compresses
+ * responses without a strong one, and the gzipped bytes are not the ones it was derived from.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CACHEABLE_PATHS = Set.of(
+            "/api/v1/news/category", "/api/v1/news/source", "/api/v1/news/score", "/api/v1/news/nearby",
+            "/api/v1/news/filter");
+
+    private static final String CACHE_KEY = ResponseCacheFilter.class.getName() + ".key";
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Value("${news.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${news.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${news.response-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, CachedResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body.length)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metrics.registry(), cache, "responses");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || !CACHEABLE_PATHS.contains(request.getRequestURI());
+    }
+
+    // The list endpoints return futures, so the body is usually written on a later async dispatch.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper;
+        if (isAsyncDispatch(request)) {
+            // The wrapper from the initial dispatch is what the async context handed back.
+            wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (wrapper == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+        } else {
+            String key = datasetVersion.current() + " " + request.getRequestURI() + "?" + normalizedParameters(request)
+                    + " " + request.getHeader(HttpHeaders.ACCEPT);
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                write(cached, request, response);
+                return;
+            }
+            request.setAttribute(CACHE_KEY, key);
+            wrapper = new ContentCachingResponseWrapper(response);
+        }
+
+        chain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        CachedResponse fresh = new CachedResponse(wrapper.getContentAsByteArray(), wrapper.getContentType());
+        if (request.getAttribute(NewsService.DEGRADED_RESPONSE) == null) {
+            cache.put((String) request.getAttribute(CACHE_KEY), fresh);
+        }
+        // The wrapper's buffer is never copied out; the captured bytes are written (or 304'd) instead.
+        write(fresh, request, (HttpServletResponse) wrapper.getResponse());
+    }
+
+    private static void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (cached.contentType != null) {
+            response.setContentType(cached.contentType);
+        }
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+
+    /**
+     * Weak comparison, as If-None-Match calls for: a W/ prefix on either side is ignored.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) trimmed = trimmed.substring(2);
+            if (trimmed.equals("*") || trimmed.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parameters sorted by name, values trimmed, numbers in canonical form (0.70 and 0.7 are one entry),
+     * and source names lower-cased since that lookup ignores case.
+     */
+    private static String normalizedParameters(HttpServletRequest request) {
+        boolean caseInsensitiveName = request.getRequestURI().endsWith("/source");
+        Map<String, String> normalized = new TreeMap<>();
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            String[] values = parameter.getValue().clone();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = normalizeValue(values[i].trim());
+                if (caseInsensitiveName && parameter.getKey().equals("name")) {
+                    values[i] = values[i].toLowerCase(Locale.ROOT);
+                }
+            }
+            normalized.put(parameter.getKey(), Arrays.toString(values));
+        }
+        return normalized.toString();
+    }
+
+    private static String normalizeValue(String value) {
+        try {
+            return new BigDecimal(value).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    private static final class CachedResponse {
+        final byte[] body;
+        final String contentType;
+        final String etag;
+
+        CachedResponse(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag(body);
+        }
+
+        private static String etag(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -5,18 +5,26 @@ import java.util.List;
 public class ApiResponse<T> {
     private List<T> articles;
     private String query;
-    private int totalResults;
+    private long totalResults;
+    private String nextCursor;
 
-    public ApiResponse(List<T> articles, String query, int totalResults) {
+    public ApiResponse(List<T> articles, String query, long totalResults) {
+        this(articles, query, totalResults, null);
+    }
+
+    public ApiResponse(List<T> articles, String query, long totalResults, String nextCursor) {
         this.articles = articles;
         this.query = query;
         this.totalResults = totalResults;
+        this.nextCursor = nextCursor;
     }
 
     public List<T> getArticles() { return articles; }
     public void setArticles(List<T> articles) { this.articles = articles; }
     public String getQuery() { return query; }
     public void setQuery(String query) { this.query = query; }
-    public int getTotalResults() { return totalResults; }
-    public void setTotalResults(int totalResults) { this.totalResults = totalResults; }
-}
\ No newline at end of file
+    public long getTotalResults() { return totalResults; }
+    public void setTotalResults(long totalResults) { this.totalResults = totalResults; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
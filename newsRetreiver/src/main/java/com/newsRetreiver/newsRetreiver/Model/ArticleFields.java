@@ -0,0 +1,137 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The article properties a list response carries, from the {@code fields} parameter: JSON names
+ * separated by commas, e.g. {@code fields=id,title,url,llmSummary}. Without it every property is sent.
+ * <p>
+ * Unrequested properties are left out of serialization (through the {@link #FILTER_ID} Jackson filter)
+ * and, as far as the pipeline allows, are never loaded: MongoDB returns and the catalog copies only
+ * the requested ones plus id, source and category (which the summary warmer counts) and, when a
+ * summary is requested, the title and description it is made from. No summary is generated unless
+ * {@code llmSummary} is requested.
+ */
+public final class ArticleFields {
+
+    public static final String FILTER_ID = "articleFields";
+
+    public static final ArticleFields ALL = new ArticleFields(null);
+
+    // JSON name -> document property; llmSummary and duplicates are per response, never stored.
+    private static final Map<String, String> PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        PROPERTIES.put("id", "id");
+        PROPERTIES.put("title", "title");
+        PROPERTIES.put("description", "description");
+        PROPERTIES.put("url", "url");
+        PROPERTIES.put("publication_date", "publicationDate");
+        PROPERTIES.put("source_name", "sourceName");
+        PROPERTIES.put("category", "category");
+        PROPERTIES.put("relevance_score", "relevanceScore");
+        PROPERTIES.put("latitude", "latitude");
+        PROPERTIES.put("longitude", "longitude");
+        PROPERTIES.put("llmSummary", null);
+        PROPERTIES.put("duplicates", null);
+    }
+
+    // Null for all properties.
+    private final Set<String> requested;
+    private final Set<String> loaded;
+
+    private ArticleFields(Set<String> requested) {
+        this.requested = requested;
+        if (requested == null) {
+            this.loaded = null;
+            return;
+        }
+        Set<String> loaded = new LinkedHashSet<>(List.of("id", "source_name", "category"));
+        loaded.addAll(requested);
+        if (requested.contains("llmSummary")) {
+            loaded.add("title");
+            loaded.add("description");
+        }
+        this.loaded = Collections.unmodifiableSet(loaded);
+    }
+
+    /**
+     * @throws IllegalArgumentException for a name that is not an article property
+     */
+    public static ArticleFields parse(String fields) {
+        if (fields == null || fields.isBlank()) return ALL;
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!PROPERTIES.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + "; expected any of " + PROPERTIES.keySet());
+            }
+            requested.add(name);
+        }
+        return requested.isEmpty() ? ALL : new ArticleFields(Collections.unmodifiableSet(requested));
+    }
+
+    public boolean isAll() {
+        return requested == null;
+    }
+
+    public boolean includes(String name) {
+        return requested == null || requested.contains(name);
+    }
+
+    public boolean includesSummary() {
+        return includes("llmSummary");
+    }
+
+    /**
+     * Stored properties a MongoDB projection must return, or null for the whole document.
+     */
+    public List<String> storedProperties() {
+        if (loaded == null) return null;
+        List<String> properties = new ArrayList<>();
+        for (String name : loaded) {
+            if (PROPERTIES.get(name) != null) properties.add(PROPERTIES.get(name));
+        }
+        return properties;
+    }
+
+    /**
+     * Per-request copy of a shared article with only the properties this projection loads.
+     */
+    public NewsArticle copy(NewsArticle article) {
+        if (loaded == null) return new NewsArticle(article);
+        NewsArticle copy = new NewsArticle();
+        copy.setId(article.getId());
+        copy.setSourceName(article.getSourceName());
+        copy.setCategory(article.getCategory());
+        if (loaded.contains("title")) copy.setTitle(article.getTitle());
+        if (loaded.contains("description")) copy.setDescription(article.getDescription());
+        if (loaded.contains("url")) copy.setUrl(article.getUrl());
+        if (loaded.contains("publication_date")) copy.setPublicationDate(article.getPublicationDate());
+        if (loaded.contains("relevance_score")) copy.setRelevanceScore(article.getRelevanceScore());
+        if (loaded.contains("latitude")) copy.setLatitude(article.getLatitude());
+        if (loaded.contains("longitude")) copy.setLongitude(article.getLongitude());
+        return copy;
+    }
+
+    /**
+     * Jackson filters that serialize only the requested article properties.
+     */
+    public FilterProvider filters() {
+        SimpleBeanPropertyFilter filter = requested == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(requested);
+        return new SimpleFilterProvider().addFilter(FILTER_ID, filter);
+    }
+}
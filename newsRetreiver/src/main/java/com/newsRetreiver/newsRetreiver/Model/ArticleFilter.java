@@ -0,0 +1,79 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+/**
+ * Conditions of a composite {@code /filter} query; every condition given must hold. Bound from
+ * query parameters, so every field is optional.
+ */
+public class ArticleFilter {
+    private String category;
+    private String source;
+    private Double lat;
+    private Double lon;
+    // Kilometres from (lat, lon).
+    private Double radius;
+    private Double minScore;
+    private Double maxScore;
+    // ISO dates (2025-03-26, whole days) or local date-times (2025-03-26T04:30:00), inclusive.
+    private String from;
+    private String to;
+    // Phrase that must occur in the title or description.
+    private String text;
+    // date (newest first, the default), score (highest first) or distance (nearest first).
+    private String sort;
+    private Integer limit;
+    private String cursor;
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public Double getLat() { return lat; }
+    public void setLat(Double lat) { this.lat = lat; }
+    public Double getLon() { return lon; }
+    public void setLon(Double lon) { this.lon = lon; }
+    public Double getRadius() { return radius; }
+    public void setRadius(Double radius) { this.radius = radius; }
+    public Double getMinScore() { return minScore; }
+    public void setMinScore(Double minScore) { this.minScore = minScore; }
+    public Double getMaxScore() { return maxScore; }
+    public void setMaxScore(Double maxScore) { this.maxScore = maxScore; }
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public boolean hasLocation() {
+        return lat != null && lon != null;
+    }
+
+    /**
+     * Short description for the response's {@code query} field, listing only the conditions given.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder("filter:");
+        append(description, "category", category);
+        append(description, "source", source);
+        if (hasLocation()) append(description, "near", lat + "," + lon + (radius != null ? "," + radius + "km" : ""));
+        append(description, "minScore", minScore);
+        append(description, "maxScore", maxScore);
+        append(description, "from", from);
+        append(description, "to", to);
+        append(description, "text", text);
+        append(description, "sort", sort);
+        return description.toString();
+    }
+
+    private static void append(StringBuilder description, String name, Object value) {
+        if (value == null) return;
+        if (description.charAt(description.length() - 1) != ':') description.append(',');
+        description.append(name).append('=').append(value);
+    }
+}
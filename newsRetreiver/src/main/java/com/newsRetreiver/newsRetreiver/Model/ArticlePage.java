@@ -0,0 +1,27 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+import java.util.List;
+
+/**
+ * One page of a list endpoint: the articles, the total number of matches, and the cursor for the
+ * next page (null on the last page).
+ */
+public class ArticlePage {
+    private final List<NewsArticle> articles;
+    private final long totalResults;
+    private final String nextCursor;
+
+    public ArticlePage(List<NewsArticle> articles, long totalResults, String nextCursor) {
+        this.articles = articles;
+        this.totalResults = totalResults;
+        this.nextCursor = nextCursor;
+    }
+
+    public static ArticlePage empty() {
+        return new ArticlePage(List.of(), 0, null);
+    }
+
+    public List<NewsArticle> getArticles() { return articles; }
+    public long getTotalResults() { return totalResults; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,75 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A generated summary, keyed by a hash of the summarized text and the prompt version. A blocked entry
+ * has no summary: it records that Gemini's safety filters refused the text.
+ */
+@Document(collection = "summary_cache")
+public class CachedSummary {
+    @Id
+    private String key;
+    private String summary;
+    private String promptVersion;
+    private Instant createdAt;
+    private boolean blocked;
+
+    public CachedSummary() {
+    }
+
+    public CachedSummary(String key, String summary, String promptVersion, Instant createdAt) {
+        this(key, summary, promptVersion, createdAt, false);
+    }
+
+    public CachedSummary(String key, String summary, String promptVersion, Instant createdAt, boolean blocked) {
+        this.key = key;
+        this.summary = summary;
+        this.promptVersion = promptVersion;
+        this.createdAt = createdAt;
+        this.blocked = blocked;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    public void setPromptVersion(String promptVersion) {
+        this.promptVersion = promptVersion;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    public void setBlocked(boolean blocked) {
+        this.blocked = blocked;
+    }
+}
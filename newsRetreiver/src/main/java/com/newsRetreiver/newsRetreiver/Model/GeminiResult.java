@@ -0,0 +1,58 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+/**
+ * Outcome of one Gemini call. {@code text} is only set on success.
+ */
+public class GeminiResult {
+
+    public enum Status {
+        SUCCESS,
+        // Rejected by our own rate limiter or by a 429 from Gemini.
+        THROTTLED,
+        // Gemini refused to answer because of its safety filters.
+        BLOCKED,
+        ERROR
+    }
+
+    private final Status status;
+    private final String text;
+    private final String message;
+
+    private GeminiResult(Status status, String text, String message) {
+        this.status = status;
+        this.text = text;
+        this.message = message;
+    }
+
+    public static GeminiResult success(String text) {
+        return new GeminiResult(Status.SUCCESS, text, null);
+    }
+
+    public static GeminiResult throttled(String message) {
+        return new GeminiResult(Status.THROTTLED, null, message);
+    }
+
+    public static GeminiResult blocked() {
+        return new GeminiResult(Status.BLOCKED, null, "Blocked by safety filters");
+    }
+
+    public static GeminiResult error(String message) {
+        return new GeminiResult(Status.ERROR, null, message);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+}
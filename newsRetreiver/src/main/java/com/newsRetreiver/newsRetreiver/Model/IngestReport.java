@@ -0,0 +1,49 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one ingest request: overall counts plus accepted/rejected counts per batch.
+ */
+public class IngestReport {
+    private int accepted;
+    private int rejected;
+    private List<Batch> batches = new ArrayList<>();
+
+    public void add(Batch batch) {
+        batches.add(batch);
+        accepted += batch.getAccepted();
+        rejected += batch.getRejected();
+    }
+
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+    public List<Batch> getBatches() { return batches; }
+    public void setBatches(List<Batch> batches) { this.batches = batches; }
+
+    public static class Batch {
+        private int batch;
+        private int accepted;
+        private int rejected;
+        private List<String> errors;
+
+        public Batch(int batch, int accepted, int rejected, List<String> errors) {
+            this.batch = batch;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.errors = errors;
+        }
+
+        public int getBatch() { return batch; }
+        public void setBatch(int batch) { this.batch = batch; }
+        public int getAccepted() { return accepted; }
+        public void setAccepted(int accepted) { this.accepted = accepted; }
+        public int getRejected() { return rejected; }
+        public void setRejected(int rejected) { this.rejected = rejected; }
+        public List<String> getErrors() { return errors; }
+        public void setErrors(List<String> errors) { this.errors = errors; }
+    }
+}
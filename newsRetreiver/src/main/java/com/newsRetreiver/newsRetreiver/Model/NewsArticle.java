@@ -1,6 +1,11 @@
 package com.newsRetreiver.newsRetreiver.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.util.List;
 
@@ -19,6 +24,38 @@ public class NewsArticle {
     private Double latitude;
     private Double longitude;
     private String llmSummary;
+    // Near-duplicates of this article folded into it by the listing; per-response, never stored.
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer duplicates;
+    // GeoJSON copy of latitude/longitude for the 2dsphere index; internal to MongoDB.
+    @JsonIgnore
+    private GeoJsonPoint location;
+    @JsonIgnore
+    @TextScore
+    private Double textScore;
+
+    public NewsArticle() {
+    }
+
+    /**
+     * Shallow copy, so per-request fields like llmSummary never leak into shared catalog instances.
+     */
+    public NewsArticle(NewsArticle other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.url = other.url;
+        this.publicationDate = other.publicationDate;
+        this.sourceName = other.sourceName;
+        this.category = other.category;
+        this.relevanceScore = other.relevanceScore;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.llmSummary = other.llmSummary;
+        this.duplicates = other.duplicates;
+        this.location = other.location;
+    }
 
     public String getId() {
         return id;
@@ -107,4 +144,28 @@ public class NewsArticle {
     public void setLlmSummary(String llmSummary) {
         this.llmSummary = llmSummary;
     }
-}
\ No newline at end of file
+
+    public Integer getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(Integer duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public GeoJsonPoint getLocation() {
+        return location;
+    }
+
+    public void setLocation(GeoJsonPoint location) {
+        this.location = location;
+    }
+
+    public Double getTextScore() {
+        return textScore;
+    }
+
+    public void setTextScore(Double textScore) {
+        this.textScore = textScore;
+    }
+}
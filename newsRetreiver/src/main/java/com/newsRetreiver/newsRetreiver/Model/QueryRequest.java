@@ -5,8 +5,18 @@ import lombok.Data;
 @Data
 public class QueryRequest {
     private String query;
+    private Integer limit;
+    private String cursor;
 
     public String getQuery() {
         return query;
     }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
 }
@@ -0,0 +1,67 @@
+package com.newsRetreiver.newsRetreiver.Model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Load progress for one seed file, so restarts can skip or resume it.
+ */
+@Document(collection = "seed_manifest")
+public class SeedManifest {
+    @Id
+    private String source;
+    private String checksum;
+    private long articlesLoaded;
+    private boolean complete;
+    private Instant updatedAt;
+
+    public SeedManifest() {
+    }
+
+    public SeedManifest(String source, String checksum) {
+        this.source = source;
+        this.checksum = checksum;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public long getArticlesLoaded() {
+        return articlesLoaded;
+    }
+
+    public void setArticlesLoaded(long articlesLoaded) {
+        this.articlesLoaded = articlesLoaded;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
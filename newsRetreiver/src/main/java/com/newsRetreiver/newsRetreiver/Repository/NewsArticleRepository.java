@@ -1,10 +1,21 @@
 package com.newsRetreiver.newsRetreiver.Repository;
 
 import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.springframework.data.mongodb.core.annotation.Collation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Server-side filtered, sorted and paginated reads, each backed by an index from {@code MongoIndexInitializer}.
+ * The internal GeoJSON location is never sent back.
+ */
 @Repository
-public interface NewsArticleRepository extends MongoRepository<NewsArticle, String> {
-    // You’ll add custom queries later if needed
+public interface NewsArticleRepository extends MongoRepository<NewsArticle, String>, NewsArticleRepositoryCustom {
+
+    long countByCategory(String category);
+
+    @Collation("{ 'locale': 'en', 'strength': 2 }")
+    long countBySourceName(String sourceName);
+
+    long countByRelevanceScoreGreaterThanEqual(double threshold);
 }
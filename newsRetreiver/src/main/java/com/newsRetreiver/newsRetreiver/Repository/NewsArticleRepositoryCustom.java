@@ -0,0 +1,51 @@
+package com.newsRetreiver.newsRetreiver.Repository;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.PageCursor;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated reads. Every page is sorted by its key and then by id, and resumes strictly after
+ * the cursor's (key, id) instead of skipping, so deep pages cost the same as the first.
+ * A null cursor means the first page. Only the properties {@link ArticleFields#storedProperties()}
+ * names, plus the sort key, are read from the documents.
+ */
+public interface NewsArticleRepositoryCustom {
+
+    /** Newest first. */
+    List<NewsArticle> findPageByCategory(String category, PageCursor after, int limit, ArticleFields fields);
+
+    /** Newest first; the source name is matched case-insensitively. */
+    List<NewsArticle> findPageBySource(String source, PageCursor after, int limit, ArticleFields fields);
+
+    /** Highest relevance score first, only scores at or above the threshold. */
+    List<NewsArticle> findPageByScore(double threshold, PageCursor after, int limit, ArticleFields fields);
+
+    /** Best text score first; each article's {@code textScore} is set. */
+    List<NewsArticle> findPageByText(TextCriteria criteria, PageCursor after, int limit, ArticleFields fields);
+
+    /** Text matches, newest first. */
+    List<NewsArticle> findPageByTextNewestFirst(TextCriteria criteria, PageCursor after, int limit, ArticleFields fields);
+
+    /** Nearest first, within {@code maxDistanceKm}; distances are in kilometres. */
+    GeoResults<NewsArticle> findPageNear(GeoJsonPoint point, double maxDistanceKm, PageCursor after, int limit, ArticleFields fields);
+
+    /**
+     * Articles matching every condition of the filter, newest first or (with {@code bestScoreFirst})
+     * highest relevance score first. Date bounds are ISO local date-times, null when unbounded.
+     */
+    List<NewsArticle> findPageByFilter(ArticleFilter filter, String publishedFrom, String publishedTo,
+                                       boolean bestScoreFirst, PageCursor after, int limit, ArticleFields fields);
+
+    long countByFilter(ArticleFilter filter, String publishedFrom, String publishedTo);
+
+    long countByText(TextCriteria criteria);
+
+    long countNear(GeoJsonPoint point, double maxDistanceKm);
+}
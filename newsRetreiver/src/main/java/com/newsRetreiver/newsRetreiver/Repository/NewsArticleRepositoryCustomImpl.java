@@ -0,0 +1,243 @@
+package com.newsRetreiver.newsRetreiver.Repository;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.PageCursor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Page queries behind {@link NewsArticleRepositoryCustom}, each served by an index from {@code MongoIndexInitializer}.
+ */
+public class NewsArticleRepositoryCustomImpl implements NewsArticleRepositoryCustom {
+
+    private static final Collation SOURCE_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("publicationDate"), Sort.Order.asc("id"));
+    private static final Sort BEST_SCORE_FIRST = Sort.by(Sort.Order.desc("relevanceScore"), Sort.Order.asc("id"));
+    private static final Document INTERNAL_FIELDS = new Document("location", 0).append("_class", 0);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<NewsArticle> findPageByCategory(String category, PageCursor after, int limit, ArticleFields fields) {
+        return findNewestFirst(new Query(Criteria.where("category").is(category)), after, limit, fields);
+    }
+
+    @Override
+    public List<NewsArticle> findPageBySource(String source, PageCursor after, int limit, ArticleFields fields) {
+        return findNewestFirst(new Query(Criteria.where("sourceName").is(source)).collation(SOURCE_COLLATION), after, limit, fields);
+    }
+
+    @Override
+    public List<NewsArticle> findPageByScore(double threshold, PageCursor after, int limit, ArticleFields fields) {
+        return findBestScoreFirst(new Query(Criteria.where("relevanceScore").gte(threshold)), after, limit, fields);
+    }
+
+    @Override
+    public List<NewsArticle> findPageByText(TextCriteria criteria, PageCursor after, int limit, ArticleFields fields) {
+        // The text score only exists inside the query, so filtering on it needs an aggregation.
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(criteria));
+        stages.add(Aggregation.stage(new Document("$addFields",
+                new Document("textScore", new Document("$meta", "textScore")))));
+        if (after != null) {
+            stages.add(Aggregation.stage(new Document("$match", afterKey("textScore", "$lt", after.numericKey(), after.id()))));
+        }
+        stages.add(Aggregation.stage(new Document("$sort", new Document("textScore", -1).append("_id", 1))));
+        stages.add(Aggregation.limit(limit));
+        stages.add(Aggregation.stage(new Document("$project", projection(fields, "textScore"))));
+
+        List<NewsArticle> articles = new ArrayList<>();
+        for (Document document : mongoTemplate.aggregate(Aggregation.newAggregation(stages), NewsArticle.class, Document.class)) {
+            NewsArticle article = mongoTemplate.getConverter().read(NewsArticle.class, document);
+            article.setTextScore(document.getDouble("textScore"));
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    @Override
+    public List<NewsArticle> findPageByTextNewestFirst(TextCriteria criteria, PageCursor after, int limit, ArticleFields fields) {
+        return findNewestFirst(TextQuery.queryText(criteria), after, limit, fields);
+    }
+
+    @Override
+    public GeoResults<NewsArticle> findPageNear(GeoJsonPoint point, double maxDistanceKm, PageCursor after, int limit, ArticleFields fields) {
+        Document geoNear = new Document("near", new Document("type", "Point").append("coordinates", List.of(point.getX(), point.getY())))
+                .append("key", "location")
+                .append("distanceField", "distance")
+                .append("distanceMultiplier", 0.001)
+                .append("spherical", true)
+                .append("maxDistance", maxDistanceKm * 1000);
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (after != null) {
+            double distance = after.numericKey();
+            // minDistance prunes the scan; the 1 m slack absorbs km/m rounding, and $match decides the ties exactly.
+            geoNear.append("minDistance", Math.max(0, distance * 1000 - 1));
+            stages.add(Aggregation.stage(new Document("$geoNear", geoNear)));
+            stages.add(Aggregation.stage(new Document("$match", afterKey("distance", "$gt", distance, after.id()))));
+        } else {
+            stages.add(Aggregation.stage(new Document("$geoNear", geoNear)));
+        }
+        stages.add(Aggregation.stage(new Document("$sort", new Document("distance", 1).append("_id", 1))));
+        stages.add(Aggregation.limit(limit));
+        stages.add(Aggregation.stage(new Document("$project", projection(fields, "distance"))));
+
+        List<GeoResult<NewsArticle>> results = new ArrayList<>();
+        for (Document document : mongoTemplate.aggregate(Aggregation.newAggregation(stages), NewsArticle.class, Document.class)) {
+            NewsArticle article = mongoTemplate.getConverter().read(NewsArticle.class, document);
+            results.add(new GeoResult<>(article, new Distance(document.getDouble("distance"), Metrics.KILOMETERS)));
+        }
+        return new GeoResults<>(results, Metrics.KILOMETERS);
+    }
+
+    @Override
+    public List<NewsArticle> findPageByFilter(ArticleFilter filter, String publishedFrom, String publishedTo,
+                                              boolean bestScoreFirst, PageCursor after, int limit, ArticleFields fields) {
+        Query query = filterQuery(filter, publishedFrom, publishedTo);
+        return bestScoreFirst ? findBestScoreFirst(query, after, limit, fields) : findNewestFirst(query, after, limit, fields);
+    }
+
+    @Override
+    public long countByFilter(ArticleFilter filter, String publishedFrom, String publishedTo) {
+        return mongoTemplate.count(filterQuery(filter, publishedFrom, publishedTo), NewsArticle.class);
+    }
+
+    /**
+     * One query with every condition, left to MongoDB's planner to pick the index.
+     */
+    private static Query filterQuery(ArticleFilter filter, String publishedFrom, String publishedTo) {
+        Query query = filter.getText() != null
+                ? TextQuery.queryText(TextCriteria.forDefaultLanguage().matchingPhrase(filter.getText()))
+                : new Query();
+        if (filter.getCategory() != null) {
+            query.addCriteria(Criteria.where("category").is(filter.getCategory()));
+        }
+        if (filter.getSource() != null) {
+            if (filter.getText() != null) {
+                // $text queries cannot take a collation; the text index narrows the scan anyway.
+                query.addCriteria(Criteria.where("sourceName").regex("^" + Pattern.quote(filter.getSource()) + "$", "i"));
+            } else {
+                query.addCriteria(Criteria.where("sourceName").is(filter.getSource())).collation(SOURCE_COLLATION);
+            }
+        }
+        if (filter.getMinScore() != null || filter.getMaxScore() != null) {
+            Criteria score = Criteria.where("relevanceScore");
+            if (filter.getMinScore() != null) score.gte(filter.getMinScore());
+            if (filter.getMaxScore() != null) score.lte(filter.getMaxScore());
+            query.addCriteria(score);
+        }
+        if (publishedFrom != null || publishedTo != null) {
+            Criteria date = Criteria.where("publicationDate");
+            if (publishedFrom != null) date.gte(publishedFrom);
+            if (publishedTo != null) date.lte(publishedTo);
+            query.addCriteria(date);
+        }
+        if (filter.getRadius() != null) {
+            Circle circle = new Circle(new Point(filter.getLon(), filter.getLat()), new Distance(filter.getRadius(), Metrics.KILOMETERS));
+            query.addCriteria(Criteria.where("location").withinSphere(circle));
+        }
+        return query;
+    }
+
+    @Override
+    public long countByText(TextCriteria criteria) {
+        return mongoTemplate.count(TextQuery.queryText(criteria), NewsArticle.class);
+    }
+
+    @Override
+    public long countNear(GeoJsonPoint point, double maxDistanceKm) {
+        Circle circle = new Circle(new Point(point.getX(), point.getY()), new Distance(maxDistanceKm, Metrics.KILOMETERS));
+        return mongoTemplate.count(new Query(Criteria.where("location").withinSphere(circle)), NewsArticle.class);
+    }
+
+    private List<NewsArticle> findNewestFirst(Query query, PageCursor after, int limit, ArticleFields fields) {
+        if (after != null) {
+            query.addCriteria(afterDate(after));
+        }
+        query.with(NEWEST_FIRST).limit(limit);
+        return mongoTemplate.find(project(query, fields, "publicationDate"), NewsArticle.class);
+    }
+
+    private List<NewsArticle> findBestScoreFirst(Query query, PageCursor after, int limit, ArticleFields fields) {
+        if (after != null) {
+            double score = after.numericKey();
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("relevanceScore").lt(score),
+                    Criteria.where("relevanceScore").is(score).and("id").gt(after.id())));
+        }
+        query.with(BEST_SCORE_FIRST).limit(limit);
+        return mongoTemplate.find(project(query, fields, "relevanceScore"), NewsArticle.class);
+    }
+
+    /**
+     * Articles after the cursor in newest-first order. Articles without a date sort after all dated ones.
+     */
+    private static Criteria afterDate(PageCursor after) {
+        if (after.key().isEmpty()) {
+            return new Criteria().andOperator(Criteria.where("publicationDate").is(null), Criteria.where("id").gt(after.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("publicationDate").lt(after.key()),
+                Criteria.where("publicationDate").is(after.key()).and("id").gt(after.id()),
+                Criteria.where("publicationDate").is(null));
+    }
+
+    /**
+     * Raw $match filter for "after (key, id)" on a computed field, where {@code beyond} is $lt for
+     * descending keys and $gt for ascending ones.
+     */
+    private static Document afterKey(String field, String beyond, double key, String id) {
+        return new Document("$or", List.of(
+                new Document(field, new Document(beyond, key)),
+                new Document(field, key).append("_id", new Document("$gt", id))));
+    }
+
+    /**
+     * Everything but the internal fields, or with a projection only its properties and the sort key.
+     */
+    private static Query project(Query query, ArticleFields fields, String sortKey) {
+        List<String> properties = fields.storedProperties();
+        if (properties == null) {
+            query.fields().exclude("location").exclude("_class");
+        } else {
+            query.fields().include(properties.toArray(new String[0])).include(sortKey);
+        }
+        return query;
+    }
+
+    /**
+     * $project stage for an aggregation page, keeping the computed sort key.
+     */
+    private static Document projection(ArticleFields fields, String sortKey) {
+        List<String> properties = fields.storedProperties();
+        if (properties == null) return INTERNAL_FIELDS;
+        Document projection = new Document(sortKey, 1);
+        for (String property : properties) {
+            projection.append(property.equals("id") ? "_id" : property, 1);
+        }
+        return projection;
+    }
+}
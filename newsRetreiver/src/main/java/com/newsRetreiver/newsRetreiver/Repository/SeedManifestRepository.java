@@ -0,0 +1,9 @@
+package com.newsRetreiver.newsRetreiver.Repository;
+
+import com.newsRetreiver.newsRetreiver.Model.SeedManifest;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeedManifestRepository extends MongoRepository<SeedManifest, String> {
+}
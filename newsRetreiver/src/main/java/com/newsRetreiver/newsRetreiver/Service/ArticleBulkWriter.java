@@ -0,0 +1,41 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Writes articles as one unordered bulk of upserts by id, so re-sending the same articles is harmless.
+ */
+@Service
+public class ArticleBulkWriter {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Upsert every article; all must have an id. Returns the number inserted or modified.
+     */
+    public int upsert(List<NewsArticle> articles) {
+        if (articles.isEmpty()) return 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NewsArticle.class);
+        for (NewsArticle article : articles) {
+            if (article.getLocation() == null && article.getLatitude() != null && article.getLongitude() != null) {
+                article.setLocation(new GeoJsonPoint(article.getLongitude(), article.getLatitude()));
+            }
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(article.getId())), article,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult result = bulk.execute();
+        return result.getUpserts().size() + result.getModifiedCount();
+    }
+}
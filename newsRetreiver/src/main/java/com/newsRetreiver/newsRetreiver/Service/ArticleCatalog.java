@@ -0,0 +1,68 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Readers grab the snapshot once per request;
+ * writers derive the next snapshot and swap it in atomically.
+ * <p>
+ * With {@code news.catalog.enabled=false} the catalog stays empty and queries go to MongoDB instead.
+ */
+@Service
+public class ArticleCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleCatalog.class);
+
+    @Autowired
+    private NewsArticleRepository repository;
+
+    @Value("${news.catalog.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.empty());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CatalogSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Rebuild the catalog from MongoDB.
+     */
+    public synchronized void reload() {
+        if (!enabled) return;
+        replace(repository.findAll());
+    }
+
+    public synchronized void replace(List<NewsArticle> articles) {
+        CatalogSnapshot next = CatalogSnapshot.build(articles, current.get().version() + 1);
+        current.set(next);
+        log.info("Article catalog loaded: {} articles (version {})", next.size(), next.version());
+    }
+
+    /**
+     * Apply newly stored articles, replacing any with the same id, without a full rebuild.
+     * Once a quarter of the ordinals are retired versions the catalog is compacted from its live articles.
+     */
+    public synchronized void upsert(List<NewsArticle> articles) {
+        if (!enabled || articles.isEmpty()) return;
+        CatalogSnapshot previous = current.get();
+        CatalogSnapshot next = previous.withUpserted(articles, previous.version() + 1);
+        if (next.retiredCount() > next.size() / 4) {
+            next = CatalogSnapshot.build(next.liveArticles(), next.version());
+        }
+        current.set(next);
+    }
+}
@@ -0,0 +1,261 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.newsRetreiver.newsRetreiver.Model.IngestReport;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams NDJSON articles into MongoDB and the in-memory catalog.
+ * <p>
+ * The request thread parses and validates lines into batches and hands them to a bounded queue;
+ * when the queue is full it blocks, which stops reading the request body and pushes back on the
+ * client. A single writer drains the queue in order, upserting each batch in bulk and applying
+ * everything it drained to the catalog in one incremental update.
+ */
+@Service
+public class ArticleIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleIngestService.class);
+
+    private static final int MAX_ERRORS_PER_BATCH = 20;
+    private static final int MAX_BATCHES_PER_CATALOG_UPDATE = 8;
+
+    @Autowired
+    private ArticleBulkWriter bulkWriter;
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private SemanticIndex semanticIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${news.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${news.ingest.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${news.ingest.offer-timeout-ms:30000}")
+    private long offerTimeoutMs;
+
+    private ObjectReader articleReader;
+    private BlockingQueue<PendingBatch> queue;
+    private Thread writer;
+
+    @PostConstruct
+    public void init() {
+        articleReader = objectMapper.readerFor(NewsArticle.class);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = new Thread(this::drain, "ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.interrupt();
+    }
+
+    /**
+     * Ingest one NDJSON stream, one article per line. Returns once every batch has been written
+     * (or rejected) and applied to the catalog, so the accepted articles are already queryable;
+     * a batch whose articles were stored but could not be applied says so in its errors.
+     */
+    public IngestReport ingest(InputStream body) throws IOException {
+        List<CompletableFuture<IngestReport.Batch>> results = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        PendingBatch batch = new PendingBatch(1);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            try {
+                NewsArticle article = articleReader.readValue(line);
+                String problem = validate(article);
+                if (problem == null) {
+                    batch.articles.add(article);
+                } else {
+                    batch.reject("line " + lineNumber + ": " + problem);
+                }
+            } catch (IOException e) {
+                batch.reject("line " + lineNumber + ": malformed JSON");
+            }
+            if (batch.articles.size() + batch.rejected == batchSize) {
+                results.add(submit(batch));
+                batch = new PendingBatch(batch.number + 1);
+            }
+        }
+        if (batch.articles.size() + batch.rejected > 0) {
+            results.add(submit(batch));
+        }
+
+        IngestReport report = new IngestReport();
+        for (CompletableFuture<IngestReport.Batch> result : results) {
+            report.add(result.join());
+        }
+        return report;
+    }
+
+    private CompletableFuture<IngestReport.Batch> submit(PendingBatch batch) {
+        try {
+            if (queue.offer(batch, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return batch.result;
+            }
+            batch.failAll("ingest queue full");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.failAll("interrupted");
+        }
+        batch.complete();
+        return batch.result;
+    }
+
+    private void drain() {
+        List<PendingBatch> drained = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(drained, MAX_BATCHES_PER_CATALOG_UPDATE - 1);
+            List<NewsArticle> stored = new ArrayList<>();
+            for (PendingBatch batch : drained) {
+                stored.addAll(write(batch));
+            }
+            applyToCatalog(stored, drained);
+            if (!stored.isEmpty()) {
+                datasetVersion.bump();
+                semanticIndex.refresh();
+            }
+            drained.forEach(PendingBatch::complete);
+            drained.clear();
+        }
+    }
+
+    /**
+     * Apply the stored articles to the catalog. If the incremental update fails the catalog is rebuilt
+     * from MongoDB instead, which already holds them; only when that fails too are the batches told
+     * their articles are stored but not yet queryable.
+     */
+    private void applyToCatalog(List<NewsArticle> stored, List<PendingBatch> drained) {
+        try {
+            catalog.upsert(stored);
+            return;
+        } catch (Exception e) {
+            log.error("Catalog update failed after ingest; reloading from MongoDB", e);
+        }
+        try {
+            catalog.reload();
+        } catch (Exception e) {
+            log.error("Catalog reload failed after ingest", e);
+            for (PendingBatch batch : drained) {
+                if (batch.accepted > 0) batch.error("catalog update failed: accepted articles are stored but not yet queryable");
+            }
+        }
+    }
+
+    /**
+     * Upsert the batch and return the articles MongoDB accepted.
+     */
+    private List<NewsArticle> write(PendingBatch batch) {
+        if (batch.articles.isEmpty()) return batch.articles;
+        try {
+            bulkWriter.upsert(batch.articles);
+            batch.accepted = batch.articles.size();
+            return batch.articles;
+        } catch (BulkOperationException e) {
+            BitSet failed = new BitSet();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.set(error.getIndex());
+                batch.reject("article " + batch.articles.get(error.getIndex()).getId() + ": " + error.getMessage());
+            }
+            List<NewsArticle> written = new ArrayList<>();
+            for (int i = 0; i < batch.articles.size(); i++) {
+                if (!failed.get(i)) written.add(batch.articles.get(i));
+            }
+            batch.accepted = written.size();
+            return written;
+        } catch (Exception e) {
+            log.error("Ingest batch {} failed: {}", batch.number, e.getMessage());
+            batch.failAll("write failed: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static String validate(NewsArticle article) {
+        if (article == null) return "empty record";
+        if (article.getId() == null || article.getId().isBlank()) return "missing id";
+        if (article.getTitle() == null || article.getTitle().isBlank()) return "missing title";
+        if ((article.getLatitude() == null) != (article.getLongitude() == null)) {
+            return "latitude and longitude must be given together";
+        }
+        if (article.getLatitude() != null && (Math.abs(article.getLatitude()) > 90 || Math.abs(article.getLongitude()) > 180)) {
+            return "invalid latitude or longitude";
+        }
+        return null;
+    }
+
+    private static final class PendingBatch {
+        final int number;
+        final List<NewsArticle> articles = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        final CompletableFuture<IngestReport.Batch> result = new CompletableFuture<>();
+        int accepted;
+        int rejected;
+
+        PendingBatch(int number) {
+            this.number = number;
+        }
+
+        void reject(String error) {
+            rejected++;
+            error(error);
+        }
+
+        void error(String error) {
+            if (errors.size() < MAX_ERRORS_PER_BATCH) errors.add(error);
+        }
+
+        void failAll(String error) {
+            if (articles.isEmpty()) return;
+            rejected += articles.size();
+            accepted = 0;
+            if (errors.size() < MAX_ERRORS_PER_BATCH) errors.add(error + " (" + articles.size() + " articles)");
+        }
+
+        void complete() {
+            result.complete(new IngestReport.Batch(number, accepted, rejected, errors));
+        }
+    }
+}
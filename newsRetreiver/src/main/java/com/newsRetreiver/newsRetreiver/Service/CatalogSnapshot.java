@@ -0,0 +1,637 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.DuplicateIndex;
+import com.newsRetreiver.newsRetreiver.Util.GeoIndex;
+import com.newsRetreiver.newsRetreiver.Util.LayeredMap;
+import com.newsRetreiver.newsRetreiver.Util.TextIndex;
+import com.newsRetreiver.newsRetreiver.Util.TopK;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable, read-optimized view of the article corpus.
+ * Articles are addressed by ordinal and their hot fields are kept in primitive columns.
+ * <p>
+ * {@link #withUpserted} derives the next snapshot incrementally: new articles get new ordinals,
+ * and an article whose id is already present retires its old ordinal. Retired ordinals drop out
+ * of the category, source, score and geo structures immediately; text index hits must be checked
+ * with {@link #isLive(int)}. {@link #retiredCount()} tells the owner when to compact.
+ * <p>
+ * An update still costs O(corpus), not O(batch): the primitive columns, the score and date orders and
+ * each postings list the batch touches are copied whole, and the geo index is rewritten in one merge
+ * pass. Only the id map, the text index and the duplicate buckets share their untouched parts. Over a
+ * million articles that is about 150 MB of copying and 100 ms per 1,000-article batch, so writers
+ * should apply large batches rather than single articles.
+ */
+public final class CatalogSnapshot {
+
+    public static final long UNKNOWN_DATE = Long.MIN_VALUE;
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final long version;
+    // Changes only on a full build; snapshots derived by withUpserted share their base's ordinals.
+    private final long generation;
+    private final NewsArticle[] articles;
+    private final LayeredMap<String, Integer> ordinalById;
+    private final BitSet retired;
+    private final int retiredCount;
+
+    private final double[] latitude;
+    private final double[] longitude;
+    private final double[] relevanceScore;
+    private final long[] publishedAt;
+
+    private final int[] sourceId;
+    private final String[] sourceNames;
+    private final Map<String, Integer> sourceIdByName;
+    private final int[][] sourcePostings;
+
+    private final int[] categoryStart;
+    private final int[] categoryIds;
+    private final String[] categoryNames;
+    private final Map<String, Integer> categoryIdByName;
+    private final int[][] categoryPostings;
+
+    private final int[] byScoreDesc;
+    private final int[] byDateDesc;
+
+    private final TextIndex textIndex;
+    private final GeoIndex geoIndex;
+    private final DuplicateIndex duplicateIndex;
+
+    private CatalogSnapshot() {
+        this.version = 0;
+        this.generation = 0;
+        this.articles = new NewsArticle[0];
+        this.ordinalById = LayeredMap.empty();
+        this.retired = new BitSet();
+        this.retiredCount = 0;
+        this.latitude = new double[0];
+        this.longitude = new double[0];
+        this.relevanceScore = new double[0];
+        this.publishedAt = new long[0];
+        this.sourceId = new int[0];
+        this.sourceNames = new String[0];
+        this.sourceIdByName = Map.of();
+        this.sourcePostings = new int[0][];
+        this.categoryStart = new int[1];
+        this.categoryIds = new int[0];
+        this.categoryNames = new String[0];
+        this.categoryIdByName = Map.of();
+        this.categoryPostings = new int[0][];
+        this.byScoreDesc = NO_POSTINGS;
+        this.byDateDesc = NO_POSTINGS;
+        this.textIndex = TextIndex.empty();
+        this.geoIndex = GeoIndex.build(latitude, longitude);
+        this.duplicateIndex = DuplicateIndex.empty();
+    }
+
+    private CatalogSnapshot(CatalogSnapshot previous, List<NewsArticle> batch, long version, long generation) {
+        List<NewsArticle> added = latestById(batch);
+        int base = previous.articles.length;
+        int n = base + added.size();
+        this.version = version;
+        this.generation = generation;
+        this.articles = Arrays.copyOf(previous.articles, n);
+        this.retired = (BitSet) previous.retired.clone();
+        this.latitude = Arrays.copyOf(previous.latitude, n);
+        this.longitude = Arrays.copyOf(previous.longitude, n);
+        this.relevanceScore = Arrays.copyOf(previous.relevanceScore, n);
+        this.publishedAt = Arrays.copyOf(previous.publishedAt, n);
+        this.sourceId = Arrays.copyOf(previous.sourceId, n);
+        this.categoryStart = Arrays.copyOf(previous.categoryStart, n + 1);
+
+        Map<String, Integer> sources = new HashMap<>(previous.sourceIdByName);
+        List<String> sourceList = new ArrayList<>(Arrays.asList(previous.sourceNames));
+        Map<String, Integer> categories = new HashMap<>(previous.categoryIdByName);
+        List<String> categoryList = new ArrayList<>(Arrays.asList(previous.categoryNames));
+        int categoryCount = previous.categoryStart[base];
+        int[] categoryBuffer = Arrays.copyOf(previous.categoryIds, Math.max(16, categoryCount + 2 * added.size()));
+        // Postings lists that gain or lose an ordinal; every other list is shared with the previous snapshot.
+        BitSet touchedSources = new BitSet();
+        BitSet touchedCategories = new BitSet();
+        Map<String, Integer> ordinalUpdates = new HashMap<>(added.size() * 2);
+        int[] retiredNow = new int[added.size()];
+        int retiredNowCount = 0;
+
+        for (int k = 0; k < added.size(); k++) {
+            int i = base + k;
+            NewsArticle a = added.get(k);
+            articles[i] = a;
+            if (a.getId() != null) {
+                Integer replaced = previous.ordinalById.get(a.getId());
+                ordinalUpdates.put(a.getId(), i);
+                if (replaced != null) {
+                    retire(replaced, previous, touchedSources, touchedCategories);
+                    retiredNow[retiredNowCount++] = replaced;
+                }
+            }
+            latitude[i] = a.getLatitude() != null && a.getLongitude() != null ? a.getLatitude() : Double.NaN;
+            longitude[i] = a.getLatitude() != null && a.getLongitude() != null ? a.getLongitude() : Double.NaN;
+            relevanceScore[i] = a.getRelevanceScore() != null ? a.getRelevanceScore() : Double.NaN;
+            publishedAt[i] = parseEpochSeconds(a.getPublicationDate());
+            sourceId[i] = a.getSourceName() != null ? intern(sources, sourceList, normalizeSource(a.getSourceName())) : -1;
+            if (sourceId[i] >= 0) touchedSources.set(sourceId[i]);
+
+            categoryStart[i] = categoryCount;
+            if (a.getCategory() != null) {
+                for (String category : a.getCategory()) {
+                    if (category == null) continue;
+                    if (categoryCount == categoryBuffer.length) {
+                        categoryBuffer = Arrays.copyOf(categoryBuffer, categoryBuffer.length * 2);
+                    }
+                    int id = intern(categories, categoryList, category);
+                    categoryBuffer[categoryCount++] = id;
+                    touchedCategories.set(id);
+                }
+            }
+        }
+        categoryStart[n] = categoryCount;
+        this.ordinalById = previous.ordinalById.withAll(ordinalUpdates);
+        this.retiredCount = retired.cardinality();
+
+        this.categoryIds = Arrays.copyOf(categoryBuffer, categoryCount);
+        this.sourceNames = sourceList.toArray(new String[0]);
+        this.sourceIdByName = sources;
+        this.categoryNames = categoryList.toArray(new String[0]);
+        this.categoryIdByName = categories;
+
+        retiredNow = Arrays.copyOf(retiredNow, retiredNowCount);
+        this.sourcePostings = mergeSourcePostings(previous, base, touchedSources, retiredNow);
+        this.categoryPostings = mergeCategoryPostings(previous, base, touchedCategories, retiredNow);
+        this.byScoreDesc = merge(previous.byScoreDesc, sortedOrdinals(range(base, n), this::compareByScoreDesc),
+                retiredNow, this::compareByScoreDesc);
+        this.byDateDesc = merge(previous.byDateDesc, sortedOrdinals(range(base, n), this::compareByDateDesc),
+                retiredNow, this::compareByDateDesc);
+        this.textIndex = previous.textIndex.withAdded(added);
+        this.geoIndex = previous.geoIndex.withAdded(latitude, longitude, base);
+        this.duplicateIndex = previous.duplicateIndex.withAdded(added);
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot();
+    }
+
+    public static CatalogSnapshot build(List<NewsArticle> articles, long version) {
+        return new CatalogSnapshot(empty(), articles, version, version);
+    }
+
+    /**
+     * A new snapshot with {@code added} upserted by id: each article gets a new ordinal after the
+     * existing ones, and any article it replaces is retired. Only the postings lists the batch
+     * touches are rebuilt, by merging rather than re-sorting; see the class comment for what is copied.
+     */
+    public CatalogSnapshot withUpserted(List<NewsArticle> added, long version) {
+        return new CatalogSnapshot(this, added, version, generation);
+    }
+
+    /**
+     * Articles still current, in ordinal order.
+     */
+    public List<NewsArticle> liveArticles() {
+        List<NewsArticle> live = new ArrayList<>(articles.length - retiredCount);
+        for (int i = 0; i < articles.length; i++) {
+            if (!retired.get(i)) live.add(articles[i]);
+        }
+        return live;
+    }
+
+    public long version() { return version; }
+    public long generation() { return generation; }
+    public int size() { return articles.length; }
+    public int retiredCount() { return retiredCount; }
+    public boolean isLive(int ordinal) { return !retired.get(ordinal); }
+    public NewsArticle article(int ordinal) { return articles[ordinal]; }
+    public double latitude(int ordinal) { return latitude[ordinal]; }
+    public double longitude(int ordinal) { return longitude[ordinal]; }
+    public double relevanceScore(int ordinal) { return relevanceScore[ordinal]; }
+    public long publishedAt(int ordinal) { return publishedAt[ordinal]; }
+    public boolean hasLocation(int ordinal) { return !Double.isNaN(latitude[ordinal]); }
+    public TextIndex textIndex() { return textIndex; }
+    public GeoIndex geoIndex() { return geoIndex; }
+    public DuplicateIndex duplicateIndex() { return duplicateIndex; }
+
+    /**
+     * Every category name seen, including some whose articles have all been retired since.
+     */
+    public List<String> categoryNames() {
+        return Collections.unmodifiableList(Arrays.asList(categoryNames));
+    }
+
+    /**
+     * Every source name seen (lower-cased), including some whose articles have all been retired since.
+     */
+    public List<String> sourceNames() {
+        return Collections.unmodifiableList(Arrays.asList(sourceNames));
+    }
+
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinalById.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * The first live member of the article's near-duplicate cluster; the article itself when none is live.
+     */
+    public int firstLiveCopy(int ordinal) {
+        if (!duplicateIndex.hasCopies(ordinal)) return ordinal;
+        for (int member = duplicateIndex.headOf(ordinal); member >= 0; member = duplicateIndex.nextMember(member)) {
+            if (!retired.get(member)) return member;
+        }
+        return ordinal;
+    }
+
+    public boolean hasCategory(int ordinal, String category) {
+        Integer id = categoryIdByName.get(category);
+        if (id == null) return false;
+        for (int i = categoryStart[ordinal]; i < categoryStart[ordinal + 1]; i++) {
+            if (categoryIds[i] == id) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ordinals of articles tagged with the category, newest first.
+     */
+    public int[] byCategory(String category) {
+        Integer id = categoryIdByName.get(category);
+        return id != null ? categoryPostings[id] : NO_POSTINGS;
+    }
+
+    /**
+     * Ordinals of articles from the source (case-insensitive), newest first.
+     */
+    public int[] bySource(String source) {
+        Integer id = sourceIdByName.get(normalizeSource(source));
+        return id != null ? sourcePostings[id] : NO_POSTINGS;
+    }
+
+    /**
+     * All ordinals ordered by relevance score, highest first. Articles without a score sort last.
+     */
+    public int[] byScoreDescending() {
+        return byScoreDesc;
+    }
+
+    /**
+     * All ordinals newest first. Articles without a date sort last.
+     */
+    public int[] byDateDescending() {
+        return byDateDesc;
+    }
+
+    public int sourceIdOf(String source) {
+        Integer id = sourceIdByName.get(normalizeSource(source));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * The article's interned source id, or -1 when it has no source.
+     */
+    public int sourceIdAt(int ordinal) {
+        return sourceId[ordinal];
+    }
+
+    /**
+     * Newest-first comparison with id as tie-breaker, the same order MongoDB page queries use,
+     * so a cursor means the same thing whichever side serves the next page.
+     */
+    public int compareByDateDesc(int a, int b) {
+        int cmp = Long.compare(publishedAt[b], publishedAt[a]);
+        if (cmp != 0) return cmp;
+        cmp = compareIds(articles[a].getId(), articles[b].getId());
+        return cmp != 0 ? cmp : Integer.compare(a, b);
+    }
+
+    public int compareByScoreDesc(int a, int b) {
+        int cmp = Double.compare(scoreForOrdering(b), scoreForOrdering(a));
+        if (cmp != 0) return cmp;
+        cmp = compareIds(articles[a].getId(), articles[b].getId());
+        return cmp != 0 ? cmp : Integer.compare(a, b);
+    }
+
+    /**
+     * True when the article sorts after the cursor position (date, id) in newest-first order.
+     */
+    public boolean isAfterDate(int ordinal, long date, String id) {
+        int cmp = Long.compare(date, publishedAt[ordinal]);
+        return cmp != 0 ? cmp > 0 : compareIds(articles[ordinal].getId(), id) > 0;
+    }
+
+    /**
+     * True when the article sorts after the cursor position (score, id) in highest-score-first order.
+     */
+    public boolean isAfterScore(int ordinal, double score, String id) {
+        int cmp = Double.compare(score, scoreForOrdering(ordinal));
+        return cmp != 0 ? cmp > 0 : compareIds(articles[ordinal].getId(), id) > 0;
+    }
+
+    /**
+     * Index of the first entry of a newest-first list that comes after the cursor position.
+     */
+    public int firstAfterDate(int[] ordinals, long date, String id) {
+        return firstMatching(ordinals, ordinal -> isAfterDate(ordinal, date, id));
+    }
+
+    /**
+     * Index of the first entry of {@link #byScoreDescending()} that comes after the cursor position.
+     */
+    public int firstAfterScore(double score, String id) {
+        return firstMatching(byScoreDesc, ordinal -> isAfterScore(ordinal, score, id));
+    }
+
+    /**
+     * Number of articles with a relevance score of at least {@code threshold}; they lead {@link #byScoreDescending()}.
+     */
+    public int countScoreAtLeast(double threshold) {
+        return firstMatching(byScoreDesc, ordinal -> !(relevanceScore[ordinal] >= threshold));
+    }
+
+    /**
+     * Number of articles with a relevance score above {@code threshold}; they lead {@link #byScoreDescending()}.
+     */
+    public int countScoreAbove(double threshold) {
+        return firstMatching(byScoreDesc, ordinal -> !(relevanceScore[ordinal] > threshold));
+    }
+
+    /**
+     * Number of articles published at or after {@code epochSeconds}; they lead {@link #byDateDescending()}.
+     */
+    public int countPublishedSince(long epochSeconds) {
+        return firstMatching(byDateDesc, ordinal -> publishedAt[ordinal] < epochSeconds);
+    }
+
+    /**
+     * Number of articles published after {@code epochSeconds}; they lead {@link #byDateDescending()}.
+     */
+    public int countPublishedAfter(long epochSeconds) {
+        return firstMatching(byDateDesc, ordinal -> publishedAt[ordinal] <= epochSeconds);
+    }
+
+    double scoreForOrdering(int ordinal) {
+        return Double.isNaN(relevanceScore[ordinal]) ? Double.NEGATIVE_INFINITY : relevanceScore[ordinal];
+    }
+
+    /**
+     * Binary search for the first position where a predicate that is false-then-true becomes true.
+     */
+    private static int firstMatching(int[] ordinals, IntPredicate predicate) {
+        int low = 0;
+        int high = ordinals.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(ordinals[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int compareIds(String a, String b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        return a.compareTo(b);
+    }
+
+    private void retire(int ordinal, CatalogSnapshot previous, BitSet touchedSources, BitSet touchedCategories) {
+        retired.set(ordinal);
+        // NaN coordinates keep the retired ordinal out of the geo index.
+        latitude[ordinal] = Double.NaN;
+        longitude[ordinal] = Double.NaN;
+        if (sourceId[ordinal] >= 0) touchedSources.set(sourceId[ordinal]);
+        for (int j = previous.categoryStart[ordinal]; j < previous.categoryStart[ordinal + 1]; j++) {
+            touchedCategories.set(previous.categoryIds[j]);
+        }
+    }
+
+    private int[][] mergeSourcePostings(CatalogSnapshot previous, int base, BitSet touched, int[] retiredNow) {
+        int[][] postings = Arrays.copyOf(previous.sourcePostings, sourceNames.length);
+        int[] counts = new int[sourceNames.length];
+        for (int i = base; i < articles.length; i++) {
+            if (sourceId[i] >= 0) counts[sourceId[i]]++;
+        }
+        int[][] added = new int[sourceNames.length][];
+        for (int s = touched.nextSetBit(0); s >= 0; s = touched.nextSetBit(s + 1)) {
+            added[s] = new int[counts[s]];
+        }
+        int[] fill = new int[sourceNames.length];
+        for (int i = base; i < articles.length; i++) {
+            int s = sourceId[i];
+            if (s >= 0) added[s][fill[s]++] = i;
+        }
+        int[][] removed = new int[sourceNames.length][];
+        int[] removedCount = new int[sourceNames.length];
+        for (int ordinal : retiredNow) {
+            int s = sourceId[ordinal];
+            if (s >= 0) appendTo(removed, removedCount, s, ordinal);
+        }
+        for (int s = touched.nextSetBit(0); s >= 0; s = touched.nextSetBit(s + 1)) {
+            int[] existing = postings[s] != null ? postings[s] : NO_POSTINGS;
+            postings[s] = merge(existing, sortedOrdinals(added[s], this::compareByDateDesc),
+                    retiredFrom(removed, removedCount, s), this::compareByDateDesc);
+        }
+        return postings;
+    }
+
+    private int[][] mergeCategoryPostings(CatalogSnapshot previous, int base, BitSet touched, int[] retiredNow) {
+        int[][] postings = Arrays.copyOf(previous.categoryPostings, categoryNames.length);
+        int[] counts = new int[categoryNames.length];
+        for (int j = categoryStart[base]; j < categoryIds.length; j++) {
+            counts[categoryIds[j]]++;
+        }
+        int[][] added = new int[categoryNames.length][];
+        for (int c = touched.nextSetBit(0); c >= 0; c = touched.nextSetBit(c + 1)) {
+            added[c] = new int[counts[c]];
+        }
+        int[] fill = new int[categoryNames.length];
+        for (int i = base; i < articles.length; i++) {
+            for (int j = categoryStart[i]; j < categoryStart[i + 1]; j++) {
+                int c = categoryIds[j];
+                // An article listing the same category twice is only indexed once.
+                if (fill[c] > 0 && added[c][fill[c] - 1] == i) continue;
+                added[c][fill[c]++] = i;
+            }
+        }
+        int[][] removed = new int[categoryNames.length][];
+        int[] removedCount = new int[categoryNames.length];
+        for (int ordinal : retiredNow) {
+            for (int j = previous.categoryStart[ordinal]; j < previous.categoryStart[ordinal + 1]; j++) {
+                int c = previous.categoryIds[j];
+                if (removedCount[c] > 0 && removed[c][removedCount[c] - 1] == ordinal) continue;
+                appendTo(removed, removedCount, c, ordinal);
+            }
+        }
+        for (int c = touched.nextSetBit(0); c >= 0; c = touched.nextSetBit(c + 1)) {
+            int[] existing = postings[c] != null ? postings[c] : NO_POSTINGS;
+            int[] fresh = sortedOrdinals(Arrays.copyOf(added[c], fill[c]), this::compareByDateDesc);
+            postings[c] = merge(existing, fresh, retiredFrom(removed, removedCount, c), this::compareByDateDesc);
+        }
+        return postings;
+    }
+
+    private static void appendTo(int[][] lists, int[] counts, int list, int ordinal) {
+        if (lists[list] == null) {
+            lists[list] = new int[4];
+        } else if (counts[list] == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], counts[list] * 2);
+        }
+        lists[list][counts[list]++] = ordinal;
+    }
+
+    private static int[] retiredFrom(int[][] lists, int[] counts, int list) {
+        return lists[list] != null ? Arrays.copyOf(lists[list], counts[list]) : NO_POSTINGS;
+    }
+
+    /**
+     * Merge two lists already sorted by {@code comparator}, dropping {@code retiredNow}, ordinals this
+     * snapshot retired, from {@code existing}. Each added and retired ordinal is placed by binary search and the runs of
+     * {@code existing} between them are copied whole, so the comparator runs O((added + retired) log n)
+     * times; what is left is one array copy of the list.
+     */
+    private static int[] merge(int[] existing, int[] added, int[] retiredNow, TopK.OrdinalComparator comparator) {
+        int[] removed = new int[retiredNow.length];
+        int removedCount = 0;
+        for (int ordinal : retiredNow) {
+            int at = indexOf(existing, ordinal, comparator);
+            if (at >= 0) removed[removedCount++] = at;
+        }
+        Arrays.sort(removed, 0, removedCount);
+        if (added.length == 0 && removedCount == 0) return existing;
+
+        int[] merged = new int[existing.length - removedCount + added.length];
+        int size = 0;
+        int from = 0;
+        int nextRemoved = 0;
+        for (int j = 0; j <= added.length; j++) {
+            // Existing ordinals that sort at or before added[j] go first, as in a stable merge.
+            int to = j == added.length ? existing.length : upperBound(existing, added[j], comparator);
+            for (; nextRemoved < removedCount && removed[nextRemoved] < to; nextRemoved++) {
+                System.arraycopy(existing, from, merged, size, removed[nextRemoved] - from);
+                size += removed[nextRemoved] - from;
+                from = removed[nextRemoved] + 1;
+            }
+            System.arraycopy(existing, from, merged, size, to - from);
+            size += to - from;
+            from = to;
+            if (j < added.length) merged[size++] = added[j];
+        }
+        return merged;
+    }
+
+    /**
+     * First index of {@code sorted} whose ordinal sorts after {@code ordinal}.
+     */
+    private static int upperBound(int[] sorted, int ordinal, TopK.OrdinalComparator comparator) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted[mid], ordinal) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of {@code ordinal} in {@code sorted}, or -1. Ordinals comparing equal to it are checked one by one.
+     */
+    private static int indexOf(int[] sorted, int ordinal, TopK.OrdinalComparator comparator) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted[mid], ordinal) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < sorted.length && comparator.compare(sorted[i], ordinal) == 0; i++) {
+            if (sorted[i] == ordinal) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The batch with one article per id, the last occurrence winning. Articles without an id are kept.
+     */
+    private static List<NewsArticle> latestById(List<NewsArticle> batch) {
+        Map<String, Integer> lastIndex = new HashMap<>(batch.size() * 2);
+        for (int i = 0; i < batch.size(); i++) {
+            String id = batch.get(i).getId();
+            if (id != null) lastIndex.put(id, i);
+        }
+        if (lastIndex.size() == batch.size()) return batch;
+        List<NewsArticle> latest = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            String id = batch.get(i).getId();
+            if (id == null || lastIndex.get(id) == i) latest.add(batch.get(i));
+        }
+        return latest;
+    }
+
+    private static int[] range(int from, int to) {
+        int[] ordinals = new int[to - from];
+        for (int i = from; i < to; i++) {
+            ordinals[i - from] = i;
+        }
+        return ordinals;
+    }
+
+    private static int[] sortedOrdinals(int[] ordinals, TopK.OrdinalComparator comparator) {
+        TopK.sort(ordinals, comparator);
+        return ordinals;
+    }
+
+    private static int intern(Map<String, Integer> ids, List<String> names, String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = names.size();
+            ids.put(value, id);
+            names.add(value);
+        }
+        return id;
+    }
+
+    private static String normalizeSource(String source) {
+        return source.toLowerCase(Locale.ROOT);
+    }
+
+    static long parseEpochSeconds(String date) {
+        if (date == null || date.isEmpty()) return UNKNOWN_DATE;
+        try {
+            return LocalDateTime.parse(date).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException ignored) {
+            // Fall through to zoned formats.
+        }
+        try {
+            return OffsetDateTime.parse(date).toEpochSecond();
+        } catch (DateTimeParseException ignored) {
+            // Fall through.
+        }
+        try {
+            return Instant.parse(date).getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return UNKNOWN_DATE;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the article data, bumped after every seed load and ingest write.
+ * Anything derived from the data (cached responses, ETags) is keyed by it.
+ * <p>
+ * It starts from the startup time, so versions handed out before a restart are never reused after it.
+ */
+@Service
+public class DatasetVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
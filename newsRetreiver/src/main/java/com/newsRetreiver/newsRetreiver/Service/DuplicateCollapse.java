@@ -0,0 +1,65 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Util.DuplicateIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Collapses near-duplicate articles within one listing. Of each {@link DuplicateIndex} cluster only the
+ * lowest-ordinal live member matching the listing is kept. The choice depends on neither sort order nor
+ * page, so a story never reappears on a later page under another copy.
+ * <p>
+ * One instance serves one request: each cluster's representative is looked up once and remembered.
+ */
+final class DuplicateCollapse {
+
+    static final DuplicateCollapse NONE = new DuplicateCollapse(null, ordinal -> true);
+
+    private final CatalogSnapshot snapshot;
+    private final IntPredicate matches;
+    private final Map<Integer, Integer> representativeByHead = new HashMap<>();
+
+    private DuplicateCollapse(CatalogSnapshot snapshot, IntPredicate matches) {
+        this.snapshot = snapshot;
+        this.matches = matches;
+    }
+
+    /**
+     * {@code matches} tells which ordinals the listing contains, live or not; retired ones are skipped here.
+     */
+    static DuplicateCollapse of(CatalogSnapshot snapshot, IntPredicate matches) {
+        return new DuplicateCollapse(snapshot, matches);
+    }
+
+    /**
+     * True when the matching, live {@code ordinal} is its cluster's representative in this listing.
+     */
+    boolean keeps(int ordinal) {
+        if (snapshot == null || !snapshot.duplicateIndex().hasCopies(ordinal)) return true;
+        int head = snapshot.duplicateIndex().headOf(ordinal);
+        return representativeByHead.computeIfAbsent(head, this::firstMatching) == ordinal;
+    }
+
+    /**
+     * How many other live members of the cluster the listing also matches.
+     */
+    int duplicates(int ordinal) {
+        if (snapshot == null || !snapshot.duplicateIndex().hasCopies(ordinal)) return 0;
+        DuplicateIndex index = snapshot.duplicateIndex();
+        int count = 0;
+        for (int member = index.headOf(ordinal); member >= 0; member = index.nextMember(member)) {
+            if (member != ordinal && snapshot.isLive(member) && matches.test(member)) count++;
+        }
+        return count;
+    }
+
+    private int firstMatching(int head) {
+        DuplicateIndex index = snapshot.duplicateIndex();
+        for (int member = head; member >= 0; member = index.nextMember(member)) {
+            if (snapshot.isLive(member) && matches.test(member)) return member;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,27 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import java.util.List;
+
+/**
+ * Turns text into fixed-length vectors for {@link SemanticIndex}. Which implementation is active is
+ * chosen by {@code news.embedding.provider}.
+ */
+public interface EmbeddingProvider {
+
+    int dimensions();
+
+    /**
+     * Unit-length vectors, one per text and in the same order. Returns null when the provider is
+     * unavailable, so the caller can try again later.
+     */
+    List<float[]> embed(List<String> texts);
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) norm += v * v;
+        if (norm == 0) return vector;
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) vector[i] *= scale;
+        return vector;
+    }
+}
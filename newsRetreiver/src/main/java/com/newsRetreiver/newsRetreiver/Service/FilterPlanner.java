@@ -0,0 +1,183 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Util.GeoIndex;
+import com.newsRetreiver.newsRetreiver.Util.Haversine;
+import com.newsRetreiver.newsRetreiver.Util.TextIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Evaluates a composite {@link ArticleFilter} against a {@link CatalogSnapshot}.
+ * <p>
+ * Every condition estimates how many articles it matches before doing any work: exactly for the
+ * category and source postings and the score and date ranges (binary search on the sorted lists),
+ * and as an upper bound for the radius (points in the grid cells touched) and the text phrase (the
+ * rarest term's postings). The most selective condition drives and seeds a candidate bitset. Each
+ * other condition, most selective first, is then either materialized as its own bitset and ANDed in,
+ * when its estimate is below the cost of testing every remaining candidate, or tested per candidate.
+ */
+final class FilterPlanner {
+
+    // Testing one candidate against a radius costs a Haversine; a column comparison costs about one bitset insert.
+    private static final double COLUMN_TEST_COST = 1;
+    private static final double DISTANCE_TEST_COST = 4;
+
+    private FilterPlanner() {
+    }
+
+    /**
+     * Ordinals matching every condition of {@code filter}; dates are epoch seconds, already validated.
+     */
+    static Plan run(CatalogSnapshot snapshot, ArticleFilter filter, long publishedFrom, long publishedTo) {
+        List<Condition> conditions = conditions(snapshot, filter, publishedFrom, publishedTo);
+        conditions.sort(Comparator.comparingLong(condition -> condition.estimate));
+
+        StringBuilder description = new StringBuilder();
+        BitSet matches = new BitSet(snapshot.size());
+        Condition driver = conditions.get(0);
+        driver.addTo(matches);
+        int remaining = matches.cardinality();
+        description.append(driver.name).append('(').append(driver.estimate).append(")=").append(remaining);
+        for (Condition condition : conditions.subList(1, conditions.size())) {
+            if (remaining == 0) break;
+            if (condition.estimate <= remaining * condition.testCost) {
+                BitSet other = new BitSet(snapshot.size());
+                condition.addTo(other);
+                matches.and(other);
+                description.append(" & bitset ");
+            } else {
+                for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                    if (!condition.test.test(ordinal)) matches.clear(ordinal);
+                }
+                description.append(" & test ");
+            }
+            remaining = matches.cardinality();
+            description.append(condition.name).append('(').append(condition.estimate).append(")=").append(remaining);
+        }
+        return new Plan(matches, remaining, description.toString());
+    }
+
+    private static List<Condition> conditions(CatalogSnapshot snapshot, ArticleFilter filter, long publishedFrom, long publishedTo) {
+        List<Condition> conditions = new ArrayList<>();
+        if (filter.getCategory() != null) {
+            String category = filter.getCategory();
+            conditions.add(Condition.ofList("category", snapshot.byCategory(category), 0, snapshot.byCategory(category).length,
+                    ordinal -> snapshot.hasCategory(ordinal, category)));
+        }
+        if (filter.getSource() != null) {
+            int sourceId = snapshot.sourceIdOf(filter.getSource());
+            int[] postings = snapshot.bySource(filter.getSource());
+            conditions.add(Condition.ofList("source", postings, 0, postings.length,
+                    ordinal -> sourceId >= 0 && snapshot.sourceIdAt(ordinal) == sourceId));
+        }
+        if (filter.getMinScore() != null || filter.getMaxScore() != null) {
+            double min = filter.getMinScore() != null ? filter.getMinScore() : Double.NEGATIVE_INFINITY;
+            double max = filter.getMaxScore() != null ? filter.getMaxScore() : Double.POSITIVE_INFINITY;
+            int from = snapshot.countScoreAbove(max);
+            int to = Math.max(from, snapshot.countScoreAtLeast(min));
+            conditions.add(Condition.ofList("score", snapshot.byScoreDescending(), from, to, ordinal -> {
+                double score = snapshot.relevanceScore(ordinal);
+                return score >= min && score <= max;
+            }));
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            int from = snapshot.countPublishedAfter(publishedTo);
+            int to = Math.max(from, snapshot.countPublishedSince(publishedFrom));
+            conditions.add(Condition.ofList("date", snapshot.byDateDescending(), from, to, ordinal -> {
+                long published = snapshot.publishedAt(ordinal);
+                return published != CatalogSnapshot.UNKNOWN_DATE && published >= publishedFrom && published <= publishedTo;
+            }));
+        }
+        if (filter.getRadius() != null) {
+            double lat = filter.getLat();
+            double lon = filter.getLon();
+            double radius = filter.getRadius();
+            GeoIndex geo = snapshot.geoIndex();
+            conditions.add(new Condition("radius", geo.estimateWithin(lat, lon, radius), DISTANCE_TEST_COST,
+                    ordinal -> snapshot.hasLocation(ordinal)
+                            && Haversine.calculateDistance(lat, lon, snapshot.latitude(ordinal), snapshot.longitude(ordinal)) <= radius) {
+                @Override
+                void addTo(BitSet set) {
+                    GeoIndex.Matches within = geo.within(lat, lon, radius);
+                    for (int i = 0; i < within.size(); i++) {
+                        set.set(within.ordinal(i));
+                    }
+                }
+            });
+        }
+        if (filter.getText() != null) {
+            String text = filter.getText();
+            TextIndex index = snapshot.textIndex();
+            // There is no per-article phrase test, so the text condition is always materialized.
+            conditions.add(new Condition("text", index.estimateMatches(text), Double.POSITIVE_INFINITY, ordinal -> true) {
+                @Override
+                void addTo(BitSet set) {
+                    TextIndex.Hits hits = index.search(List.of(text));
+                    for (int i = 0; i < hits.size(); i++) {
+                        if (snapshot.isLive(hits.doc(i))) set.set(hits.doc(i));
+                    }
+                }
+            });
+        }
+        return conditions;
+    }
+
+    /**
+     * One condition: its estimated match count, the relative cost of testing a single article, and
+     * how to materialize all its matches.
+     */
+    private abstract static class Condition {
+        final String name;
+        final long estimate;
+        final double testCost;
+        final IntPredicate test;
+
+        Condition(String name, long estimate, double testCost, IntPredicate test) {
+            this.name = name;
+            this.estimate = estimate;
+            this.testCost = testCost;
+            this.test = test;
+        }
+
+        abstract void addTo(BitSet set);
+
+        /**
+         * A condition whose matches are exactly {@code ordinals[from, to)}.
+         */
+        static Condition ofList(String name, int[] ordinals, int from, int to, IntPredicate test) {
+            return new Condition(name, to - from, COLUMN_TEST_COST, test) {
+                @Override
+                void addTo(BitSet set) {
+                    for (int i = from; i < to; i++) {
+                        set.set(ordinals[i]);
+                    }
+                }
+            };
+        }
+    }
+
+    static final class Plan {
+        private final BitSet matches;
+        private final int count;
+        private final String description;
+
+        Plan(BitSet matches, int count, String description) {
+            this.matches = matches;
+            this.count = count;
+            this.description = description;
+        }
+
+        BitSet matches() { return matches; }
+        int count() { return count; }
+
+        /**
+         * The steps taken, each as name(estimate)=survivors, e.g. {@code source(412)=412 & test category(9120)=37}.
+         */
+        String describe() { return description; }
+    }
+}
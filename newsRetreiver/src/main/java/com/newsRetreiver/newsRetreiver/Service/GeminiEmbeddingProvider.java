@@ -0,0 +1,36 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Embeddings from the Gemini embedding model, which match paraphrases the hashing provider cannot.
+ * Calls go through {@link GeminiService}'s rate limit and circuit breaker like every other Gemini call.
+ */
+@Component
+@ConditionalOnProperty(name = "news.embedding.provider", havingValue = "gemini")
+public class GeminiEmbeddingProvider implements EmbeddingProvider {
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Value("${news.embedding.dimensions:256}")
+    private int dimensions;
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<float[]> vectors = geminiService.embed(texts, dimensions);
+        if (vectors == null) return null;
+        vectors.replaceAll(vector -> vector != null ? EmbeddingProvider.normalize(vector) : null);
+        return vectors;
+    }
+}
@@ -1,48 +1,172 @@
 package com.newsRetreiver.newsRetreiver.Service;
 
 import okhttp3.*;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import okio.BufferedSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.newsRetreiver.newsRetreiver.Model.GeminiResult;
 import com.newsRetreiver.newsRetreiver.Model.LLMResponse;
+import com.newsRetreiver.newsRetreiver.Util.AdaptiveConcurrencyLimiter;
+import com.newsRetreiver.newsRetreiver.Util.CircuitBreaker;
+import com.newsRetreiver.newsRetreiver.Util.TokenBucket;
+import jakarta.annotation.PostConstruct;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Service
 public class GeminiService {
 
+    private static final Logger log = LoggerFactory.getLogger(GeminiService.class);
+
+    /**
+     * Bump whenever the summary prompt changes so cached summaries from the old prompt are not reused.
+     */
+    public static final String SUMMARY_PROMPT_VERSION = "v1";
+
+    // Readers are immutable and thread-safe, so every request and response shares these.
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+    private static final ObjectReader EXTRACTION_READER = MAPPER.readerFor(LLMResponse.class);
+    private static final ObjectReader BATCH_READER = MAPPER.readerFor(new TypeReference<List<BatchItem>>() { });
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    // Response schemas (an OpenAPI subset) for the calls whose answers are parsed as JSON.
+    private static final JsonNode EXTRACTION_SCHEMA = schema("""
+            {"type": "OBJECT",
+             "properties": {"entities": {"type": "ARRAY", "items": {"type": "STRING"}},
+                            "intent": {"type": "STRING"}},
+             "required": ["entities", "intent"]}""");
+    private static final JsonNode BATCH_SCHEMA = schema("""
+            {"type": "ARRAY",
+             "items": {"type": "OBJECT",
+                       "properties": {"id": {"type": "STRING"}, "summary": {"type": "STRING"}},
+                       "required": ["id", "summary"]}}""");
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
+    @Value("${gemini.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+
+    @Value("${gemini.model:gemini-1.5-pro-001}")
+    private String model;
+
+    @Value("${gemini.embedding-model:text-embedding-004}")
+    private String embeddingModel;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
     private final OkHttpClient client = new OkHttpClient.Builder()
             .connectTimeout(20, TimeUnit.SECONDS)
             .readTimeout(60, TimeUnit.SECONDS)
             .writeTimeout(60, TimeUnit.SECONDS)
             .build();
 
-    private final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-pro-001:generateContent?key=";
+    private TokenBucket rateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private final AtomicLong throttledUntil = new AtomicLong();
+    // Failure warnings are sampled: during an outage every call fails, and the counts are in the metrics.
+    private final TokenBucket warnings = new TokenBucket(1, 5);
+
+    @Value("${gemini.rate-limit.requests-per-minute:60}")
+    private double requestsPerMinute;
+
+    @Value("${gemini.rate-limit.burst:10}")
+    private double burst;
+
+    @Value("${gemini.rate-limit.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    @Value("${gemini.rate-limit.default-retry-after-ms:30000}")
+    private long defaultRetryAfterMs;
+
+    @Value("${gemini.concurrency.initial:4}")
+    private int initialConcurrency;
+
+    @Value("${gemini.concurrency.max:16}")
+    private int maxConcurrency;
+
+    @Value("${gemini.concurrency.target-latency-ms:5000}")
+    private long targetLatencyMs;
+
+    @Value("${gemini.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${gemini.circuit-breaker.open-ms:30000}")
+    private long openMs;
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new TokenBucket(requestsPerMinute / 60, burst);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialConcurrency, 1, maxConcurrency, targetLatencyMs);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        // Async calls queue in OkHttp's dispatcher (5 per host by default); the concurrency limiter is the real cap.
+        client.dispatcher().setMaxRequests(maxConcurrency);
+        client.dispatcher().setMaxRequestsPerHost(maxConcurrency);
+        String modelUrl = baseUrl.replaceAll("/+$", "") + "/models/" + model;
+        generateUrl = modelUrl + ":generateContent?key=";
+        streamUrl = modelUrl + ":streamGenerateContent?alt=sse&key=";
+        embedUrl = baseUrl.replaceAll("/+$", "") + "/models/" + embeddingModel + ":batchEmbedContents?key=";
+    }
+
+    private String generateUrl;
+    private String streamUrl;
+    private String embedUrl;
 
     /**
      * Extract structured intent and entities from a user query.
      */
     public LLMResponse extractIntentAndEntitiesParsed(String query) {
-        String prompt = "Extract entities and user intent from the following query:\n\"" + query + "\"\n"
+        return parseExtraction(callGeminiForText("extraction", extractionPrompt(query), EXTRACTION_SCHEMA), query);
+    }
+
+    /**
+     * Non-blocking {@link #extractIntentAndEntitiesParsed}: completes on an OkHttp callback thread.
+     */
+    public CompletableFuture<LLMResponse> extractIntentAndEntitiesAsync(String query) {
+        return callGeminiAsync("extraction", extractionPrompt(query), EXTRACTION_SCHEMA).thenApply(result -> parseExtraction(result, query));
+    }
+
+    private static String extractionPrompt(String query) {
+        return "Extract entities and user intent from the following query:\n\"" + query + "\"\n"
                 + "Return a JSON with keys 'entities' (list of strings) and 'intent' (string).";
+    }
 
-        String jsonResponse = callGeminiForJson(prompt);
-        if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
-            System.out.println("❌ No valid response from Gemini for query: " + query);
+    private LLMResponse parseExtraction(GeminiResult result, String query) {
+        if (!result.isSuccess()) {
+            log.debug("No valid extraction from Gemini for query: {}", query);
             return null;
         }
-
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(jsonResponse, LLMResponse.class);
-        } catch (Exception e) {
-            System.out.println("⚠️ Failed to parse LLM JSON:\n" + jsonResponse);
-            e.printStackTrace();
+            return EXTRACTION_READER.readValue(result.getText());
+        } catch (IOException e) {
+            warn("Failed to parse extraction JSON from Gemini: {}", e.getMessage());
             return null;
         }
     }
@@ -50,102 +174,409 @@ public class GeminiService {
     /**
      * Summarize a news article using Gemini.
      */
-    public String summarizeArticle(String text) {
+    public GeminiResult summarizeArticle(String text) {
+        return callGeminiForText("summary", summaryPrompt(text), null);
+    }
+
+    public CompletableFuture<GeminiResult> summarizeArticleAsync(String text) {
+        return callGeminiAsync("summary", summaryPrompt(text), null);
+    }
+
+    /**
+     * Summarize a news article with {@code streamGenerateContent}, handing each text chunk to
+     * {@code onDelta} as it arrives. The result holds the whole summary once the stream ends.
+     */
+    public GeminiResult summarizeArticleStreaming(String text, Consumer<String> onDelta) {
+        String prompt = summaryPrompt(text);
+        return guarded("summary_stream", () -> executeStreaming(prompt, onDelta));
+    }
+
+    private static String summaryPrompt(String text) {
+        return "Summarize the following news article in 2 short lines:\n" + text;
+    }
+
+    /**
+     * Summarize several articles in a single request. Keys are caller-chosen ids echoed back by the model;
+     * articles it skipped or answered malformed are simply missing from the result.
+     */
+    public Map<String, String> summarizeArticles(Map<String, String> textsById) {
+        if (textsById.isEmpty()) return new HashMap<>();
+        return parseBatch(callGeminiForText("batch_summary", batchPrompt(textsById), BATCH_SCHEMA), textsById);
+    }
+
+    public CompletableFuture<Map<String, String>> summarizeArticlesAsync(Map<String, String> textsById) {
+        if (textsById.isEmpty()) return CompletableFuture.completedFuture(new HashMap<>());
+        return callGeminiAsync("batch_summary", batchPrompt(textsById), BATCH_SCHEMA).thenApply(result -> parseBatch(result, textsById));
+    }
+
+    private static String batchPrompt(Map<String, String> textsById) {
+        StringBuilder prompt = new StringBuilder()
+                .append("Summarize each of the following news articles in 2 short lines.\n")
+                .append("Return only a JSON array of objects with keys 'id' (the article id exactly as given) and 'summary'.\n");
+        textsById.forEach((id, text) -> prompt.append("\nArticle id: ").append(id).append("\n").append(text).append("\n"));
+        return prompt.toString();
+    }
+
+    private Map<String, String> parseBatch(GeminiResult result, Map<String, String> textsById) {
+        Map<String, String> summaries = new HashMap<>();
+        if (!result.isSuccess()) return summaries;
         try {
-            String prompt = "Summarize the following news article in 2 short lines:\n" + text;
-            return callGeminiForText(prompt);
+            List<BatchItem> items = BATCH_READER.readValue(result.getText());
+            for (BatchItem item : items) {
+                if (item == null) continue;
+                if (item.id != null && textsById.containsKey(item.id) && item.summary != null && !item.summary.isBlank()) {
+                    summaries.put(item.id, item.summary.trim());
+                }
+            }
+        } catch (IOException e) {
+            warn("Invalid batch summary JSON from Gemini: {}", e.getMessage());
+        }
+        return summaries;
+    }
+
+    /**
+     * Embed each text with the embedding model in one batchEmbedContents call, asking for
+     * {@code dimensions} values per vector. Returns null when the call fails; vectors the
+     * response leaves out are null.
+     */
+    public List<float[]> embed(List<String> texts, int dimensions) {
+        List<float[]> vectors = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        if (texts.isEmpty()) return vectors;
+        GeminiResult result = guarded("embedding", () -> executeEmbedding(texts, dimensions, vectors));
+        return result.isSuccess() ? vectors : null;
+    }
+
+    private GeminiResult executeEmbedding(List<String> texts, int dimensions, List<float[]> vectors) throws IOException {
+        ObjectNode body = MAPPER.createObjectNode();
+        ArrayNode requests = body.putArray("requests");
+        for (String text : texts) {
+            ObjectNode request = requests.addObject().put("model", "models/" + embeddingModel);
+            request.putObject("content").putArray("parts").addObject().put("text", text);
+            request.put("outputDimensionality", dimensions);
+        }
+        Request request = new Request.Builder()
+                .url(embedUrl + apiKey)
+                .post(RequestBody.create(body.toString(), JSON))
+                .addHeader("Content-Type", "application/json")
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            GeminiResult failure = failureOf(response);
+            if (failure != null) return failure;
+            JsonNode embeddings = TREE_READER.readTree(response.body().byteStream()).path("embeddings");
+            for (int i = 0; i < embeddings.size() && i < vectors.size(); i++) {
+                JsonNode values = embeddings.get(i).path("values");
+                if (values.size() != dimensions) continue;
+                float[] vector = new float[dimensions];
+                for (int d = 0; d < dimensions; d++) {
+                    vector[d] = (float) values.get(d).asDouble();
+                }
+                vectors.set(i, vector);
+            }
+            return GeminiResult.success("");
+        }
+    }
+
+    /**
+     * False while the circuit breaker is open or Gemini has asked us to back off, so callers can go
+     * straight to their fallback instead of queueing retries.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.state() != CircuitBreaker.State.OPEN
+                && System.currentTimeMillis() >= throttledUntil.get();
+    }
+
+    /**
+     * True when Gemini is available and foreground traffic has left more than {@code 1 - share} of the
+     * rate-limit burst unused, so a background caller entitled to {@code share} of the quota may go ahead.
+     */
+    public boolean hasSpareCapacity(double share) {
+        return isAvailable() && rateLimiter.availableTokens() >= Math.max(1, burst * (1 - share));
+    }
+
+    /**
+     * One generateContent call. With a {@code schema} the model is constrained to JSON matching it,
+     * so the text can be read straight into the target type.
+     */
+    private GeminiResult callGeminiForText(String purpose, String prompt, JsonNode schema) {
+        return guarded(purpose, () -> execute(request(generateUrl, prompt, schema)));
+    }
+
+    private CompletableFuture<GeminiResult> callGeminiAsync(String purpose, String prompt, JsonNode schema) {
+        GeminiResult rejected = admit(purpose, false);
+        if (rejected != null) return CompletableFuture.completedFuture(rejected);
+        long start = System.nanoTime();
+        return executeAsync(request(generateUrl, prompt, schema)).thenApply(result -> record(purpose, result, start));
+    }
+
+    /**
+     * Every Gemini request goes through here: Retry-After window, circuit breaker, token bucket
+     * and adaptive concurrency limit, in that order, before any network I/O happens.
+     * {@code purpose} tags the call's metrics.
+     */
+    private GeminiResult guarded(String purpose, GeminiCall call) {
+        GeminiResult rejected = admit(purpose, true);
+        if (rejected != null) return rejected;
+
+        long start = System.nanoTime();
+        GeminiResult result;
+        try {
+            result = call.run();
         } catch (Exception e) {
-            System.out.println("⚠️ Summary failed for article:\n" + text);
-            return "Summary not available.";
+            warn("Exception while calling Gemini: {}", e.getMessage());
+            result = GeminiResult.error(e.getMessage());
         }
+        return record(purpose, result, start);
     }
 
-    private String callGeminiForText(String prompt) {
+    /**
+     * Take a slot for one call, or return why not. Blocking callers may wait briefly for a rate-limit
+     * token; non-blocking callers never wait and are throttled instead.
+     */
+    private GeminiResult admit(String purpose, boolean mayWait) {
+        long backoffUntil = throttledUntil.get();
+        if (System.currentTimeMillis() < backoffUntil) {
+            metrics.geminiRejected(purpose, "backoff");
+            return GeminiResult.throttled("Retry-After in effect until " + Instant.ofEpochMilli(backoffUntil));
+        }
+        if (!circuitBreaker.allowRequest()) {
+            metrics.geminiRejected(purpose, "circuit_open");
+            return GeminiResult.error("Circuit open");
+        }
         try {
-            // Prepare Gemini request body
-            JSONObject body = new JSONObject()
-                    .put("contents", new JSONArray()
-                            .put(new JSONObject()
-                                    .put("parts", new JSONArray()
-                                            .put(new JSONObject()
-                                                    .put("text", prompt)))));
-
-            Request request = new Request.Builder()
-                    .url(GEMINI_API_URL + apiKey)
-                    .post(RequestBody.create(body.toString(), MediaType.parse("application/json")))
-                    .addHeader("Content-Type", "application/json")
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    System.out.println("❌ Gemini API call failed: " + response.code() + " - " + response.message());
-                    return null;
-                }
+            if (!(mayWait ? rateLimiter.tryAcquire(acquireTimeoutMs) : rateLimiter.tryAcquire())) {
+                circuitBreaker.release();
+                metrics.geminiRejected(purpose, "rate_limit");
+                return GeminiResult.throttled("Local rate limit reached");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.release();
+            return GeminiResult.error("Interrupted waiting for rate limit");
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            circuitBreaker.release();
+            metrics.geminiRejected(purpose, "concurrency");
+            return GeminiResult.throttled("Concurrency limit " + concurrencyLimiter.limit() + " reached");
+        }
+        return null;
+    }
 
-                String raw = response.body().string();
-                if (raw == null || raw.trim().isEmpty()) {
-                    System.out.println("❌ Gemini returned empty response body");
-                    return null;
-                }
+    /**
+     * Release the slot taken by {@link #admit} and feed the outcome to the limiter, breaker and metrics.
+     */
+    private GeminiResult record(String purpose, GeminiResult result, long startNanos) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        metrics.geminiCall(purpose, result.getStatus(), latencyNanos);
 
-                JSONObject json = new JSONObject(raw);
-                System.out.println("🔍 Raw Gemini Response:\n" + json.toString(2));
+        switch (result.getStatus()) {
+            case SUCCESS, BLOCKED -> {
+                concurrencyLimiter.onSuccess(latencyMs);
+                circuitBreaker.recordSuccess();
+            }
+            case THROTTLED -> {
+                concurrencyLimiter.onThrottled();
+                circuitBreaker.recordFailure();
+            }
+            default -> {
+                concurrencyLimiter.onIgnored();
+                circuitBreaker.recordFailure();
+            }
+        }
+        return result;
+    }
 
-                JSONArray candidates = json.optJSONArray("candidates");
-                if (candidates == null || candidates.length() == 0) {
-                    System.out.println("❌ No candidates returned");
-                    return null;
-                }
+    private GeminiResult execute(Request request) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            return parse(response);
+        }
+    }
 
-                JSONObject firstCandidate = candidates.getJSONObject(0);
+    /**
+     * {@link #execute} with OkHttp's {@code enqueue}: no caller thread waits for the response.
+     */
+    private CompletableFuture<GeminiResult> executeAsync(Request request) {
+        CompletableFuture<GeminiResult> result = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                warn("Exception while calling Gemini: {}", e.getMessage());
+                result.complete(GeminiResult.error(e.getMessage()));
+            }
 
-                // 🛡️ SAFETY Check
-                if ("SAFETY".equals(firstCandidate.optString("finishReason"))) {
-                    System.out.println("⚠️ Gemini blocked response due to safety filters");
-                    return "Summary not available due to content restrictions.";
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    result.complete(parse(response));
+                } catch (Exception e) {
+                    warn("Exception while reading Gemini response: {}", e.getMessage());
+                    result.complete(GeminiResult.error(e.getMessage()));
                 }
+            }
+        });
+        return result;
+    }
 
-                if (!firstCandidate.has("content")) {
-                    System.out.println("❌ 'content' not found in Gemini response");
-                    return null;
-                }
+    /**
+     * Reads the GenerateContentResponse envelope directly from the body stream, without first
+     * buffering it into a String.
+     */
+    private GeminiResult parse(Response response) throws IOException {
+        GeminiResult failure = failureOf(response);
+        if (failure != null) return failure;
 
-                JSONObject content = firstCandidate.getJSONObject("content");
-                JSONArray parts = content.optJSONArray("parts");
-                if (parts == null || parts.length() == 0) {
-                    System.out.println("❌ No parts found inside content");
-                    return null;
-                }
+        JsonNode json = TREE_READER.readTree(response.body().byteStream());
+        if (json == null || json.isMissingNode()) {
+            warn("Gemini returned an empty response body");
+            return GeminiResult.error("Empty response body");
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Raw Gemini response: {}", json);
+        }
 
-                return parts.getJSONObject(0).getString("text").trim();
+        JsonNode candidates = json.path("candidates");
+        if (candidates.isEmpty()) {
+            warn("Gemini returned no candidates");
+            return GeminiResult.error("No candidates");
+        }
 
-            }
+        JsonNode firstCandidate = candidates.get(0);
 
-        } catch (Exception e) {
-            System.out.println("❌ Exception while calling Gemini: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+        // 🛡️ SAFETY Check
+        if ("SAFETY".equals(firstCandidate.path("finishReason").asText())) {
+            log.debug("Gemini blocked response due to safety filters");
+            return GeminiResult.blocked();
         }
+
+        if (!firstCandidate.has("content")) {
+            warn("'content' not found in Gemini response");
+            return GeminiResult.error("No content");
+        }
+
+        JsonNode parts = firstCandidate.path("content").path("parts");
+        if (parts.isEmpty() || !parts.get(0).path("text").isTextual()) {
+            warn("No parts found inside Gemini content");
+            return GeminiResult.error("No parts");
+        }
+
+        return GeminiResult.success(parts.get(0).path("text").asText().trim());
     }
 
+    /**
+     * Reads the server-sent events of a streamGenerateContent response; each event is a partial
+     * GenerateContentResponse whose text parts are appended in order.
+     */
+    private GeminiResult executeStreaming(String prompt, Consumer<String> onDelta) throws IOException {
+        try (Response response = client.newCall(request(streamUrl, prompt, null)).execute()) {
+            GeminiResult failure = failureOf(response);
+            if (failure != null) return failure;
 
-    private String callGeminiForJson(String prompt) {
-        String text = callGeminiForText(prompt);
-        if (text == null) return null;
+            StringBuilder text = new StringBuilder();
+            BufferedSource events = response.body().source();
+            String line;
+            while ((line = events.readUtf8Line()) != null) {
+                if (!line.startsWith("data:")) continue;
+                JsonNode candidates = TREE_READER.readTree(line.substring(5).trim()).path("candidates");
+                if (candidates.isEmpty()) continue;
+                JsonNode candidate = candidates.get(0);
+                if ("SAFETY".equals(candidate.path("finishReason").asText())) {
+                    log.debug("Gemini blocked streamed response due to safety filters");
+                    return GeminiResult.blocked();
+                }
+                for (JsonNode part : candidate.path("content").path("parts")) {
+                    String delta = part.path("text").asText("");
+                    if (delta.isEmpty()) continue;
+                    text.append(delta);
+                    onDelta.accept(delta);
+                }
+            }
+            if (text.length() == 0) {
+                warn("Gemini stream ended without content");
+                return GeminiResult.error("No content");
+            }
+            return GeminiResult.success(text.toString().trim());
+        }
+    }
+
+    private Request request(String url, String prompt, JsonNode schema) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.putArray("contents").addObject().putArray("parts").addObject().put("text", prompt);
+        if (schema != null) {
+            body.putObject("generationConfig")
+                    .put("responseMimeType", "application/json")
+                    .set("responseSchema", schema);
+        }
+        return new Request.Builder()
+                .url(url + apiKey)
+                .post(RequestBody.create(body.toString(), JSON))
+                .addHeader("Content-Type", "application/json")
+                .build();
+    }
+
+    /**
+     * The result for a non-2xx response (recording any Retry-After), or null when the call succeeded.
+     */
+    private GeminiResult failureOf(Response response) {
+        if (response.code() == 429) {
+            long now = System.currentTimeMillis();
+            long retryAfterMs = parseRetryAfter(response.header("Retry-After"), now, defaultRetryAfterMs);
+            throttledUntil.accumulateAndGet(now + retryAfterMs, Math::max);
+            log.warn("Gemini rate limited us; backing off for {} ms", retryAfterMs);
+            return GeminiResult.throttled("HTTP 429");
+        }
+        if (!response.isSuccessful()) {
+            warn("Gemini API call failed: {} - {}", response.code(), response.message());
+            return GeminiResult.error("HTTP " + response.code());
+        }
+        return null;
+    }
 
-        // Clean code blocks (markdown style)
-        if (text.startsWith("```json")) {
-            text = text.replace("```json", "").replace("```", "").trim();
-        } else if (text.startsWith("```")) {
-            text = text.replace("```", "").trim();
+    /**
+     * Retry-After is either delta-seconds or an HTTP date; anything unparseable gets the default backoff.
+     */
+    static long parseRetryAfter(String header, long nowMillis, long defaultRetryAfterMs) {
+        if (header != null) {
+            try {
+                return Math.max(0, Long.parseLong(header.trim()) * 1000);
+            } catch (NumberFormatException ignored) {
+                // Not delta-seconds; try the date form.
+            }
+            try {
+                Instant at = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, at.toEpochMilli() - nowMillis);
+            } catch (DateTimeParseException ignored) {
+                // Fall through to the default.
+            }
         }
+        return defaultRetryAfterMs;
+    }
 
+    private static JsonNode schema(String json) {
         try {
-            new JSONObject(text); // Validate it's actually JSON
-            return text;
-        } catch (Exception e) {
-            System.out.println("Invalid JSON from Gemini:\n" + text);
-            return null;
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid response schema", e);
         }
     }
+
+    private void warn(String format, Object... args) {
+        if (warnings.tryAcquire()) {
+            log.warn(format, args);
+        } else {
+            log.debug(format, args);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeminiCall {
+        GeminiResult run() throws IOException;
+    }
+
+    /**
+     * One element of a batch summary answer, as constrained by {@link #BATCH_SCHEMA}.
+     */
+    private static final class BatchItem {
+        public String id;
+        public String summary;
+    }
 }
@@ -0,0 +1,74 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Util.Tokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Offline default: feature hashing of words, word pairs and character trigrams into a fixed number of
+ * signed buckets. Trigrams let inflections and compounds ("elections", "electoral") share most of their
+ * features, so near-paraphrases land close together; it does not know synonyms the way a trained
+ * model does.
+ */
+@Component
+@ConditionalOnProperty(name = "news.embedding.provider", havingValue = "hashing", matchIfMissing = true)
+public class HashingEmbeddingProvider implements EmbeddingProvider {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "of", "in", "on", "at", "for", "to", "and", "or", "is", "are", "was", "were",
+            "be", "been", "by", "with", "from", "as", "it", "its", "this", "that", "has", "have", "had",
+            "will", "after", "over", "into", "about", "says", "said");
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float PAIR_WEIGHT = 0.7f;
+    // Spread over a word's trigrams, so a long word does not outweigh a short one.
+    private static final float TRIGRAM_WEIGHT = 1.2f;
+
+    @Value("${news.embedding.dimensions:256}")
+    private int dimensions;
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embed(text));
+        }
+        return vectors;
+    }
+
+    private float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        List<String> words = new ArrayList<>();
+        for (String token : Tokenizer.tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) words.add(token);
+        }
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            add(vector, word.hashCode(), WORD_WEIGHT);
+            if (i > 0) add(vector, (words.get(i - 1) + ' ' + word).hashCode() * 31 + 7, PAIR_WEIGHT);
+            String padded = '<' + word + '>';
+            int trigrams = padded.length() - 2;
+            for (int j = 0; j < trigrams; j++) {
+                add(vector, padded.substring(j, j + 3).hashCode() * 17 + 3, TRIGRAM_WEIGHT / trigrams);
+            }
+        }
+        return EmbeddingProvider.normalize(vector);
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        int h = hash * 0x9E3779B9;
+        h ^= h >>> 16;
+        // One bit picks the sign, so unrelated features that collide tend to cancel out.
+        vector[Math.floorMod(h >> 1, dimensions)] += (h & 1) == 0 ? weight : -weight;
+    }
+}
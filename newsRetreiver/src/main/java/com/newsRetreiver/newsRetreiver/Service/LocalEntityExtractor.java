@@ -0,0 +1,288 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.LLMResponse;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.PhraseMatcher;
+import com.newsRetreiver.newsRetreiver.Util.Tokenizer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves entities and a coarse intent from the query text alone, for queries made of names the
+ * corpus already knows: sources, categories, places from the gazetteer and phrases recurring in titles.
+ * <p>
+ * All dictionaries are compiled into one {@link PhraseMatcher}, rebuilt in the background when the
+ * dataset version changes. Confidence is the share of the query's content words covered by matches;
+ * below {@code news.local-extractor.min-confidence} the caller should ask Gemini instead.
+ */
+@Service
+public class LocalEntityExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalEntityExtractor.class);
+
+    // Words that name no entity: filler, and words for the kind of thing being asked for.
+    private static final Set<String> FILLER = Set.of(
+            "a", "an", "the", "of", "in", "on", "at", "for", "to", "and", "or", "is", "are", "from", "by",
+            "with", "me", "show", "give", "get", "find", "please", "about", "any", "some", "what", "whats",
+            "happening", "news", "article", "articles", "story", "stories", "update", "updates", "latest",
+            "recent", "top", "today", "headlines");
+
+    /**
+     * Dictionary a phrase came from, most trusted first; it also decides the coarse intent.
+     */
+    private enum Kind {
+        SOURCE("source"), CATEGORY("category"), PLACE("location"), TERM("search");
+
+        final String intent;
+
+        Kind(String intent) {
+            this.intent = intent;
+        }
+    }
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${news.local-extractor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${news.local-extractor.min-confidence:0.75}")
+    private double minConfidence;
+
+    @Value("${news.local-extractor.gazetteer:classpath:gazetteer.txt}")
+    private Resource gazetteer;
+
+    @Value("${news.local-extractor.title-phrase-min-articles:2}")
+    private int titlePhraseMinArticles;
+
+    @Value("${news.local-extractor.rebuild-interval-seconds:60}")
+    private long rebuildIntervalSeconds;
+
+    private List<String> places = List.of();
+    private volatile Dictionary dictionary;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "local-extractor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void init() throws IOException {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(gazetteer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) names.add(line);
+            }
+        }
+        places = names;
+    }
+
+    /**
+     * The local reading of {@code query}. Until the first dictionary is built, and for queries with
+     * no content words, the result is never confident.
+     */
+    public Result extract(String query) {
+        if (!enabled) return Result.NONE;
+        Dictionary current = refreshIfStale();
+        if (current == null) return Result.NONE;
+
+        List<String> tokens = Tokenizer.tokenize(query);
+        int contentWords = 0;
+        for (String token : tokens) {
+            if (!FILLER.contains(token)) contentWords++;
+        }
+        if (contentWords == 0) return Result.NONE;
+
+        // Longest matches first, then the more trusted dictionary, then leftmost; overlaps lose.
+        List<PhraseMatcher.Match<Kind>> matches = current.matcher.findAll(tokens);
+        matches.sort(Comparator.<PhraseMatcher.Match<Kind>>comparingInt(PhraseMatcher.Match::length).reversed()
+                .thenComparing(PhraseMatcher.Match::value)
+                .thenComparingInt(PhraseMatcher.Match::start));
+        boolean[] covered = new boolean[tokens.size()];
+        List<PhraseMatcher.Match<Kind>> chosen = new ArrayList<>();
+        for (PhraseMatcher.Match<Kind> match : matches) {
+            if (isFillerOnly(tokens, match) || overlaps(covered, match)) continue;
+            for (int i = match.start(); i < match.end(); i++) covered[i] = true;
+            chosen.add(match);
+        }
+        if (chosen.isEmpty()) return Result.NONE;
+        chosen.sort(Comparator.comparingInt(PhraseMatcher.Match::start));
+
+        int coveredWords = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (covered[i] && !FILLER.contains(tokens.get(i))) coveredWords++;
+        }
+        double confidence = (double) coveredWords / contentWords;
+
+        LLMResponse response = new LLMResponse();
+        response.setEntities(chosen.stream()
+                .map(match -> String.join(" ", tokens.subList(match.start(), match.end())))
+                .collect(Collectors.toList()));
+        response.setIntent(chosen.stream().map(PhraseMatcher.Match::value).min(Comparator.naturalOrder()).get().intent);
+        return new Result(response, confidence, confidence >= minConfidence);
+    }
+
+    /**
+     * Build the dictionary for the current data now, on the calling thread.
+     */
+    public void rebuild() {
+        dictionary = build(datasetVersion.current());
+    }
+
+    private Dictionary refreshIfStale() {
+        Dictionary current = dictionary;
+        long version = datasetVersion.current();
+        boolean stale = current == null || (current.version != version
+                && System.nanoTime() - current.builtAtNanos >= TimeUnit.SECONDS.toNanos(rebuildIntervalSeconds));
+        if (stale && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    dictionary = build(version);
+                } catch (RuntimeException e) {
+                    log.warn("Could not build the local entity dictionary: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    private Dictionary build(long version) {
+        long start = System.nanoTime();
+        PhraseMatcher.Builder<Kind> builder = PhraseMatcher.builder();
+        if (catalog.isEnabled()) {
+            CatalogSnapshot snapshot = catalog.snapshot();
+            snapshot.sourceNames().forEach(source -> builder.add(source, Kind.SOURCE));
+            snapshot.categoryNames().forEach(category -> addCategory(builder, category));
+            places.forEach(place -> builder.add(place, Kind.PLACE));
+            titlePhrases(snapshot.liveArticles()).forEach(phrase -> builder.add(phrase, Kind.TERM));
+        } else {
+            // Without the catalog, titles would take a collection scan; names come from distinct queries.
+            mongoTemplate.findDistinct(new Query(), "sourceName", NewsArticle.class, String.class)
+                    .forEach(source -> builder.add(source, Kind.SOURCE));
+            mongoTemplate.findDistinct(new Query(), "category", NewsArticle.class, String.class)
+                    .forEach(category -> addCategory(builder, category));
+            places.forEach(place -> builder.add(place, Kind.PLACE));
+        }
+        PhraseMatcher<Kind> matcher = builder.build();
+        log.info("Local entity dictionary built: {} phrases in {} ms (data version {})",
+                matcher.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), version);
+        return new Dictionary(matcher, version, System.nanoTime());
+    }
+
+    // Category names encode "&" as a triple underscore (Health___Fitness); queries say "and".
+    private static void addCategory(PhraseMatcher.Builder<Kind> builder, String category) {
+        builder.add(category, Kind.CATEGORY);
+        if (category.contains("___")) builder.add(category.replace("___", " and "), Kind.CATEGORY);
+    }
+
+    /**
+     * Runs of capitalized title words (proper-noun phrases such as "Nitin Gadkari"), as 2- and 3-word
+     * phrases and as single words when not title-initial, kept when enough articles share them.
+     */
+    private List<String> titlePhrases(List<NewsArticle> articles) {
+        Map<String, Integer> articleCounts = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (NewsArticle article : articles) {
+            if (article.getTitle() == null) continue;
+            seen.clear();
+            String[] words = article.getTitle().split("[^\\p{L}\\p{N}]+");
+            int first = words.length > 0 && words[0].isEmpty() ? 1 : 0;
+            for (int i = first; i < words.length; i++) {
+                for (int n = 1; n <= 3 && i + n <= words.length; n++) {
+                    String last = words[i + n - 1];
+                    if (last.isEmpty() || !Character.isUpperCase(last.charAt(0))) break;
+                    if (n == 1 && (i == first || last.length() < 3)) continue;
+                    String phrase = String.join(" ", List.of(words).subList(i, i + n));
+                    if (seen.add(phrase)) articleCounts.merge(phrase, 1, Integer::sum);
+                }
+            }
+        }
+        List<String> phrases = new ArrayList<>();
+        articleCounts.forEach((phrase, count) -> {
+            if (count >= titlePhraseMinArticles) phrases.add(phrase);
+        });
+        return phrases;
+    }
+
+    private static boolean isFillerOnly(List<String> tokens, PhraseMatcher.Match<Kind> match) {
+        for (int i = match.start(); i < match.end(); i++) {
+            if (!FILLER.contains(tokens.get(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean overlaps(boolean[] covered, PhraseMatcher.Match<Kind> match) {
+        for (int i = match.start(); i < match.end(); i++) {
+            if (covered[i]) return true;
+        }
+        return false;
+    }
+
+    private static final class Dictionary {
+        final PhraseMatcher<Kind> matcher;
+        final long version;
+        final long builtAtNanos;
+
+        Dictionary(PhraseMatcher<Kind> matcher, long version, long builtAtNanos) {
+            this.matcher = matcher;
+            this.version = version;
+            this.builtAtNanos = builtAtNanos;
+        }
+    }
+
+    public static final class Result {
+        static final Result NONE = new Result(null, 0, false);
+
+        private final LLMResponse response;
+        private final double confidence;
+        private final boolean confident;
+
+        Result(LLMResponse response, double confidence, boolean confident) {
+            this.response = response;
+            this.confidence = confidence;
+            this.confident = confident;
+        }
+
+        /**
+         * Entities and intent found locally, or null when nothing matched.
+         */
+        public LLMResponse response() { return response; }
+        public double confidence() { return confidence; }
+        public boolean isConfident() { return confident; }
+    }
+}
@@ -0,0 +1,106 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes behind {@code NewsArticleRepository}'s query methods and checks they exist.
+ * Also backfills the GeoJSON {@code location} field for documents stored before it existed.
+ */
+@Service
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void init() {
+        try {
+            backfillLocations();
+            IndexOperations indexOps = mongoTemplate.indexOps(NewsArticle.class);
+            Map<String, IndexDefinition> required = requiredIndexes();
+            required.values().forEach(indexOps::ensureIndex);
+
+            Set<String> present = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            List<String> missing = required.keySet().stream()
+                    .filter(name -> !present.contains(name))
+                    .collect(Collectors.toList());
+            if (missing.isEmpty()) {
+                log.info("MongoDB indexes verified: {}", required.keySet());
+            } else {
+                log.error("MongoDB indexes missing after creation: {}", missing);
+            }
+        } catch (Exception e) {
+            log.error("MongoDB index setup failed", e);
+        }
+    }
+
+    private Map<String, IndexDefinition> requiredIndexes() {
+        Map<String, IndexDefinition> indexes = new LinkedHashMap<>();
+        // Page queries sort by key then _id, so _id is the last key of each compound index.
+        indexes.put("category_publicationDate_id", new Index()
+                .on("category", Sort.Direction.ASC)
+                .on("publicationDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC)
+                .named("category_publicationDate_id"));
+        // Same collation as the source page query, so case-insensitive lookups can use the index.
+        indexes.put("sourceName_publicationDate_id", new Index()
+                .on("sourceName", Sort.Direction.ASC)
+                .on("publicationDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC)
+                .collation(Collation.of("en").strength(Collation.ComparisonLevel.secondary()))
+                .named("sourceName_publicationDate_id"));
+        indexes.put("relevanceScore_id", new Index()
+                .on("relevanceScore", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC)
+                .named("relevanceScore_id"));
+        indexes.put("location_2dsphere", new GeospatialIndex("location")
+                .typed(GeoSpatialIndexType.GEO_2DSPHERE)
+                .named("location_2dsphere"));
+        indexes.put("title_description_text", TextIndexDefinition.builder()
+                .onField("title", 5F)
+                .onField("description", 3F)
+                .named("title_description_text")
+                .build());
+        return indexes;
+    }
+
+    private void backfillLocations() {
+        Document missing = new Document("location", new Document("$exists", false))
+                .append("latitude", new Document("$type", "number"))
+                .append("longitude", new Document("$type", "number"));
+        Document setLocation = new Document("$set", new Document("location",
+                new Document("type", "Point").append("coordinates", List.of("$longitude", "$latitude"))));
+        long updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(NewsArticle.class))
+                .updateMany(missing, List.of(setLocation))
+                .getModifiedCount();
+        if (updated > 0) {
+            log.info("Backfilled GeoJSON location on {} articles", updated);
+        }
+    }
+}
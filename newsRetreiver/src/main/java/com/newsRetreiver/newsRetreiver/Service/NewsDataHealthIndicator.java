@@ -0,0 +1,44 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group: out of service until the initial seed load has finished, and down
+ * while a failed load waits for its retry, so a load balancer holds traffic instead of sending it to
+ * the 503 from {@code ReadinessInterceptor}.
+ */
+@Component
+public class NewsDataHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private NewsDataInitializer initializer;
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Override
+    public Health health() {
+        Health.Builder health;
+        if (initializer.isReady()) {
+            health = Health.up();
+        } else if (initializer.loadFailure() != null) {
+            health = Health.down().withDetail("seedLoadFailure", initializer.loadFailure())
+                    .withDetail("retryIntervalMs", initializer.retryIntervalMs());
+        } else {
+            health = Health.outOfService();
+        }
+        if (catalog.isEnabled()) {
+            CatalogSnapshot snapshot = catalog.snapshot();
+            health.withDetail("catalogArticles", snapshot.size() - snapshot.retiredCount())
+                    .withDetail("catalogVersion", snapshot.version());
+        }
+        // Summaries degrade to the fallback while Gemini is unavailable, so it is reported but never fails readiness.
+        return health.withDetail("geminiAvailable", geminiService.isAvailable()).build();
+    }
+}
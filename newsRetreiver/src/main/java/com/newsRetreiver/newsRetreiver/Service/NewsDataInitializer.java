@@ -1,40 +1,262 @@
 package com.newsRetreiver.newsRetreiver.Service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Model.SeedManifest;
+import com.newsRetreiver.newsRetreiver.Repository.SeedManifestRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.util.AntPathMatcher;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 
+/**
+ * Streams seed files into MongoDB as batched bulk upserts.
+ * <p>
+ * Each file's SHA-256 is recorded in {@code seed_manifest}. A file whose checksum matches a completed
+ * load is skipped; an interrupted load of the same content resumes after the last committed batch;
+ * changed content is loaded again. With {@code news.seed.async=true} the load runs in the background.
+ * {@link #isReady()} stays false until a load succeeds; a failed load is retried in the background
+ * every {@code news.seed.retry-interval-ms}, resuming where it stopped, and {@link #loadFailure()}
+ * says why the last attempt failed.
+ */
 @Service
 public class NewsDataInitializer {
 
+    private static final Logger log = LoggerFactory.getLogger(NewsDataInitializer.class);
 
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
 
     @Autowired
-    private NewsArticleRepository repository;
+    private ArticleBulkWriter bulkWriter;
+
+    @Autowired
+    private SeedManifestRepository manifestRepository;
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private SemanticIndex semanticIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${news.seed.locations:classpath:news_data.json}")
+    private String[] locations;
+
+    @Value("${news.seed.batch-size:500}")
+    private int batchSize;
+
+    @Value("${news.seed.async:true}")
+    private boolean async;
+
+    @Value("${news.seed.retry-interval-ms:30000}")
+    private long retryIntervalMs;
+
+    private volatile boolean ready;
+    // Why the last attempt failed; null before the first attempt finishes and once one succeeds.
+    private volatile String failure;
 
     @PostConstruct
     public void init() {
+        if (!async) {
+            loadAll();
+        }
+        if (!ready) {
+            Thread loader = new Thread(this::loadUntilReady, "seed-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /**
+     * True once a seed load has succeeded.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Why the last seed load failed while none has succeeded yet, or null.
+     */
+    public String loadFailure() {
+        return failure;
+    }
+
+    public long retryIntervalMs() {
+        return retryIntervalMs;
+    }
+
+    private void loadUntilReady() {
+        while (!ready) {
+            if (failure != null) {
+                try {
+                    Thread.sleep(retryIntervalMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            loadAll();
+        }
+    }
+
+    private void loadAll() {
+        long start = System.currentTimeMillis();
         try {
-            if (repository.count() == 0) {
-                ObjectMapper mapper = new ObjectMapper();
-                mapper.registerModule(new JavaTimeModule());
-                InputStream is = getClass().getClassLoader().getResourceAsStream("news_data.json");
-                List<NewsArticle> articles = mapper.readValue(is, new TypeReference<>() {});
-                repository.saveAll(articles);
-                System.out.println("News data loaded into MongoDB.");
-            } else {
-                System.out.println("Data already exists, skipping load.");
+            List<String> failed = new ArrayList<>();
+            for (SeedFile file : resolveSeedFiles()) {
+                try {
+                    load(file.source, file.resource);
+                } catch (Exception e) {
+                    log.error("Failed to load seed file {}", file.source, e);
+                    failed.add(file.source + ": " + e.getMessage());
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new IOException("Seed files not loaded: " + String.join("; ", failed));
             }
+            catalog.reload();
+            datasetVersion.bump();
+            semanticIndex.refresh();
+            failure = null;
+            ready = true;
+            log.info("News data loaded into MongoDB in {} ms", System.currentTimeMillis() - start);
         } catch (Exception e) {
-            e.printStackTrace();
+            failure = e.getMessage();
+            log.error("News data load failed, retrying in {} ms", retryIntervalMs, e);
+        }
+    }
+
+    private void load(String source, Resource resource) throws IOException {
+        String checksum = checksum(resource);
+        SeedManifest manifest = manifestRepository.findById(source).orElse(null);
+        if (manifest != null && checksum.equals(manifest.getChecksum()) && manifest.isComplete()) {
+            log.info("Seed file unchanged, skipping load: {}", source);
+            return;
+        }
+        long skip = manifest != null && checksum.equals(manifest.getChecksum()) ? manifest.getArticlesLoaded() : 0;
+        if (manifest == null || !checksum.equals(manifest.getChecksum())) {
+            manifest = new SeedManifest(source, checksum);
+        }
+        if (skip > 0) {
+            log.info("Resuming seed file {} after {} articles", source, skip);
+        }
+
+        ObjectReader reader = objectMapper.readerFor(NewsArticle.class);
+        long position = 0;
+        List<NewsArticle> batch = new ArrayList<>(batchSize);
+        try (InputStream in = resource.getInputStream();
+             MappingIterator<NewsArticle> articles = reader.readValues(in)) {
+            while (articles.hasNextValue()) {
+                NewsArticle article = articles.nextValue();
+                if (position++ < skip) continue;
+                if (article.getId() == null) {
+                    log.warn("Skipping seed article without id: {}", article.getTitle());
+                    continue;
+                }
+                batch.add(article);
+                if (batch.size() == batchSize) {
+                    commit(manifest, batch, position);
+                }
+            }
+            commit(manifest, batch, position);
+        }
+        manifest.setComplete(true);
+        manifest.setUpdatedAt(Instant.now());
+        manifestRepository.save(manifest);
+        log.info("Loaded seed file {} ({} articles)", source, position);
+    }
+
+    private void commit(SeedManifest manifest, List<NewsArticle> batch, long position) {
+        if (!batch.isEmpty()) {
+            bulkWriter.upsert(batch);
+            batch.clear();
+        }
+        manifest.setArticlesLoaded(position);
+        manifest.setUpdatedAt(Instant.now());
+        manifestRepository.save(manifest);
+    }
+
+    /**
+     * Each location may be a single resource, a pattern such as {@code file:/data/seed/*.json},
+     * or a directory whose .json/.ndjson files are loaded in name order.
+     * <p>
+     * A file is known in the manifest by its configured location, plus {@code #} and its file name when
+     * the location is a pattern or a directory, never by its resolved URI: a classpath file's URI names
+     * the jar it is packaged in and would change with every deployment path.
+     */
+    private List<SeedFile> resolveSeedFiles() throws IOException {
+        ResourcePatternResolver resolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        List<SeedFile> files = new ArrayList<>();
+        for (String configured : locations) {
+            String location = configured.trim();
+            boolean pattern = PATH_MATCHER.isPattern(location);
+            for (Resource resource : resolver.getResources(location)) {
+                if (resource.isFile() && resource.getFile().isDirectory()) {
+                    File[] children = resource.getFile().listFiles((dir, name) -> name.endsWith(".json") || name.endsWith(".ndjson"));
+                    if (children == null) continue;
+                    Arrays.sort(children, Comparator.comparing(File::getName));
+                    for (File child : children) {
+                        files.add(new SeedFile(location + "#" + child.getName(), new FileSystemResource(child)));
+                    }
+                } else if (resource.exists()) {
+                    files.add(new SeedFile(pattern ? location + "#" + resource.getFilename() : location, resource));
+                } else {
+                    log.warn("Seed location not found: {}", location);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String checksum(Resource resource) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(resource.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // Reading is all that is needed to update the digest.
+            }
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class SeedFile {
+        final String source;
+        final Resource resource;
+
+        SeedFile(String source, Resource resource) {
+            this.source = source;
+            this.resource = resource;
         }
     }
 }
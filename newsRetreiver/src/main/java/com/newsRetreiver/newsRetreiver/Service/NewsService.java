@@ -1,207 +1,1080 @@
 package com.newsRetreiver.newsRetreiver.Service;
 
 import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
 import com.newsRetreiver.newsRetreiver.Model.LLMResponse;
 import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.GeoIndex;
 import com.newsRetreiver.newsRetreiver.Util.Haversine;
+import com.newsRetreiver.newsRetreiver.Util.PageCursor;
+import com.newsRetreiver.newsRetreiver.Util.TextIndex;
+import com.newsRetreiver.newsRetreiver.Util.TokenBucket;
+import com.newsRetreiver.newsRetreiver.Util.Tokenizer;
+import com.newsRetreiver.newsRetreiver.Util.TopK;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 @Service
 public class NewsService {
 
+    private static final Logger log = LoggerFactory.getLogger(NewsService.class);
+
+    @Autowired
+    private ArticleCatalog catalog;
+
     @Autowired
     private NewsArticleRepository repository;
 
+    @Autowired
+    private QueryUnderstandingCache queryUnderstanding;
+
     @Autowired
     private GeminiService geminiService;
 
-    private static final int MAX_ARTICLES = 5;
+    @Autowired
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Autowired
+    private SemanticIndex semanticIndex;
+
+    @Autowired
+    private SummaryWarmer summaryWarmer;
+
+    // Per-page fallback warnings are sampled; news.summary.fallbacks counts every one.
+    private final TokenBucket fallbackWarnings = new TokenBucket(1, 5);
+
+    @Value("${news.enrichment.deadline-ms:8000}")
+    private long enrichmentDeadlineMs;
+
+    @Value("${news.async.enabled:false}")
+    private boolean nonBlocking;
+
+    @Value("${news.search.semantic.max-candidates:200}")
+    private int semanticCandidates;
+
+    @Value("${news.search.semantic.min-similarity:0.2}")
+    private double minSimilarity;
+
+    @Value("${news.search.hybrid.semantic-weight:1.0}")
+    private double semanticWeight;
+
+    @Value("${news.search.hybrid.relevance-weight:0.2}")
+    private double relevanceWeight;
+
+    @Value("${news.search.hybrid.text-weight:0.5}")
+    private double textWeight;
+
+    @Value("${news.dedup.collapse:true}")
+    private boolean collapseDuplicates;
+
+    /**
+     * How {@code /search} finds candidates. KEYWORD matches the entities Gemini extracts against the
+     * text index; SEMANTIC ranks by embedding similarity with no Gemini call; HYBRID adds text matches
+     * on the query's own words to the semantic candidates.
+     */
+    public enum SearchMode {
+        KEYWORD, SEMANTIC, HYBRID;
+
+        public static SearchMode parse(String mode) {
+            if (mode == null || mode.isBlank()) return KEYWORD;
+            try {
+                return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("mode must be one of keyword, semantic, hybrid");
+            }
+        }
+    }
+
+    /**
+     * Request attribute set when any article on the page got a fallback summary; such responses
+     * are not worth caching because the real summary may be ready on the next call.
+     */
+    public static final String DEGRADED_RESPONSE = "news.degradedResponse";
+
+    public static final int DEFAULT_LIMIT = 5;
+    // Every returned article is summarized, so a page is capped well below what the index could return.
+    public static final int MAX_LIMIT = 50;
     private static final int MAX_RETRIES = 2;
+    private static final long RETRY_BACKOFF_MS = 2000;
+    // Half the Earth's circumference: a distance bound that excludes nothing.
+    private static final double MAX_DISTANCE_KM = 20037.5;
+
+    // Each endpoint comes in two forms: get*/search/process return a page with summaries filled in,
+    // find* return the same page unsummarized for callers that stream summaries separately.
+    // Invalid arguments throw before any future is returned. With news.async.enabled the futures complete
+    // on Gemini and Mongo callback threads; without it they are already complete when returned.
+    // The ArticleFields projection decides which properties are loaded and copied, and get* only
+    // generates summaries when it includes llmSummary.
+
+    public CompletableFuture<ArticlePage> getByCategory(String name, Integer limit, String cursor, ArticleFields fields) {
+        return enrich("category", findByCategory(name, limit, cursor, fields), currentRequest(), fields);
+    }
+
+    public CompletableFuture<ArticlePage> getByScore(double threshold, Integer limit, String cursor, ArticleFields fields) {
+        return enrich("score", findByScore(threshold, limit, cursor, fields), currentRequest(), fields);
+    }
+
+    public CompletableFuture<ArticlePage> searchArticles(String query, Integer limit, String cursor) {
+        return searchArticles(query, limit, cursor, SearchMode.KEYWORD, ArticleFields.ALL);
+    }
+
+    public CompletableFuture<ArticlePage> searchArticles(String query, Integer limit, String cursor, SearchMode mode,
+                                                         ArticleFields fields) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        HttpServletRequest request = currentRequest();
+        if (mode != SearchMode.KEYWORD) {
+            return enrich("search", semanticPage(query, mode, size, after, fields), request, fields);
+        }
+        long start = System.nanoTime();
+        return understand(query).thenCompose(llm -> {
+            metrics.stage("search", "understand", start);
+            return enrich("search", searchPage(query, llm, size, after, fields), request, fields);
+        });
+    }
+
+    public CompletableFuture<ArticlePage> getByFilter(ArticleFilter filter, ArticleFields fields) {
+        return enrich("filter", findByFilter(filter, fields), currentRequest(), fields);
+    }
+
+    public CompletableFuture<ArticlePage> getBySource(String name, Integer limit, String cursor, ArticleFields fields) {
+        return enrich("source", findBySource(name, limit, cursor, fields), currentRequest(), fields);
+    }
+
+    public CompletableFuture<ArticlePage> getNearby(double lat, double lon, Double radius, Integer limit, String cursor,
+                                                    ArticleFields fields) {
+        return enrich("nearby", findNearby(lat, lon, radius, limit, cursor, fields), currentRequest(), fields);
+    }
+
+    public CompletableFuture<ArticlePage> processUserQuery(String query, Integer limit, String cursor, ArticleFields fields) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Query cannot be empty");
+        }
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        HttpServletRequest request = currentRequest();
+        long start = System.nanoTime();
+        return understand(query).thenCompose(llm -> {
+            metrics.stage("query", "understand", start);
+            return enrich("query", queryPage(query, llm, size, after, fields), request, fields);
+        });
+    }
 
-    public List<NewsArticle> getByCategory(String name) {
+    public ArticlePage findByCategory(String name, Integer limit, String cursor, ArticleFields fields) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Category cannot be empty");
         }
-        return repository.findAll().stream()
-                .filter(a -> a.getCategory() != null && a.getCategory().contains(name))
-                .sorted(Comparator.comparing(NewsArticle::getPublicationDate).reversed())
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            ArticlePage page = mongoPage(repository.findPageByCategory(name, after, size + 1, fields), size,
+                    repository.countByCategory(name), NewsService::dateCursor);
+            metrics.stage("category", "fetch", start);
+            return page;
+        }
+        CatalogSnapshot snapshot = catalog.snapshot();
+        ArticlePage page = pageByDate(snapshot, snapshot.byCategory(name), after, size,
+                collapse(snapshot, ordinal -> snapshot.hasCategory(ordinal, name)), fields);
+        metrics.stage("category", "fetch", start);
+        return page;
     }
 
-    public List<NewsArticle> getByScore(double threshold) {
+    public ArticlePage findByScore(double threshold, Integer limit, String cursor, ArticleFields fields) {
         if (threshold < 0 || threshold > 1) {
             throw new IllegalArgumentException("Relevance score threshold must be between 0 and 1");
         }
-        return repository.findAll().stream()
-                .filter(a -> a.getRelevanceScore() >= threshold)
-                .sorted(Comparator.comparingDouble(NewsArticle::getRelevanceScore).reversed())
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            ArticlePage page = mongoPage(repository.findPageByScore(threshold, after, size + 1, fields), size,
+                    repository.countByRelevanceScoreGreaterThanEqual(threshold),
+                    article -> PageCursor.of(article.getRelevanceScore(), article.getId()));
+            metrics.stage("score", "fetch", start);
+            return page;
+        }
+        CatalogSnapshot snapshot = catalog.snapshot();
+        int[] byScore = snapshot.byScoreDescending();
+        int matches = snapshot.countScoreAtLeast(threshold);
+        int from = after == null ? 0 : Math.min(matches, snapshot.firstAfterScore(after.numericKey(), after.id()));
+        DuplicateCollapse collapse = collapse(snapshot, ordinal -> snapshot.relevanceScore(ordinal) >= threshold);
+        int[] top = firstKept(byScore, from, matches, size, collapse);
+        String next = null;
+        if (top.length > size) {
+            top = Arrays.copyOf(top, size);
+            next = PageCursor.of(snapshot.relevanceScore(top[size - 1]), snapshot.article(top[size - 1]).getId()).encode();
+        }
+        ArticlePage page = new ArticlePage(copies(snapshot, top, collapse, fields), matches, next);
+        metrics.stage("score", "fetch", start);
+        return page;
     }
 
-    public List<NewsArticle> searchArticles(String query) {
+    public ArticlePage findBySearch(String query, Integer limit, String cursor) {
+        return findBySearch(query, limit, cursor, SearchMode.KEYWORD, ArticleFields.ALL);
+    }
+
+    public ArticlePage findBySearch(String query, Integer limit, String cursor, SearchMode mode, ArticleFields fields) {
         if (query == null || query.trim().isEmpty()) {
             throw new IllegalArgumentException("Search query cannot be empty");
         }
-        LLMResponse llm = geminiService.extractIntentAndEntitiesParsed(query);
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        if (mode != SearchMode.KEYWORD) {
+            return semanticPage(query, mode, size, after, fields);
+        }
+        long start = System.nanoTime();
+        LLMResponse llm = queryUnderstanding.extract(query);
+        metrics.stage("search", "understand", start);
+        return searchPage(query, llm, size, after, fields);
+    }
+
+    private ArticlePage searchPage(String query, LLMResponse llm, int size, PageCursor after, ArticleFields fields) {
         List<String> entities = llm != null && llm.getEntities() != null ? llm.getEntities() : List.of(query);
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            TextCriteria criteria = textCriteria(entities);
+            ArticlePage page = mongoPage(repository.findPageByText(criteria, after, size + 1, fields), size,
+                    repository.countByText(criteria),
+                    article -> PageCursor.of(article.getTextScore(), article.getId()));
+            metrics.stage("search", "fetch", start);
+            return page;
+        }
+
+        CatalogSnapshot snapshot = catalog.snapshot();
+        TextIndex.Hits hits = snapshot.textIndex().search(entities);
+        start = metrics.stage("search", "fetch", start);
+        DuplicateCollapse collapse = collapse(snapshot, hitSet(hits)::get);
+        double[] scores = new double[hits.size()];
+        int[] slots = new int[hits.size()];
+        double afterScore = after == null ? 0 : after.numericKey();
+        int live = 0;
+        int remaining = 0;
+        for (int i = 0; i < hits.size(); i++) {
+            int doc = hits.doc(i);
+            if (!snapshot.isLive(doc)) continue;
+            live++;
+            if (!collapse.keeps(doc)) continue;
+            double relevance = snapshot.relevanceScore(doc);
+            scores[i] = hits.score(i) + (Double.isNaN(relevance) ? 0 : relevance);
+            if (after != null) {
+                int cmp = Double.compare(afterScore, scores[i]);
+                if (cmp < 0 || (cmp == 0 && snapshot.article(doc).getId().compareTo(after.id()) <= 0)) continue;
+            }
+            slots[remaining++] = i;
+        }
+        start = metrics.stage("search", "filter", start);
+        int[] top = TopK.select(slots, remaining, size, (a, b) -> {
+            int cmp = Double.compare(scores[b], scores[a]);
+            return cmp != 0 ? cmp : snapshot.article(hits.doc(a)).getId().compareTo(snapshot.article(hits.doc(b)).getId());
+        });
+        metrics.stage("search", "sort", start);
+        String next = remaining > size
+                ? PageCursor.of(scores[top[top.length - 1]], snapshot.article(hits.doc(top[top.length - 1])).getId()).encode()
+                : null;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = hits.doc(top[i]);
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), live, next);
+    }
+
+    /**
+     * Candidates from the semantic index (plus, for HYBRID, text matches on the query's words), scored
+     * as a weighted sum of embedding similarity, text score and relevance score. Paged on (score, id)
+     * like keyword search.
+     */
+    private ArticlePage semanticPage(String query, SearchMode mode, int size, PageCursor after, ArticleFields fields) {
+        if (!catalog.isEnabled() || !semanticIndex.isEnabled()) {
+            throw new IllegalArgumentException("Semantic search needs the in-memory catalog and news.semantic.enabled");
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = catalog.snapshot();
+        SemanticIndex.Matches matches = semanticIndex.search(query, semanticCandidates);
+        start = metrics.stage("search", "ann", start);
+
+        Map<Integer, Integer> slotByOrdinal = new HashMap<>();
+        List<Integer> ordinals = new ArrayList<>();
+        List<Double> similarities = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.similarity(i) < minSimilarity) break;
+            int ordinal = snapshot.ordinalOf(matches.id(i));
+            if (ordinal < 0 || !snapshot.isLive(ordinal) || slotByOrdinal.containsKey(ordinal)) continue;
+            slotByOrdinal.put(ordinal, ordinals.size());
+            ordinals.add(ordinal);
+            similarities.add((double) matches.similarity(i));
+        }
+        double[] text = new double[0];
+        if (mode == SearchMode.HYBRID) {
+            TextIndex.Hits hits = snapshot.textIndex().search(Tokenizer.tokenize(query));
+            text = new double[ordinals.size() + hits.size()];
+            for (int i = 0; i < hits.size(); i++) {
+                int doc = hits.doc(i);
+                if (!snapshot.isLive(doc)) continue;
+                Integer slot = slotByOrdinal.get(doc);
+                if (slot == null) {
+                    slot = ordinals.size();
+                    slotByOrdinal.put(doc, slot);
+                    ordinals.add(doc);
+                    similarities.add(0.0);
+                }
+                text[slot] = hits.score(i);
+            }
+            start = metrics.stage("search", "fetch", start);
+        }
+
+        int count = ordinals.size();
+        DuplicateCollapse collapse = collapse(snapshot, slotByOrdinal::containsKey);
+        double[] scores = new double[count];
+        int[] slots = new int[count];
+        double afterScore = after == null ? 0 : after.numericKey();
+        int remaining = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = ordinals.get(i);
+            if (!collapse.keeps(ordinal)) continue;
+            double relevance = snapshot.relevanceScore(ordinal);
+            scores[i] = semanticWeight * similarities.get(i)
+                    + (i < text.length ? textWeight * text[i] : 0)
+                    + (Double.isNaN(relevance) ? 0 : relevanceWeight * relevance);
+            if (after != null) {
+                int cmp = Double.compare(afterScore, scores[i]);
+                if (cmp < 0 || (cmp == 0 && snapshot.article(ordinal).getId().compareTo(after.id()) <= 0)) continue;
+            }
+            slots[remaining++] = i;
+        }
+        int[] top = TopK.select(slots, remaining, size, (a, b) -> {
+            int cmp = Double.compare(scores[b], scores[a]);
+            return cmp != 0 ? cmp : snapshot.article(ordinals.get(a)).getId().compareTo(snapshot.article(ordinals.get(b)).getId());
+        });
+        metrics.stage("search", "sort", start);
+        String next = remaining > size
+                ? PageCursor.of(scores[top[top.length - 1]], snapshot.article(ordinals.get(top[top.length - 1])).getId()).encode()
+                : null;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ordinals.get(top[i]);
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), count, next);
+    }
 
-        return repository.findAll().stream()
-                .filter(article -> {
-                    if (article.getTitle() == null && article.getDescription() == null) return false;
-                    return entities.stream().anyMatch(entity ->
-                            (article.getTitle() != null && article.getTitle().toLowerCase().contains(entity.toLowerCase())) ||
-                                    (article.getDescription() != null && article.getDescription().toLowerCase().contains(entity.toLowerCase())));
-                })
-                .sorted((a, b) -> {
-                    double scoreA = calculateTextMatchScore(a, entities) + a.getRelevanceScore();
-                    double scoreB = calculateTextMatchScore(b, entities) + b.getRelevanceScore();
-                    return Double.compare(scoreB, scoreA);
-                })
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
-    }
-
-    public List<NewsArticle> getBySource(String name) {
+    public ArticlePage findBySource(String name, Integer limit, String cursor, ArticleFields fields) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Source name cannot be empty");
         }
-        return repository.findAll().stream()
-                .filter(a -> a.getSourceName() != null && a.getSourceName().equalsIgnoreCase(name))
-                .sorted(Comparator.comparing(NewsArticle::getPublicationDate).reversed())
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            ArticlePage page = mongoPage(repository.findPageBySource(name, after, size + 1, fields), size,
+                    repository.countBySourceName(name), NewsService::dateCursor);
+            metrics.stage("source", "fetch", start);
+            return page;
+        }
+        CatalogSnapshot snapshot = catalog.snapshot();
+        int sourceId = snapshot.sourceIdOf(name);
+        ArticlePage page = pageByDate(snapshot, snapshot.bySource(name), after, size,
+                collapse(snapshot, ordinal -> snapshot.sourceIdAt(ordinal) == sourceId), fields);
+        metrics.stage("source", "fetch", start);
+        return page;
+    }
+
+    /**
+     * Articles matching every condition of the filter. With the catalog, {@link FilterPlanner} drives
+     * from the most selective condition and intersects the rest; only the final page is copied out
+     * (and, through {@link #getByFilter}, summarized).
+     */
+    public ArticlePage findByFilter(ArticleFilter filter, ArticleFields fields) {
+        FilterSort sort = validate(filter);
+        long publishedFrom = dateBound(filter.getFrom(), false);
+        long publishedTo = dateBound(filter.getTo(), true);
+        int size = pageSize(filter.getLimit());
+        PageCursor after = PageCursor.decode(filter.getCursor());
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            if (sort == FilterSort.DISTANCE) {
+                throw new IllegalArgumentException("sort=distance needs the in-memory catalog");
+            }
+            String from = filter.getFrom() != null ? isoDateTime(publishedFrom) : null;
+            String to = filter.getTo() != null ? isoDateTime(publishedTo) : null;
+            boolean byScore = sort == FilterSort.SCORE;
+            ArticlePage page = mongoPage(repository.findPageByFilter(filter, from, to, byScore, after, size + 1, fields), size,
+                    repository.countByFilter(filter, from, to),
+                    byScore ? article -> PageCursor.of(article.getRelevanceScore(), article.getId()) : NewsService::dateCursor);
+            metrics.stage("filter", "fetch", start);
+            return page;
+        }
+
+        CatalogSnapshot snapshot = catalog.snapshot();
+        FilterPlanner.Plan plan = FilterPlanner.run(snapshot, filter, publishedFrom, publishedTo);
+        start = metrics.stage("filter", "fetch", start);
+        log.debug("Filter plan for {}: {}", filter.describe(), plan.describe());
+
+        int[] ordinals = new int[plan.count()];
+        double[] distances = sort == FilterSort.DISTANCE ? new double[plan.count()] : null;
+        long afterDate = after != null && sort == FilterSort.DATE ? CatalogSnapshot.parseEpochSeconds(after.key()) : 0;
+        int remaining = 0;
+        // Sorting by distance drops matches without a location.
+        int total = sort == FilterSort.DISTANCE ? 0 : plan.count();
+        BitSet matches = plan.matches();
+        DuplicateCollapse collapse = collapse(snapshot, sort == FilterSort.DISTANCE
+                ? ordinal -> matches.get(ordinal) && snapshot.hasLocation(ordinal)
+                : matches::get);
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (sort == FilterSort.DISTANCE) {
+                if (!snapshot.hasLocation(ordinal)) continue;
+                total++;
+                if (!collapse.keeps(ordinal)) continue;
+                double distance = Haversine.calculateDistance(filter.getLat(), filter.getLon(),
+                        snapshot.latitude(ordinal), snapshot.longitude(ordinal));
+                if (after != null) {
+                    int cmp = Double.compare(distance, after.numericKey());
+                    if (cmp < 0 || (cmp == 0 && snapshot.article(ordinal).getId().compareTo(after.id()) <= 0)) continue;
+                }
+                distances[remaining] = distance;
+            } else if (!collapse.keeps(ordinal)) {
+                continue;
+            } else if (after != null) {
+                boolean isAfter = sort == FilterSort.SCORE
+                        ? snapshot.isAfterScore(ordinal, after.numericKey(), after.id())
+                        : snapshot.isAfterDate(ordinal, afterDate, after.id());
+                if (!isAfter) continue;
+            }
+            ordinals[remaining++] = ordinal;
+        }
+        start = metrics.stage("filter", "filter", start);
+
+        int[] slots = new int[remaining];
+        for (int i = 0; i < remaining; i++) {
+            slots[i] = i;
+        }
+        int[] top = TopK.select(slots, remaining, size, switch (sort) {
+            case DATE -> (a, b) -> snapshot.compareByDateDesc(ordinals[a], ordinals[b]);
+            case SCORE -> (a, b) -> snapshot.compareByScoreDesc(ordinals[a], ordinals[b]);
+            case DISTANCE -> (a, b) -> {
+                int cmp = Double.compare(distances[a], distances[b]);
+                return cmp != 0 ? cmp : snapshot.article(ordinals[a]).getId().compareTo(snapshot.article(ordinals[b]).getId());
+            };
+        });
+        metrics.stage("filter", "sort", start);
+        String next = null;
+        if (remaining > size) {
+            int last = top[top.length - 1];
+            next = switch (sort) {
+                case DATE -> dateCursor(snapshot.article(ordinals[last])).encode();
+                case SCORE -> PageCursor.of(snapshot.scoreForOrdering(ordinals[last]), snapshot.article(ordinals[last]).getId()).encode();
+                case DISTANCE -> PageCursor.of(distances[last], snapshot.article(ordinals[last]).getId()).encode();
+            };
+        }
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ordinals[top[i]];
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), total, next);
+    }
+
+    private enum FilterSort { DATE, SCORE, DISTANCE }
+
+    private static FilterSort validate(ArticleFilter filter) {
+        if (filter.getCategory() == null && filter.getSource() == null && filter.getRadius() == null
+                && filter.getMinScore() == null && filter.getMaxScore() == null
+                && filter.getFrom() == null && filter.getTo() == null && filter.getText() == null) {
+            throw new IllegalArgumentException("At least one filter condition is required");
+        }
+        if (isBlank(filter.getCategory()) || isBlank(filter.getSource()) || isBlank(filter.getText())) {
+            throw new IllegalArgumentException("Filter values cannot be empty");
+        }
+        if ((filter.getLat() == null) != (filter.getLon() == null)) {
+            throw new IllegalArgumentException("lat and lon must be given together");
+        }
+        if (filter.hasLocation() && (filter.getLat() < -90 || filter.getLat() > 90 || filter.getLon() < -180 || filter.getLon() > 180)) {
+            throw new IllegalArgumentException("Invalid latitude or longitude values");
+        }
+        if (filter.getRadius() != null && (!filter.hasLocation() || filter.getRadius() <= 0)) {
+            throw new IllegalArgumentException("radius must be positive and needs lat and lon");
+        }
+        if ((filter.getMinScore() != null && (filter.getMinScore() < 0 || filter.getMinScore() > 1))
+                || (filter.getMaxScore() != null && (filter.getMaxScore() < 0 || filter.getMaxScore() > 1))) {
+            throw new IllegalArgumentException("Relevance scores must be between 0 and 1");
+        }
+        String sort = filter.getSort();
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("date")) return FilterSort.DATE;
+        if (sort.equalsIgnoreCase("score")) return FilterSort.SCORE;
+        if (sort.equalsIgnoreCase("distance") && filter.hasLocation()) return FilterSort.DISTANCE;
+        throw new IllegalArgumentException("sort must be date, score, or distance (with lat and lon)");
     }
 
-    public List<NewsArticle> getNearby(double lat, double lon, double radius) {
-        if (radius <= 0) {
+    private static boolean isBlank(String value) {
+        return value != null && value.isBlank();
+    }
+
+    /**
+     * Epoch seconds for a date bound: a plain date covers the whole day, a date-time is taken as is.
+     * A missing bound is open.
+     */
+    private static long dateBound(String value, boolean end) {
+        if (value == null) return end ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+        try {
+            LocalDate date = LocalDate.parse(value.trim());
+            return (end ? date.plusDays(1) : date).atStartOfDay().toEpochSecond(ZoneOffset.UTC) - (end ? 1 : 0);
+        } catch (DateTimeParseException ignored) {
+            // Not a plain date; try a date-time.
+        }
+        long epochSeconds = CatalogSnapshot.parseEpochSeconds(value.trim());
+        if (epochSeconds == CatalogSnapshot.UNKNOWN_DATE) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+        return epochSeconds;
+    }
+
+    /**
+     * A date bound in the form publication dates are stored in, so MongoDB can compare them as strings.
+     */
+    private static String isoDateTime(long epochSeconds) {
+        return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Articles nearest first. A null radius means no distance bound.
+     */
+    public ArticlePage findNearby(double lat, double lon, Double radius, Integer limit, String cursor, ArticleFields fields) {
+        if (radius != null && radius <= 0) {
             throw new IllegalArgumentException("Radius must be positive");
         }
         if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
             throw new IllegalArgumentException("Invalid latitude or longitude values");
         }
-        return repository.findAll().stream()
-                .filter(a -> a.getLatitude() != null && a.getLongitude() != null)
-                .filter(a -> Haversine.calculateDistance(lat, lon, a.getLatitude(), a.getLongitude()) <= radius)
-                .sorted(Comparator.comparingDouble(a -> Haversine.calculateDistance(lat, lon, a.getLatitude(), a.getLongitude())))
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        double maxDistance = radius != null ? Math.min(radius, MAX_DISTANCE_KM) : MAX_DISTANCE_KM;
+        long start = System.nanoTime();
+        if (!catalog.isEnabled()) {
+            GeoJsonPoint point = new GeoJsonPoint(lon, lat);
+            GeoResults<NewsArticle> results = repository.findPageNear(point, maxDistance, after, size + 1, fields);
+            List<GeoResult<NewsArticle>> page = results.getContent().subList(0, Math.min(size, results.getContent().size()));
+            String next = results.getContent().size() > size
+                    ? PageCursor.of(page.get(size - 1).getDistance().getValue(), page.get(size - 1).getContent().getId()).encode()
+                    : null;
+            List<NewsArticle> articles = page.stream().map(GeoResult::getContent).collect(Collectors.toList());
+            ArticlePage result = new ArticlePage(articles, repository.countNear(point, maxDistance), next);
+            metrics.stage("nearby", "fetch", start);
+            return result;
+        }
+
+        CatalogSnapshot snapshot = catalog.snapshot();
+        if (radius == null) {
+            return nearestPage(snapshot, lat, lon, size, after, fields, start);
+        }
+        GeoIndex.Matches candidates = snapshot.geoIndex().within(lat, lon, maxDistance);
+        start = metrics.stage("nearby", "fetch", start);
+
+        DuplicateCollapse collapse = collapse(snapshot, ordinal -> snapshot.hasLocation(ordinal)
+                && Haversine.calculateDistance(lat, lon, snapshot.latitude(ordinal), snapshot.longitude(ordinal)) <= maxDistance);
+        int[] slots = new int[candidates.size()];
+        int remaining = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int ordinal = candidates.ordinal(i);
+            if (isAfterDistance(snapshot, ordinal, candidates.distance(i), after) && collapse.keeps(ordinal)) slots[remaining++] = i;
+        }
+        start = metrics.stage("nearby", "filter", start);
+        int[] top = TopK.select(slots, remaining, size, (a, b) -> {
+            int cmp = Double.compare(candidates.distance(a), candidates.distance(b));
+            return cmp != 0 ? cmp : snapshot.article(candidates.ordinal(a)).getId()
+                    .compareTo(snapshot.article(candidates.ordinal(b)).getId());
+        });
+        metrics.stage("nearby", "sort", start);
+        String next = remaining > size
+                ? PageCursor.of(candidates.distance(top[top.length - 1]),
+                        snapshot.article(candidates.ordinal(top[top.length - 1])).getId()).encode()
+                : null;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = candidates.ordinal(top[i]);
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), candidates.size(), next);
+    }
+
+    /**
+     * An unbounded nearby page, read from the geo index nearest first starting at the cursor's distance.
+     * Reading stops once the page and one more listed article are found and the next point is farther
+     * still, so articles tied on distance are all seen before they are ordered by id.
+     */
+    private ArticlePage nearestPage(CatalogSnapshot snapshot, double lat, double lon, int size, PageCursor after,
+                                    ArticleFields fields, long start) {
+        // Every located article is in the listing, however far the page lies.
+        DuplicateCollapse collapse = collapse(snapshot, snapshot::hasLocation);
+        GeoIndex.Nearest nearest = snapshot.geoIndex().nearest(lat, lon, after == null ? 0 : after.numericKey());
+        int[] ordinals = new int[size + 1];
+        double[] distances = new double[size + 1];
+        int found = 0;
+        while (nearest.next()) {
+            if (found > size && nearest.distance() > distances[found - 1]) break;
+            int ordinal = nearest.ordinal();
+            if (!isAfterDistance(snapshot, ordinal, nearest.distance(), after) || !collapse.keeps(ordinal)) continue;
+            if (found == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, found * 2);
+                distances = Arrays.copyOf(distances, found * 2);
+            }
+            ordinals[found] = ordinal;
+            distances[found++] = nearest.distance();
+        }
+        start = metrics.stage("nearby", "fetch", start);
+
+        int[] slots = new int[found];
+        for (int i = 0; i < found; i++) {
+            slots[i] = i;
+        }
+        int[] order = ordinals;
+        double[] distance = distances;
+        int[] top = TopK.select(slots, found, size, (a, b) -> {
+            int cmp = Double.compare(distance[a], distance[b]);
+            return cmp != 0 ? cmp : snapshot.article(order[a]).getId().compareTo(snapshot.article(order[b]).getId());
+        });
+        metrics.stage("nearby", "sort", start);
+        String next = found > size
+                ? PageCursor.of(distance[top[top.length - 1]], snapshot.article(order[top[top.length - 1]]).getId()).encode()
+                : null;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[top[i]];
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), snapshot.geoIndex().size(), next);
     }
 
-    public List<NewsArticle> processUserQuery(String query) {
+    public ArticlePage findByQuery(String query, Integer limit, String cursor, ArticleFields fields) {
         if (query == null || query.trim().isEmpty()) {
             throw new IllegalArgumentException("Query cannot be empty");
         }
-        LLMResponse llm = geminiService.extractIntentAndEntitiesParsed(query);
+        int size = pageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        long start = System.nanoTime();
+        LLMResponse llm = queryUnderstanding.extract(query);
+        metrics.stage("query", "understand", start);
+        return queryPage(query, llm, size, after, fields);
+    }
+
+    private ArticlePage queryPage(String query, LLMResponse llm, int size, PageCursor after, ArticleFields fields) {
+        long start = System.nanoTime();
         if (llm == null || llm.getEntities() == null || llm.getEntities().isEmpty()) {
-            System.out.println("❌ Entity extraction failed or no entities found for query: " + query);
-            return Collections.emptyList();
+            log.debug("No entities extracted for query: {}", query);
+            return ArticlePage.empty();
         }
-
-        List<NewsArticle> allArticles = repository.findAll();
-
-        List<NewsArticle> filtered = allArticles.stream()
-                .filter(article -> {
-                    if (article.getTitle() == null && article.getDescription() == null) return false;
-                    return llm.getEntities().stream().anyMatch(entity ->
-                            (article.getTitle() != null && article.getTitle().toLowerCase().contains(entity.toLowerCase())) ||
-                                    (article.getDescription() != null && article.getDescription().toLowerCase().contains(entity.toLowerCase()))
-                    );
-                })
-                .sorted(Comparator.comparing(NewsArticle::getPublicationDate).reversed())
-                .limit(MAX_ARTICLES)
-                .map(this::enrichArticle)
-                .collect(Collectors.toList());
-
-        return filtered;
+        if (!catalog.isEnabled()) {
+            TextCriteria criteria = textCriteria(llm.getEntities());
+            ArticlePage page = mongoPage(repository.findPageByTextNewestFirst(criteria, after, size + 1, fields), size,
+                    repository.countByText(criteria), NewsService::dateCursor);
+            metrics.stage("query", "fetch", start);
+            return page;
+        }
+        CatalogSnapshot snapshot = catalog.snapshot();
+        TextIndex.Hits hits = snapshot.textIndex().search(llm.getEntities());
+        start = metrics.stage("query", "fetch", start);
+        long afterDate = after == null ? 0 : CatalogSnapshot.parseEpochSeconds(after.key());
+        DuplicateCollapse collapse = collapse(snapshot, hitSet(hits)::get);
+        int[] matched = new int[hits.size()];
+        int live = 0;
+        int remaining = 0;
+        for (int i = 0; i < hits.size(); i++) {
+            int doc = hits.doc(i);
+            if (!snapshot.isLive(doc)) continue;
+            live++;
+            if (!collapse.keeps(doc)) continue;
+            if (after == null || snapshot.isAfterDate(doc, afterDate, after.id())) matched[remaining++] = doc;
+        }
+        start = metrics.stage("query", "filter", start);
+        int[] top = TopK.select(matched, remaining, size, snapshot::compareByDateDesc);
+        metrics.stage("query", "sort", start);
+        String next = remaining > size ? dateCursor(snapshot.article(top[top.length - 1])).encode() : null;
+        return new ArticlePage(copies(snapshot, top, collapse, fields), live, next);
     }
 
     public String generateSummaryById(String id) {
-        NewsArticle article = repository.findById(id)
+        NewsArticle article = findById(id)
                 .orElseThrow(() -> new NoSuchElementException("No article with id " + id));
-        String text = article.getDescription() != null ? article.getDescription() : article.getTitle();
-        return geminiService.summarizeArticle(text);
+        String text = contentToSummarize(summarySnapshot(), article);
+        return summaryCache.summarize(text != null ? text : article.getTitle());
     }
 
-    private NewsArticle enrichArticle(NewsArticle article) {
-        article.setLlmSummary("Summary unavailable.");
+    private Optional<NewsArticle> findById(String id) {
+        if (!catalog.isEnabled()) {
+            return repository.findById(id);
+        }
+        CatalogSnapshot snapshot = catalog.snapshot();
+        int ordinal = snapshot.ordinalOf(id);
+        return ordinal < 0 ? Optional.empty() : Optional.of(snapshot.article(ordinal));
+    }
 
-        String contentToSummarize = article.getDescription() != null ? article.getDescription() : article.getTitle();
-        if (contentToSummarize == null || contentToSummarize.trim().isEmpty()) {
-            System.out.println("❌ No content to summarize for article: " + article.getTitle());
-            return article;
+    /**
+     * Summarize all articles concurrently. Whatever has not finished by the request deadline gets
+     * the description-prefix fallback; the late summaries still land in the cache for next time.
+     */
+    private List<NewsArticle> enrich(String endpoint, List<NewsArticle> articles, HttpServletRequest request) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(enrichmentDeadlineMs);
+        CatalogSnapshot snapshot = summarySnapshot();
+        List<String> contents = new ArrayList<>();
+        for (NewsArticle article : articles) {
+            String content = contentToSummarize(snapshot, article);
+            if (content != null) contents.add(content);
+        }
+        // One batched lookup for the whole page; per-article retries only for what it could not produce.
+        List<CompletableFuture<String>> batch = summaryCache.summarizeAllAsync(contents);
+        List<CompletableFuture<String>> summaries = new ArrayList<>(articles.size());
+        int next = 0;
+        for (NewsArticle article : articles) {
+            String content = contentToSummarize(snapshot, article);
+            summaries.add(content == null ? null : withRetry(batch.get(next++), content, 1));
         }
 
-        boolean rateLimitHit = false;
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+        int fallbacks = 0;
+        for (int i = 0; i < articles.size(); i++) {
+            NewsArticle article = articles.get(i);
+            CompletableFuture<String> pending = summaries.get(i);
+            if (pending == null) {
+                noContent(article);
+                continue;
+            }
+            String summary = null;
+            String reason = "failed";
             try {
-                String summary = geminiService.summarizeArticle(contentToSummarize);
-                if (summary == null || summary.trim().isEmpty()) {
-                    System.out.println("❌ Summary failed for article: " + article.getTitle() + " (Content: " + contentToSummarize + ") - Empty response");
-                    rateLimitHit = true;
-                    break;
-                }
+                summary = pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                reason = "deadline";
+                log.debug("Summary missed the deadline for article: {}", article.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.debug("Summary failed for article: {}", article.getId(), e.getCause());
+            }
+            if (summary != null) {
+                article.setLlmSummary(summary);
+            } else {
+                useFallback(article, reason, request);
+                fallbacks++;
+            }
+        }
+        finishEnrich(endpoint, articles.size(), fallbacks, start);
+        return articles;
+    }
 
-                if (!summary.trim().startsWith("{") && summary.length() > 20 && !summary.toLowerCase().contains("error")) {
-                    article.setLlmSummary(summary);
-                    System.out.println("✅ Used plain text summary for article: " + article.getTitle() + " (Summary: " + summary + ")");
-                    break;
-                } else {
-                    System.out.println("❌ Invalid summary format for article: " + article.getTitle() + " (Response: " + summary + ")");
-                    article.setLlmSummary("Summary unavailable (invalid format).");
-                    break;
-                }
-            } catch (Exception e) {
-                System.out.println("❌ Summary failed for article: " + article.getTitle() + " (Content: " + contentToSummarize + ") - Attempt " + attempt + " of " + MAX_RETRIES);
-                System.out.println("Error: " + e.getMessage());
-                rateLimitHit = e.getMessage() != null && e.getMessage().contains("429");
-                if (attempt == MAX_RETRIES) {
-                    article.setLlmSummary("Summary unavailable.");
-                }
-                try {
-                    Thread.sleep(2000 * attempt);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    article.setLlmSummary("Summary unavailable.");
-                    break;
-                }
+    /**
+     * {@link #enrich(String, List, HttpServletRequest)} as callbacks: each summary future fills in its
+     * article or, at the deadline, the fallback, and the result completes once every article has one.
+     */
+    private CompletableFuture<List<NewsArticle>> enrichAsync(String endpoint, List<NewsArticle> articles, HttpServletRequest request) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(enrichmentDeadlineMs);
+        CatalogSnapshot snapshot = summarySnapshot();
+        List<String> contents = new ArrayList<>();
+        for (NewsArticle article : articles) {
+            String content = contentToSummarize(snapshot, article);
+            if (content != null) contents.add(content);
+        }
+        List<CompletableFuture<String>> batch = summaryCache.summarizeAllAsync(contents);
+        List<CompletableFuture<Void>> filled = new ArrayList<>(articles.size());
+        AtomicInteger fallbacks = new AtomicInteger();
+        int next = 0;
+        for (NewsArticle article : articles) {
+            String content = contentToSummarize(snapshot, article);
+            if (content == null) {
+                noContent(article);
+                continue;
             }
+            filled.add(withRetry(batch.get(next++), content, 1)
+                    .completeOnTimeout(null, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    .handle((summary, error) -> {
+                        if (summary != null) {
+                            article.setLlmSummary(summary);
+                        } else {
+                            useFallback(article, System.nanoTime() - deadline >= 0 ? "deadline" : "failed", request);
+                            fallbacks.incrementAndGet();
+                        }
+                        return null;
+                    }));
         }
+        return CompletableFuture.allOf(filled.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            finishEnrich(endpoint, articles.size(), fallbacks.get(), start);
+            return articles;
+        });
+    }
+
+    private void noContent(NewsArticle article) {
+        log.debug("No content to summarize for article: {}", article.getId());
+        metrics.summaryFallback("no_content");
+        article.setLlmSummary("Summary unavailable.");
+    }
+
+    private void useFallback(NewsArticle article, String reason, HttpServletRequest request) {
+        markDegraded(request);
+        metrics.summaryFallback(reason);
+        article.setLlmSummary(fallbackSummary(article));
+    }
 
-        if (rateLimitHit && article.getLlmSummary().startsWith("Summary unavailable")) {
-            String fallbackSummary = (article.getDescription() != null && article.getDescription().length() > 20)
-                    ? article.getDescription().substring(0, Math.min(100, article.getDescription().length())) + "..."
-                    : article.getTitle();
-            article.setLlmSummary(fallbackSummary);
-            System.out.println("⚠️ Used fallback summary for article: " + article.getTitle() + " (Summary: " + fallbackSummary + ")");
+    private void finishEnrich(String endpoint, int articles, int fallbacks, long start) {
+        if (fallbacks > 0 && fallbackWarnings.tryAcquire()) {
+            log.warn("Used fallback summaries for {} of {} articles on {}", fallbacks, articles, endpoint);
         }
+        metrics.stage(endpoint, "enrich", start);
+    }
 
-        return article;
+    /**
+     * Receives streamed summary events. Calls may come from several threads, one article at a time.
+     */
+    public interface SummaryListener {
+        void onDelta(String articleId, String text);
+
+        void onSummary(String articleId, String summary, boolean fallback);
     }
 
-    private double calculateTextMatchScore(NewsArticle article, List<String> entities) {
-        double score = 0.0;
-        for (String entity : entities) {
-            if (article.getTitle() != null && article.getTitle().toLowerCase().contains(entity.toLowerCase())) {
-                score += 0.5;
+    /**
+     * Deliver a page's summaries as they become available instead of all at the end: cached ones at
+     * once, generated ones chunk by chunk followed by the final text. Articles still pending at the
+     * request deadline get the description-prefix fallback. The future completes after every article's
+     * final summary has been delivered.
+     */
+    public CompletableFuture<Void> streamSummaries(List<NewsArticle> articles, SummaryListener listener) {
+        summaryWarmer.recordServed(articles);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enrichmentDeadlineMs);
+        CatalogSnapshot snapshot = summarySnapshot();
+        List<CompletableFuture<Void>> delivered = new ArrayList<>(articles.size());
+        for (NewsArticle article : articles) {
+            String content = contentToSummarize(snapshot, article);
+            if (content == null) {
+                metrics.summaryFallback("no_content");
+                listener.onSummary(article.getId(), "Summary unavailable.", true);
+                continue;
             }
-            if (article.getDescription() != null && article.getDescription().toLowerCase().contains(entity.toLowerCase())) {
-                score += 0.3;
+            AtomicBoolean finished = new AtomicBoolean();
+            CompletableFuture<String> summary = summaryCache.summarizeStreaming(content, delta -> {
+                if (!finished.get()) listener.onDelta(article.getId(), delta);
+            });
+            delivered.add(withRetry(summary, content, 1)
+                    .completeOnTimeout(null, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    .thenAccept(text -> {
+                        finished.set(true);
+                        if (text != null) {
+                            listener.onSummary(article.getId(), text, false);
+                        } else {
+                            metrics.summaryFallback(System.nanoTime() - deadline >= 0 ? "deadline" : "failed");
+                            listener.onSummary(article.getId(), fallbackSummary(article), true);
+                        }
+                    }));
+        }
+        return CompletableFuture.allOf(delivered.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Retry failed summaries after a growing delay without holding any thread while waiting.
+     * Text the safety filters blocked is not retried.
+     */
+    private CompletableFuture<String> withRetry(CompletableFuture<String> attempt, String content, int attemptNumber) {
+        return attempt.thenCompose(summary -> {
+            if (summary != null || attemptNumber >= MAX_RETRIES || !geminiService.isAvailable()
+                    || summaryCache.isBlocked(content)) {
+                return CompletableFuture.completedFuture(summary);
             }
+            metrics.summaryRetry();
+            Executor backoff = CompletableFuture.delayedExecutor(RETRY_BACKOFF_MS * attemptNumber, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> content, backoff)
+                    .thenCompose(c -> withRetry(summaryCache.summarizeAsync(c), c, attemptNumber + 1));
+        });
+    }
+
+    private CatalogSnapshot summarySnapshot() {
+        return catalog.isEnabled() ? catalog.snapshot() : null;
+    }
+
+    /**
+     * The text summarized for an article: that of the first live copy of its story, so near-duplicates
+     * share one summary. Articles the catalog does not hold are summarized from their own text.
+     */
+    static String contentToSummarize(CatalogSnapshot snapshot, NewsArticle article) {
+        if (snapshot != null && article.getId() != null) {
+            int ordinal = snapshot.ordinalOf(article.getId());
+            String shared = ordinal >= 0 ? contentToSummarize(snapshot.article(snapshot.firstLiveCopy(ordinal))) : null;
+            if (shared != null) return shared;
+        }
+        return contentToSummarize(article);
+    }
+
+    private static String contentToSummarize(NewsArticle article) {
+        String content = article.getDescription() != null ? article.getDescription() : article.getTitle();
+        return content == null || content.trim().isEmpty() ? null : content;
+    }
+
+    /**
+     * The servlet request being served, captured on the calling thread: summaries may finish on callback
+     * threads after the handler returned, where neither the holder nor request scope is available any more.
+     */
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    private static void markDegraded(HttpServletRequest request) {
+        if (request != null) {
+            request.setAttribute(DEGRADED_RESPONSE, Boolean.TRUE);
+        }
+    }
+
+    private static String fallbackSummary(NewsArticle article) {
+        return (article.getDescription() != null && article.getDescription().length() > 20)
+                ? article.getDescription().substring(0, Math.min(100, article.getDescription().length())) + "..."
+                : article.getTitle();
+    }
+
+    /**
+     * $text query matching any of the entities' words, for when the in-memory index is disabled.
+     */
+    private static TextCriteria textCriteria(List<String> entities) {
+        return TextCriteria.forDefaultLanguage().matchingAny(entities.toArray(new String[0]));
+    }
+
+    private CompletableFuture<ArticlePage> enrich(String endpoint, ArticlePage page, HttpServletRequest request,
+                                                  ArticleFields fields) {
+        summaryWarmer.recordServed(page.getArticles());
+        if (!fields.includesSummary()) {
+            return CompletableFuture.completedFuture(page);
+        }
+        if (nonBlocking) {
+            return enrichAsync(endpoint, page.getArticles(), request).thenApply(articles -> page);
+        }
+        enrich(endpoint, page.getArticles(), request);
+        return CompletableFuture.completedFuture(page);
+    }
+
+    private CompletableFuture<LLMResponse> understand(String query) {
+        return nonBlocking
+                ? queryUnderstanding.extractAsync(query)
+                : CompletableFuture.completedFuture(queryUnderstanding.extract(query));
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_LIMIT;
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static PageCursor dateCursor(NewsArticle article) {
+        return new PageCursor(article.getPublicationDate(), article.getId());
+    }
+
+    /**
+     * A page of a newest-first postings list, positioned by binary search on the cursor.
+     */
+    private ArticlePage pageByDate(CatalogSnapshot snapshot, int[] newestFirst, PageCursor after, int size,
+                                   DuplicateCollapse collapse, ArticleFields fields) {
+        int from = after == null ? 0
+                : snapshot.firstAfterDate(newestFirst, CatalogSnapshot.parseEpochSeconds(after.key()), after.id());
+        int[] top = firstKept(newestFirst, from, newestFirst.length, size, collapse);
+        String next = null;
+        if (top.length > size) {
+            top = Arrays.copyOf(top, size);
+            next = dateCursor(snapshot.article(top[size - 1])).encode();
+        }
+        return new ArticlePage(copies(snapshot, top, collapse, fields), newestFirst.length, next);
+    }
+
+    /**
+     * Up to {@code size + 1} ordinals of {@code ordered[from, to)} that the collapse keeps, in order;
+     * the extra one only tells that another page exists.
+     */
+    private static int[] firstKept(int[] ordered, int from, int to, int size, DuplicateCollapse collapse) {
+        if (collapse == DuplicateCollapse.NONE) return Arrays.copyOfRange(ordered, from, Math.min(to, from + size + 1));
+        int[] kept = new int[size + 1];
+        int count = 0;
+        for (int i = from; i < to && count <= size; i++) {
+            if (collapse.keeps(ordered[i])) kept[count++] = ordered[i];
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Near-duplicate collapsing for one catalog listing, whose members are the ordinals {@code matches} accepts.
+     */
+    private DuplicateCollapse collapse(CatalogSnapshot snapshot, IntPredicate matches) {
+        return collapseDuplicates ? DuplicateCollapse.of(snapshot, matches) : DuplicateCollapse.NONE;
+    }
+
+    /**
+     * Live and retired documents the text index matched, for testing cluster members against the hits.
+     */
+    private static BitSet hitSet(TextIndex.Hits hits) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < hits.size(); i++) {
+            set.set(hits.doc(i));
+        }
+        return set;
+    }
+
+    /**
+     * A page from a MongoDB query that fetched one extra row to tell whether another page exists.
+     */
+    private ArticlePage mongoPage(List<NewsArticle> fetched, int size, long total, Function<NewsArticle, PageCursor> cursorOf) {
+        List<NewsArticle> page = new ArrayList<>(fetched.subList(0, Math.min(size, fetched.size())));
+        String next = fetched.size() > size ? cursorOf.apply(page.get(size - 1)).encode() : null;
+        return new ArticlePage(page, total, next);
+    }
+
+    private static boolean isAfterDistance(CatalogSnapshot snapshot, int ordinal, double distance, PageCursor after) {
+        if (after == null) return true;
+        int cmp = Double.compare(distance, after.numericKey());
+        return cmp != 0 ? cmp > 0 : snapshot.article(ordinal).getId().compareTo(after.id()) > 0;
+    }
+
+    /**
+     * Per-request copies of catalog articles, so summaries set on them never touch the shared instances.
+     * Each carries the projected properties and how many near-duplicates the listing folded into it.
+     */
+    private List<NewsArticle> copies(CatalogSnapshot snapshot, int[] ordinals, DuplicateCollapse collapse, ArticleFields fields) {
+        boolean countDuplicates = fields.includes("duplicates");
+        List<NewsArticle> copies = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            NewsArticle copy = fields.copy(snapshot.article(ordinal));
+            int duplicates = countDuplicates ? collapse.duplicates(ordinal) : 0;
+            if (duplicates > 0) copy.setDuplicates(duplicates);
+            copies.add(copy);
         }
-        return score;
+        return copies;
     }
-}
\ No newline at end of file
+}
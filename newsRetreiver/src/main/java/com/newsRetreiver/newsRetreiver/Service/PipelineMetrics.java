@@ -0,0 +1,106 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.GeminiResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the retrieval and LLM pipeline, so each class records by name instead of building meters itself.
+ * <p>
+ * {@code news.stage} times each step of a list request (tagged by endpoint and stage), {@code gemini.requests}
+ * times every Gemini call that reached the network (tagged by purpose and outcome), and the counters cover
+ * the events that explain a slow or degraded response: local rejections, safety blocks, retries and fallbacks.
+ */
+@Component
+public class PipelineMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Record a stage that started at {@code startNanos} and return the current time, so consecutive
+     * stages can be chained through one variable.
+     */
+    public long stage(String endpoint, String stage, long startNanos) {
+        long now = System.nanoTime();
+        Timer.builder("news.stage")
+                .tag("endpoint", endpoint)
+                .tag("stage", stage)
+                .register(registry)
+                .record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void geminiCall(String purpose, GeminiResult.Status status, long nanos) {
+        Timer.builder("gemini.requests")
+                .tag("purpose", purpose)
+                .tag("outcome", status.name().toLowerCase(Locale.ROOT))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (status == GeminiResult.Status.BLOCKED) {
+            Counter.builder("gemini.safety.blocks").tag("purpose", purpose).register(registry).increment();
+        }
+    }
+
+    /**
+     * A call refused before any network I/O: backoff, circuit_open, rate_limit or concurrency.
+     */
+    public void geminiRejected(String purpose, String reason) {
+        Counter.builder("gemini.rejected").tag("purpose", purpose).tag("reason", reason).register(registry).increment();
+    }
+
+    public void summaryRetry() {
+        Counter.builder("news.summary.retries").register(registry).increment();
+    }
+
+    /**
+     * An article served the description-prefix fallback: deadline, failed or no_content.
+     */
+    public void summaryFallback(String reason) {
+        Counter.builder("news.summary.fallbacks").tag("reason", reason).register(registry).increment();
+    }
+
+    /**
+     * Articles the background warmer summarized before any request asked for them.
+     */
+    public void summariesWarmed(int count) {
+        if (count > 0) Counter.builder("news.summary.warmed").register(registry).increment(count);
+    }
+
+    /**
+     * Which path answered entity extraction: local (dictionary match) or llm.
+     */
+    public void extraction(String path) {
+        Counter.builder("news.extraction").tag("path", path).register(registry).increment();
+    }
+
+    /**
+     * Word-level Jaccard similarity of the local and Gemini entities for one query; {@code confident}
+     * tells whether the local result was good enough to be served.
+     */
+    public void extractionAgreement(boolean confident, double similarity) {
+        DistributionSummary.builder("news.extraction.agreement")
+                .tag("confident", String.valueOf(confident))
+                .register(registry)
+                .record(similarity);
+    }
+
+    /**
+     * Lookups in the summary_cache collection, the tier behind the in-heap cache.
+     */
+    public void summaryStoreLookups(int hits, int misses) {
+        if (hits > 0) Counter.builder("news.summary.store").tag("result", "hit").register(registry).increment(hits);
+        if (misses > 0) Counter.builder("news.summary.store").tag("result", "miss").register(registry).increment(misses);
+    }
+}
@@ -0,0 +1,205 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.newsRetreiver.newsRetreiver.Model.LLMResponse;
+import com.newsRetreiver.newsRetreiver.Util.Tokenizer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches entity/intent extraction by normalized query text.
+ * <p>
+ * Queries that differ only in case, punctuation, whitespace or stop words share an entry, and
+ * concurrent lookups of the same normalized query wait on a single Gemini call. Failed extractions
+ * are cached briefly too, so an outage does not turn every retry into another LLM request.
+ * <p>
+ * Queries the {@link LocalEntityExtractor} resolves confidently skip both the cache and Gemini.
+ */
+@Service
+public class QueryUnderstandingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryUnderstandingCache.class);
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "of", "in", "on", "at", "for", "to", "and", "or", "is", "are",
+            "me", "show", "give", "get", "find", "please", "about", "any", "some", "news", "articles");
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Autowired
+    private LocalEntityExtractor localExtractor;
+
+    @Value("${news.local-extractor.shadow-rate:0.05}")
+    private double shadowRate;
+
+    @Value("${news.query-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${news.query-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${news.query-cache.negative-ttl-seconds:30}")
+    private long negativeTtlSeconds;
+
+    private AsyncCache<String, Extraction> cache;
+
+    @PostConstruct
+    public void init() {
+        long positiveNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        long negativeNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Extraction>() {
+                    @Override
+                    public long expireAfterCreate(String key, Extraction value, long currentTime) {
+                        return value.response != null ? positiveNanos : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Extraction value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Extraction value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                // Extraction blocks on HTTP, so keep it off the common fork-join pool.
+                .executor(Executors.newCachedThreadPool(r -> {
+                    Thread t = new Thread(r, "query-understanding");
+                    t.setDaemon(true);
+                    return t;
+                }))
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(metrics.registry(), cache, "query_understanding");
+    }
+
+    /**
+     * Entities and intent for the query, or null when extraction failed (recently). Queries the local
+     * dictionary resolves confidently never reach Gemini.
+     */
+    public LLMResponse extract(String query) {
+        LocalEntityExtractor.Result local = localExtractor.extract(query);
+        if (local.isConfident()) return servedLocally(query, local);
+        metrics.extraction("llm");
+        LLMResponse llm = extractWithGemini(query);
+        compare(local, llm, false);
+        return llm;
+    }
+
+    private LLMResponse extractWithGemini(String query) {
+        String key = normalize(query);
+        try {
+            // The first caller's wording is what Gemini sees; equivalent queries reuse its answer.
+            return cache.get(key, k -> new Extraction(geminiService.extractIntentAndEntitiesParsed(query)))
+                    .join()
+                    .response;
+        } catch (CompletionException e) {
+            log.warn("Entity extraction failed for query: {} - {}", query, e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * {@link #extract} without blocking: a miss is an enqueued Gemini call, and the future completes
+     * with null when extraction failed.
+     */
+    public CompletableFuture<LLMResponse> extractAsync(String query) {
+        LocalEntityExtractor.Result local = localExtractor.extract(query);
+        if (local.isConfident()) return CompletableFuture.completedFuture(servedLocally(query, local));
+        metrics.extraction("llm");
+        return extractWithGeminiAsync(query).thenApply(llm -> {
+            compare(local, llm, false);
+            return llm;
+        });
+    }
+
+    private CompletableFuture<LLMResponse> extractWithGeminiAsync(String query) {
+        String key = normalize(query);
+        return cache.get(key, (k, executor) -> geminiService.extractIntentAndEntitiesAsync(query).thenApply(Extraction::new))
+                .handle((extraction, error) -> {
+                    if (error != null) {
+                        log.warn("Entity extraction failed for query: {} - {}", query, error.getCause());
+                        return null;
+                    }
+                    return extraction.response;
+                });
+    }
+
+    private LLMResponse servedLocally(String query, LocalEntityExtractor.Result local) {
+        metrics.extraction("local");
+        // A sample of locally answered queries also goes to Gemini, only to measure how often the two agree.
+        if (shadowRate > 0 && ThreadLocalRandom.current().nextDouble() < shadowRate) {
+            extractWithGeminiAsync(query).thenAccept(llm -> compare(local, llm, true));
+        }
+        return local.response();
+    }
+
+    private void compare(LocalEntityExtractor.Result local, LLMResponse llm, boolean confident) {
+        if (local.response() == null || llm == null || llm.getEntities() == null) return;
+        Set<String> ours = contentWords(local.response().getEntities());
+        Set<String> theirs = contentWords(llm.getEntities());
+        if (ours.isEmpty() && theirs.isEmpty()) return;
+        Set<String> common = new HashSet<>(ours);
+        common.retainAll(theirs);
+        metrics.extractionAgreement(confident, (double) common.size() / (ours.size() + theirs.size() - common.size()));
+    }
+
+    private static Set<String> contentWords(List<String> entities) {
+        Set<String> words = new HashSet<>();
+        for (String entity : entities) {
+            if (entity == null) continue;
+            for (String token : Tokenizer.tokenize(entity)) {
+                if (!STOP_WORDS.contains(token)) words.add(token);
+            }
+        }
+        return words;
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    static String normalize(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder();
+        for (String token : lower.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) continue;
+            if (normalized.length() > 0) normalized.append(' ');
+            normalized.append(token);
+        }
+        return normalized.length() > 0 ? normalized.toString() : lower.trim();
+    }
+
+    private static final class Extraction {
+        final LLMResponse response;
+
+        Extraction(LLMResponse response) {
+            this.response = response;
+        }
+    }
+}
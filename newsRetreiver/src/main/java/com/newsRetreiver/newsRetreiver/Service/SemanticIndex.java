@@ -0,0 +1,238 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.HnswIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Article embeddings in an {@link HnswIndex}, for semantic search.
+ * <p>
+ * Nodes are keyed by article id rather than catalog ordinal, so they survive catalog compaction.
+ * A background thread follows the catalog: it embeds articles it has not seen (or whose text changed)
+ * in batches and retires the node an updated article replaces. Callers trigger it with
+ * {@link #refresh()} after changing the catalog; search also triggers it when the index lags behind.
+ * Until a sync finishes, search sees the articles indexed so far.
+ * <p>
+ * Retired nodes are tombstones: they stay in the graph, routing searches and taking memory, so the
+ * index grows by one node per text change and only shrinks when the process restarts and indexes the
+ * live catalog afresh. Recall holds with a quarter of the nodes deleted ({@code HnswIndexTest}); the
+ * sync log reports the deleted count, and a restart is due when it approaches the live count.
+ */
+@Service
+public class SemanticIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SemanticIndex.class);
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private EmbeddingProvider embeddings;
+
+    @Value("${news.semantic.enabled:true}")
+    private boolean enabled;
+
+    @Value("${news.semantic.hnsw.m:16}")
+    private int maxLinks;
+
+    @Value("${news.semantic.hnsw.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${news.semantic.hnsw.ef-search:64}")
+    private int efSearch;
+
+    @Value("${news.semantic.batch-size:256}")
+    private int batchSize;
+
+    @Value("${news.semantic.retry-interval-seconds:30}")
+    private long retryIntervalSeconds;
+
+    private HnswIndex index;
+    // Article id of each node. Written by the sync thread before the node is added, so searches see it.
+    private volatile String[] idByNode = new String[1024];
+
+    // Sync-thread state.
+    private final Map<String, Integer> nodeById = new HashMap<>();
+    private int[] textHashByNode = new int[1024];
+    private long syncedGeneration = -1;
+    private int syncedUpTo;
+    private volatile long syncedVersion = -1;
+    private volatile long retryAtNanos = System.nanoTime();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService syncer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "semantic-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void init() {
+        index = new HnswIndex(embeddings.dimensions(), maxLinks, efConstruction);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Bring the index up to date with the catalog in the background. Calls made while a sync is
+     * queued fold into it.
+     */
+    public void refresh() {
+        if (!enabled || !catalog.isEnabled()) return;
+        if (!scheduled.compareAndSet(false, true)) return;
+        syncer.execute(() -> {
+            scheduled.set(false);
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                retryAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryIntervalSeconds);
+                log.warn("Semantic index sync failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Bring the index up to date with the catalog now, waiting for the sync thread to finish.
+     */
+    public void rebuild() throws InterruptedException {
+        try {
+            syncer.submit(this::sync).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Semantic index sync failed", e.getCause());
+        }
+    }
+
+    /**
+     * Up to {@code k} indexed articles most similar to {@code query}, best first. Empty when the
+     * query cannot be embedded.
+     */
+    public Matches search(String query, int k) {
+        if (syncedVersion != catalog.snapshot().version() && System.nanoTime() - retryAtNanos >= 0) {
+            refresh();
+        }
+        List<float[]> vectors = embeddings.embed(List.of(query));
+        if (vectors == null || vectors.get(0) == null) return Matches.NONE;
+        HnswIndex.Result result = index.search(vectors.get(0), k, Math.max(efSearch, k));
+        String[] ids = idByNode;
+        String[] matched = new String[result.size()];
+        float[] similarities = new float[result.size()];
+        for (int i = 0; i < result.size(); i++) {
+            matched[i] = ids[result.node(i)];
+            similarities[i] = result.similarity(i);
+        }
+        return new Matches(matched, similarities);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void sync() {
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = catalog.snapshot();
+        if (snapshot.generation() != syncedGeneration) {
+            // A full rebuild renumbered the ordinals; rescan, skipping articles whose text is unchanged.
+            syncedGeneration = snapshot.generation();
+            syncedUpTo = 0;
+        }
+        int added = 0;
+        List<NewsArticle> pending = new ArrayList<>(batchSize);
+        List<String> texts = new ArrayList<>(batchSize);
+        for (int ordinal = syncedUpTo; ordinal < snapshot.size(); ordinal++) {
+            NewsArticle article = snapshot.article(ordinal);
+            if (!snapshot.isLive(ordinal) || article.getId() == null) continue;
+            String text = textOf(article);
+            Integer node = nodeById.get(article.getId());
+            if (node != null && textHashByNode[node] == text.hashCode()) continue;
+            pending.add(article);
+            texts.add(text);
+            if (pending.size() == batchSize) {
+                if (!flush(pending, texts)) return;
+                added += pending.size();
+                syncedUpTo = ordinal + 1;
+                pending.clear();
+                texts.clear();
+            }
+        }
+        if (!flush(pending, texts)) return;
+        added += pending.size();
+        syncedUpTo = snapshot.size();
+        syncedVersion = snapshot.version();
+        if (added > 0) {
+            log.info("Semantic index synced: {} articles embedded in {} ms, {} nodes, {} deleted (catalog version {})",
+                    added, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.size(), index.deletedCount(),
+                    snapshot.version());
+        }
+    }
+
+    /**
+     * Embed and add one batch. On failure nothing is added and the next attempt waits out the retry interval.
+     */
+    private boolean flush(List<NewsArticle> articles, List<String> texts) {
+        if (articles.isEmpty()) return true;
+        List<float[]> vectors = embeddings.embed(texts);
+        if (vectors == null || vectors.contains(null)) {
+            retryAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryIntervalSeconds);
+            log.warn("Could not embed {} articles; semantic index sync will retry", articles.size());
+            return false;
+        }
+        for (int i = 0; i < articles.size(); i++) {
+            String id = articles.get(i).getId();
+            int node = index.size();
+            if (node == idByNode.length) {
+                idByNode = Arrays.copyOf(idByNode, node * 2);
+                textHashByNode = Arrays.copyOf(textHashByNode, node * 2);
+            }
+            idByNode[node] = id;
+            textHashByNode[node] = texts.get(i).hashCode();
+            index.add(vectors.get(i));
+            Integer replaced = nodeById.put(id, node);
+            if (replaced != null) index.delete(replaced);
+        }
+        return true;
+    }
+
+    private static String textOf(NewsArticle article) {
+        String title = article.getTitle() != null ? article.getTitle() : "";
+        String description = article.getDescription() != null ? article.getDescription() : "";
+        return title + ". " + description;
+    }
+
+    /**
+     * Article ids and their cosine similarity to the query, best first. An id may belong to an article
+     * the catalog has since dropped, so callers resolve it against their snapshot.
+     */
+    public static final class Matches {
+        static final Matches NONE = new Matches(new String[0], new float[0]);
+
+        private final String[] ids;
+        private final float[] similarities;
+
+        Matches(String[] ids, float[] similarities) {
+            this.ids = ids;
+            this.similarities = similarities;
+        }
+
+        public int size() { return ids.length; }
+        public String id(int i) { return ids[i]; }
+        public float similarity(int i) { return similarities[i]; }
+    }
+}
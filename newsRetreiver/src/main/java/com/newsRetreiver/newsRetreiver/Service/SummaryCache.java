@@ -0,0 +1,446 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.newsRetreiver.newsRetreiver.Model.CachedSummary;
+import com.newsRetreiver.newsRetreiver.Model.GeminiResult;
+import com.newsRetreiver.newsRetreiver.Repository.CachedSummaryRepository;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Two-tier cache of LLM summaries: a bounded in-heap cache in front of the {@code summary_cache} collection.
+ * <p>
+ * Entries are keyed by a SHA-256 of the summary prompt version and the summarized text, so identical
+ * text is summarized once no matter which article or endpoint asks for it, and a prompt change
+ * naturally invalidates old entries. Concurrent misses for the same key share one in-flight load.
+ * <p>
+ * Text Gemini's safety filters refuse is remembered in both tiers as a blocked marker, for
+ * {@code news.summary-cache.ttl-minutes}, so it is not sent again on every request; callers see no
+ * summary and use their fallback. Other failures are not cached.
+ */
+@Service
+public class SummaryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryCache.class);
+
+    // In-heap value for blocked text, compared by identity and never handed to callers.
+    private static final String BLOCKED = new String("blocked");
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private CachedSummaryRepository repository;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongo;
+
+    @Value("${news.async.enabled:false}")
+    private boolean nonBlocking;
+
+    @Value("${news.summary-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${news.summary-cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${news.summary-cache.loader-threads:8}")
+    private int loaderThreads;
+
+    @Value("${news.summary-cache.batch-size:10}")
+    private int batchSize;
+
+    private ExecutorService loader;
+    private AsyncCache<String, String> memory;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        loader = Executors.newFixedThreadPool(loaderThreads, r -> {
+            Thread t = new Thread(r, "summary-loader-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        memory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .executor(loader)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(metrics.registry(), memory, "summaries");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Cached summary of {@code text}, generating and storing it on a miss.
+     * Returns null when no usable summary could be produced; only blocked text is remembered as such.
+     */
+    public String summarize(String text) {
+        return summarizeAsync(text).join();
+    }
+
+    /**
+     * With {@code news.async.enabled} a miss is loaded without blocking any thread: the store lookup uses
+     * the reactive driver and the Gemini call is enqueued. Otherwise a loader thread does both in turn.
+     */
+    public CompletableFuture<String> summarizeAsync(String text) {
+        String key = key(text);
+        CompletableFuture<String> summary = nonBlocking
+                ? memory.get(key, (k, executor) -> loadOrGenerateAsync(k, text))
+                : memory.get(key, k -> loadOrGenerate(k, text));
+        return summary
+                .thenApply(SummaryCache::visible)
+                .exceptionally(e -> {
+                    log.warn("Summary cache load failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * True when the in-heap tier holds a summary of {@code text} or is already loading one.
+     */
+    public boolean contains(String text) {
+        return memory.getIfPresent(key(text)) != null;
+    }
+
+    /**
+     * True when Gemini's safety filters refused {@code text} recently, so retrying is pointless.
+     */
+    public boolean isBlocked(String text) {
+        CompletableFuture<String> entry = memory.getIfPresent(key(text));
+        return entry != null && entry.isDone() && !entry.isCompletedExceptionally() && entry.join() == BLOCKED;
+    }
+
+    /**
+     * Like {@link #summarizeAsync}, but a miss is generated with a streaming call whose text chunks go to
+     * {@code onDelta} as they arrive. A hit, or a load already in flight for the same text, yields no chunks.
+     */
+    public CompletableFuture<String> summarizeStreaming(String text, Consumer<String> onDelta) {
+        String key = key(text);
+        CompletableFuture<String> existing = memory.getIfPresent(key);
+        if (existing != null) {
+            return existing.thenApply(SummaryCache::visible).exceptionally(e -> null);
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        existing = memory.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.thenApply(SummaryCache::visible).exceptionally(e -> null);
+        }
+        loader.execute(() -> {
+            try {
+                Optional<String> stored = findStored(key);
+                mine.complete(stored.isPresent()
+                        ? stored.get()
+                        : keep(key, geminiService.summarizeArticleStreaming(text, onDelta)));
+            } catch (Exception e) {
+                log.warn("Streaming summary load failed: {}", e.getMessage());
+                mine.complete(null);
+            }
+        });
+        return mine.thenApply(SummaryCache::visible);
+    }
+
+    /**
+     * Cached summaries for several texts, positionally aligned with {@code texts}. Texts missing from
+     * both tiers are summarized together in one LLM call per batch; anything the batch response
+     * drops falls back to its own single-article call.
+     */
+    public List<CompletableFuture<String>> summarizeAllAsync(List<String> texts) {
+        List<CompletableFuture<String>> results = new ArrayList<>(texts.size());
+        Map<String, String> ownedTexts = new LinkedHashMap<>();
+        Map<String, CompletableFuture<String>> owned = new HashMap<>();
+        for (String text : texts) {
+            String key = key(text);
+            CompletableFuture<String> future = memory.getIfPresent(key);
+            if (future == null) {
+                future = owned.get(key);
+            }
+            if (future == null) {
+                CompletableFuture<String> mine = new CompletableFuture<>();
+                future = memory.asMap().putIfAbsent(key, mine);
+                if (future == null) {
+                    owned.put(key, mine);
+                    ownedTexts.put(key, text);
+                    future = mine;
+                }
+            }
+            results.add(future.thenApply(SummaryCache::visible).exceptionally(e -> null));
+        }
+        if (!ownedTexts.isEmpty() && nonBlocking) {
+            loadBatchAsync(ownedTexts, owned);
+        } else if (!ownedTexts.isEmpty()) {
+            loader.execute(() -> loadBatch(ownedTexts, owned));
+        }
+        return results;
+    }
+
+    private void loadBatch(Map<String, String> textsByKey, Map<String, CompletableFuture<String>> futures) {
+        try {
+            Map<String, String> pending = new LinkedHashMap<>(textsByKey);
+            findAllStored(pending.keySet()).forEach((key, summary) -> {
+                futures.get(key).complete(summary);
+                pending.remove(key);
+            });
+
+            List<String> keys = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(keys.size(), from + batchSize));
+                Map<String, String> textsById = new LinkedHashMap<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    textsById.put(String.valueOf(i + 1), pending.get(chunk.get(i)));
+                }
+                Map<String, String> generated = chunk.size() == 1
+                        ? Map.of()
+                        : geminiService.summarizeArticles(textsById);
+                for (int i = 0; i < chunk.size(); i++) {
+                    String key = chunk.get(i);
+                    String text = pending.get(key);
+                    String summary = generated.get(String.valueOf(i + 1));
+                    if (isUsable(summary)) {
+                        store(key, summary);
+                        futures.get(key).complete(summary);
+                    } else {
+                        loader.execute(() -> futures.get(key).complete(generate(key, text)));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Batch summary load failed: {}", e.getMessage());
+            // Completing with null removes the entries, so later requests retry.
+            futures.values().forEach(f -> f.complete(null));
+        }
+    }
+
+    /**
+     * {@link #loadBatch} as a chain of callbacks: one reactive store lookup, then one enqueued Gemini
+     * call per chunk, with single-article calls for whatever a batch answer left out.
+     */
+    private void loadBatchAsync(Map<String, String> textsByKey, Map<String, CompletableFuture<String>> futures) {
+        findAllStoredAsync(textsByKey.keySet()).thenAccept(stored -> {
+            Map<String, String> pending = new LinkedHashMap<>(textsByKey);
+            stored.forEach((key, summary) -> {
+                futures.get(key).complete(summary);
+                pending.remove(key);
+            });
+
+            List<String> keys = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(keys.size(), from + batchSize));
+                Map<String, String> textsById = new LinkedHashMap<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    textsById.put(String.valueOf(i + 1), pending.get(chunk.get(i)));
+                }
+                CompletableFuture<Map<String, String>> generated = chunk.size() == 1
+                        ? CompletableFuture.completedFuture(Map.of())
+                        : geminiService.summarizeArticlesAsync(textsById);
+                generated.thenAccept(summaries -> {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        String key = chunk.get(i);
+                        String summary = summaries.get(String.valueOf(i + 1));
+                        if (isUsable(summary)) {
+                            store(key, summary);
+                            futures.get(key).complete(summary);
+                        } else {
+                            generateAsync(key, pending.get(key)).thenAccept(futures.get(key)::complete);
+                        }
+                    }
+                }).exceptionally(e -> {
+                    log.warn("Batch summary call failed: {}", e.getMessage());
+                    // Only this chunk's futures: the other chunks have their own calls in flight.
+                    chunk.forEach(key -> futures.get(key).complete(null));
+                    return null;
+                });
+            }
+        }).exceptionally(e -> {
+            log.warn("Batch summary load failed: {}", e.getMessage());
+            futures.values().forEach(f -> f.complete(null));
+            return null;
+        });
+    }
+
+    private CompletableFuture<String> loadOrGenerateAsync(String key, String text) {
+        return findStoredAsync(key).thenCompose(stored -> stored != null
+                ? CompletableFuture.completedFuture(stored)
+                : generateAsync(key, text));
+    }
+
+    private CompletableFuture<String> generateAsync(String key, String text) {
+        return geminiService.summarizeArticleAsync(text)
+                .thenApply(result -> keep(key, result))
+                .exceptionally(e -> null);
+    }
+
+    private String loadOrGenerate(String key, String text) {
+        Optional<String> stored = findStored(key);
+        return stored.isPresent() ? stored.get() : generate(key, text);
+    }
+
+    private String generate(String key, String text) {
+        return keep(key, geminiService.summarizeArticle(text));
+    }
+
+    private String keep(String key, GeminiResult result) {
+        String summary = result.getText();
+        if (result.getStatus() == GeminiResult.Status.BLOCKED) {
+            save(new CachedSummary(key, null, GeminiService.SUMMARY_PROMPT_VERSION, Instant.now(), true));
+            return BLOCKED;
+        }
+        if (!result.isSuccess() || !isUsable(summary)) {
+            // Returning null keeps failures out of the cache so the next request retries.
+            return null;
+        }
+        store(key, summary);
+        return summary;
+    }
+
+    private void store(String key, String summary) {
+        save(new CachedSummary(key, summary, GeminiService.SUMMARY_PROMPT_VERSION, Instant.now()));
+    }
+
+    private void save(CachedSummary cached) {
+        if (nonBlocking) {
+            reactiveMongo.save(cached).subscribe(saved -> { }, e -> log.warn("Could not persist summary: {}", e.getMessage()));
+            return;
+        }
+        try {
+            repository.save(cached);
+        } catch (Exception e) {
+            log.warn("Could not persist summary: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, String> findAllStored(Collection<String> keys) {
+        Map<String, String> stored = new HashMap<>();
+        try {
+            repository.findAllById(keys).forEach(cached -> {
+                String summary = storedValue(cached);
+                if (summary != null) stored.put(cached.getKey(), summary);
+            });
+            metrics.summaryStoreLookups(stored.size(), keys.size() - stored.size());
+        } catch (Exception e) {
+            log.warn("Summary store unavailable: {}", e.getMessage());
+        }
+        return stored;
+    }
+
+    private Optional<String> findStored(String key) {
+        try {
+            Optional<String> stored = repository.findById(key).map(this::storedValue);
+            metrics.summaryStoreLookups(stored.isPresent() ? 1 : 0, stored.isPresent() ? 0 : 1);
+            return stored;
+        } catch (Exception e) {
+            log.warn("Summary store unavailable: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stored summaries by key via the reactive driver. A store failure counts as all misses.
+     */
+    private CompletableFuture<Map<String, String>> findAllStoredAsync(Collection<String> keys) {
+        return reactiveMongo.find(Query.query(Criteria.where("_id").in(keys)), CachedSummary.class)
+                .collectList()
+                .toFuture()
+                .thenApply(found -> {
+                    Map<String, String> stored = new HashMap<>();
+                    for (CachedSummary cached : found) {
+                        String summary = storedValue(cached);
+                        if (summary != null) stored.put(cached.getKey(), summary);
+                    }
+                    metrics.summaryStoreLookups(stored.size(), keys.size() - stored.size());
+                    return stored;
+                })
+                .exceptionally(e -> {
+                    log.warn("Summary store unavailable: {}", e.getMessage());
+                    return new HashMap<>();
+                });
+    }
+
+    /**
+     * The stored summary for {@code key}, or null when there is none or the store is unavailable.
+     */
+    private CompletableFuture<String> findStoredAsync(String key) {
+        return reactiveMongo.findById(key, CachedSummary.class)
+                .mapNotNull(this::storedValue)
+                .toFuture()
+                .thenApply(stored -> {
+                    metrics.summaryStoreLookups(stored != null ? 1 : 0, stored != null ? 0 : 1);
+                    return stored;
+                })
+                .exceptionally(e -> {
+                    log.warn("Summary store unavailable: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * The in-heap value for a stored entry, or null once a blocked marker is older than the TTL.
+     */
+    private String storedValue(CachedSummary cached) {
+        if (!cached.isBlocked()) return cached.getSummary();
+        Instant createdAt = cached.getCreatedAt();
+        boolean fresh = createdAt != null && createdAt.plus(ttlMinutes, ChronoUnit.MINUTES).isAfter(Instant.now());
+        return fresh ? BLOCKED : null;
+    }
+
+    private static String visible(String summary) {
+        return summary == BLOCKED ? null : summary;
+    }
+
+    static boolean isUsable(String summary) {
+        if (summary == null) return false;
+        String trimmed = summary.trim();
+        return trimmed.length() > 20
+                && !trimmed.startsWith("{")
+                && !trimmed.toLowerCase().contains("error");
+    }
+
+    static String key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(GeminiService.SUMMARY_PROMPT_VERSION.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.CountMinSketch;
+import com.newsRetreiver.newsRetreiver.Util.TokenBucket;
+import com.newsRetreiver.newsRetreiver.Util.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Summarizes articles before anyone asks for them, so the first request for a newly popular category
+ * finds its summaries in the {@link SummaryCache} instead of waiting on Gemini.
+ * <p>
+ * Every page served counts its categories and sources in a {@link CountMinSketch}, halved after each
+ * pass so it reflects recent demand. A background pass then warms, in order: the newest and the
+ * highest-scored {@code top-n} articles of each hot category and source, then articles added to the
+ * catalog since the last pass, newest first. Passes spend at most {@code quota-share} of the Gemini
+ * request rate, one batched call at a time, and stop whenever foreground requests have drawn the
+ * shared rate limit below its reserve.
+ */
+@Service
+public class SummaryWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryWarmer.class);
+
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int SKETCH_DEPTH = 4;
+
+    @Autowired
+    private ArticleCatalog catalog;
+
+    @Autowired
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Value("${news.summary-warmer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${news.summary-warmer.interval-seconds:60}")
+    private long intervalSeconds;
+
+    @Value("${news.summary-warmer.quota-share:0.25}")
+    private double quotaShare;
+
+    @Value("${news.summary-warmer.top-n:5}")
+    private int topN;
+
+    @Value("${news.summary-warmer.hot-groups:10}")
+    private int hotGroups;
+
+    @Value("${news.summary-warmer.min-hits:3}")
+    private int minHits;
+
+    @Value("${news.summary-warmer.max-new:500}")
+    private int maxNew;
+
+    @Value("${news.summary-cache.batch-size:10}")
+    private int batchSize;
+
+    @Value("${news.enrichment.deadline-ms:8000}")
+    private long waitMs;
+
+    @Value("${gemini.rate-limit.requests-per-minute:60}")
+    private double requestsPerMinute;
+
+    private final CountMinSketch served = new CountMinSketch(SKETCH_WIDTH, SKETCH_DEPTH);
+    private TokenBucket budget;
+
+    // Worker-thread state.
+    private long syncedGeneration = -1;
+    private int syncedUpTo;
+    private LinkedHashSet<String> pendingNew = new LinkedHashSet<>();
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "summary-warmer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+        // A pass may spend what accrued since the last one, never more.
+        double callsPerSecond = quotaShare * requestsPerMinute / 60;
+        budget = new TokenBucket(callsPerSecond, Math.max(1, callsPerSecond * intervalSeconds));
+        worker.scheduleWithFixedDelay(() -> {
+            try {
+                warm();
+            } catch (RuntimeException e) {
+                log.warn("Summary warm-up pass failed: {}", e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Count a served page towards the demand for its articles' categories and sources.
+     */
+    public void recordServed(List<NewsArticle> articles) {
+        if (!enabled) return;
+        for (NewsArticle article : articles) {
+            if (article.getSourceName() != null) {
+                served.add(sourceKey(article.getSourceName().toLowerCase(Locale.ROOT)));
+            }
+            if (article.getCategory() != null) {
+                article.getCategory().forEach(category -> served.add(categoryKey(category)));
+            }
+        }
+    }
+
+    private void warm() {
+        if (!catalog.isEnabled()) return;
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = catalog.snapshot();
+        collectNew(snapshot);
+
+        List<Integer> candidates = hotArticles(snapshot);
+        for (String id : new ArrayList<>(pendingNew)) {
+            int ordinal = snapshot.ordinalOf(id);
+            if (ordinal < 0 || !snapshot.isLive(ordinal)) {
+                pendingNew.remove(id);
+            } else {
+                candidates.add(ordinal);
+            }
+        }
+
+        int warmed = 0;
+        boolean refused = false;
+        Set<String> seen = new HashSet<>();
+        List<String> texts = new ArrayList<>(batchSize);
+        List<String> ids = new ArrayList<>(batchSize);
+        for (int ordinal : candidates) {
+            NewsArticle article = snapshot.article(ordinal);
+            String text = NewsService.contentToSummarize(snapshot, article);
+            if (text == null || !seen.add(text) || summaryCache.contains(text)) {
+                pendingNew.remove(article.getId());
+                continue;
+            }
+            texts.add(text);
+            ids.add(article.getId());
+            if (texts.size() == batchSize) {
+                if (!mayCall()) {
+                    refused = true;
+                    break;
+                }
+                warmed += summarize(texts);
+                pendingNew.removeAll(ids);
+                texts.clear();
+                ids.clear();
+            }
+        }
+        if (!refused && !texts.isEmpty() && mayCall()) {
+            warmed += summarize(texts);
+            pendingNew.removeAll(ids);
+        }
+        served.halve();
+        metrics.summariesWarmed(warmed);
+        if (warmed > 0) {
+            log.info("Summary warmer: {} summaries ready in {} ms, {} new articles still pending",
+                    warmed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), pendingNew.size());
+        }
+    }
+
+    /**
+     * Queue articles the catalog gained since the last pass, newest first, ahead of older pending ones
+     * and capped at {@code max-new}. After a full rebuild every article looks new; cached ones drop out
+     * on the next pass without a Gemini call.
+     */
+    private void collectNew(CatalogSnapshot snapshot) {
+        if (snapshot.generation() != syncedGeneration) {
+            syncedGeneration = snapshot.generation();
+            syncedUpTo = 0;
+        }
+        int count = 0;
+        int[] added = new int[snapshot.size() - syncedUpTo];
+        for (int ordinal = syncedUpTo; ordinal < snapshot.size(); ordinal++) {
+            if (snapshot.isLive(ordinal)) added[count++] = ordinal;
+        }
+        syncedUpTo = snapshot.size();
+        if (count == 0) return;
+
+        LinkedHashSet<String> queued = new LinkedHashSet<>();
+        for (int ordinal : TopK.select(added, count, maxNew, snapshot::compareByDateDesc)) {
+            queued.add(snapshot.article(ordinal).getId());
+        }
+        for (String id : pendingNew) {
+            if (queued.size() >= maxNew) break;
+            queued.add(id);
+        }
+        pendingNew = queued;
+    }
+
+    /**
+     * The newest and the highest-scored live articles of each category and source served at least
+     * {@code min-hits} times recently, hottest first.
+     */
+    private List<Integer> hotArticles(CatalogSnapshot snapshot) {
+        List<Map.Entry<int[], Integer>> groups = new ArrayList<>();
+        for (String category : snapshot.categoryNames()) {
+            int hits = served.estimate(categoryKey(category));
+            if (hits >= minHits) groups.add(Map.entry(snapshot.byCategory(category), hits));
+        }
+        for (String source : snapshot.sourceNames()) {
+            int hits = served.estimate(sourceKey(source));
+            if (hits >= minHits) groups.add(Map.entry(snapshot.bySource(source), hits));
+        }
+        groups.sort(Map.Entry.<int[], Integer>comparingByValue(Comparator.reverseOrder()));
+
+        List<Integer> ordinals = new ArrayList<>();
+        for (Map.Entry<int[], Integer> group : groups.subList(0, Math.min(hotGroups, groups.size()))) {
+            int[] newestFirst = group.getKey();
+            int newest = 0;
+            for (int i = 0; i < newestFirst.length && newest < topN; i++) {
+                if (snapshot.isLive(newestFirst[i])) {
+                    ordinals.add(newestFirst[i]);
+                    newest++;
+                }
+            }
+            for (int ordinal : TopK.select(newestFirst, newestFirst.length, topN, snapshot::compareByScoreDesc)) {
+                if (snapshot.isLive(ordinal)) ordinals.add(ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    /**
+     * One call's worth of the background share, taken only while foreground traffic leaves room.
+     */
+    private boolean mayCall() {
+        return geminiService.hasSpareCapacity(quotaShare) && budget.tryAcquire();
+    }
+
+    /**
+     * Summarize one batch through the cache and wait for it, returning how many summaries are now ready.
+     */
+    private int summarize(List<String> texts) {
+        List<CompletableFuture<String>> summaries = summaryCache.summarizeAllAsync(texts);
+        try {
+            CompletableFuture.allOf(summaries.toArray(new CompletableFuture[0])).get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Summary warm-up batch still running after {} ms", waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.debug("Summary warm-up batch failed", e.getCause());
+        }
+        int ready = 0;
+        for (CompletableFuture<String> summary : summaries) {
+            if (summary.getNow(null) != null) ready++;
+        }
+        return ready;
+    }
+
+    private static String categoryKey(String category) {
+        return "category:" + category;
+    }
+
+    private static String sourceKey(String normalizedSource) {
+        return "source:" + normalizedSource;
+    }
+}
@@ -0,0 +1,57 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+/**
+ * AIMD concurrency limit: grows by roughly one slot per window of fast successes and is cut
+ * multiplicatively when calls are throttled or slower than the target latency.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMillis;
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyMillis) {
+        inFlight--;
+        if (latencyMillis > targetLatencyMillis) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized void onThrottled() {
+        inFlight--;
+        decrease();
+    }
+
+    /**
+     * Release without adjusting the limit, for failures that say nothing about capacity.
+     */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+}
@@ -0,0 +1,65 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate counts for an unbounded set of keys in fixed memory.
+ * <p>
+ * Each key increments one counter per row and its estimate is the smallest of them, so estimates never
+ * undercount; they overcount by more than {@code e * total / width} with probability at most
+ * {@code e^-depth}. Safe for concurrent use. {@link #halve()} ages every count, so a sketch halved on
+ * a schedule tracks recent frequency rather than all-time totals.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int mask;
+    private final AtomicIntegerArray counts;
+
+    /**
+     * {@code width} is rounded up to a power of two.
+     */
+    public CountMinSketch(int width, int depth) {
+        int rounded = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = rounded - 1;
+        this.counts = new AtomicIntegerArray(rounded * depth);
+    }
+
+    public void add(String key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash) | 1;
+        for (int row = 0; row < depth; row++) {
+            counts.incrementAndGet(cell(row, hash + row * step));
+        }
+    }
+
+    public int estimate(String key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts.get(cell(row, hash + row * step)));
+        }
+        return min;
+    }
+
+    public void halve() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.updateAndGet(i, count -> count >>> 1);
+        }
+    }
+
+    private int cell(int row, int hash) {
+        return row * (mask + 1) + (hash & mask);
+    }
+
+    // Murmur3's finalizer, so nearby hash codes land in unrelated cells.
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,174 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Clusters of near-duplicate articles (the same wire story republished by several sources), by the
+ * {@link SimHash} of title and description.
+ * <p>
+ * A new article joins the cluster whose head (first member) is nearest within {@link #MAX_DISTANCE}
+ * bits, or heads a new one. Heads are found by locality-sensitive hashing: the fingerprint is cut into
+ * {@code MAX_DISTANCE + 1} bands, and two fingerprints that far apart at most agree on at least one
+ * band, so only heads sharing a band value are compared. Clusters never merge, so an article keeps its
+ * cluster for the life of the index.
+ * <p>
+ * Instances are immutable. {@link #withAdded(List)} copies the per-article arrays and only the buckets
+ * the new articles touch.
+ */
+public final class DuplicateIndex {
+
+    public static final int MAX_DISTANCE = 5;
+
+    private static final int BANDS = MAX_DISTANCE + 1;
+    private static final int[] BAND_SHIFT = new int[BANDS];
+    private static final int[] BAND_BITS = new int[BANDS];
+    private static final int[] BAND_OFFSET = new int[BANDS + 1];
+
+    static {
+        int shift = 0;
+        for (int band = 0; band < BANDS; band++) {
+            BAND_BITS[band] = 64 / BANDS + (band < 64 % BANDS ? 1 : 0);
+            BAND_SHIFT[band] = shift;
+            shift += BAND_BITS[band];
+            BAND_OFFSET[band + 1] = BAND_OFFSET[band] + (1 << BAND_BITS[band]);
+        }
+    }
+
+    private static final int[] EMPTY_BUCKET = new int[0];
+    private static final long[] EMPTY_FINGERPRINTS = new long[0];
+
+    private final int[] head;
+    // Members of a cluster in ordinal order: next[ordinal] is the following member or -1; tail[head] the last.
+    private final int[] next;
+    private final int[] tail;
+    // Head ordinals per band value, with their fingerprints alongside so a scan reads memory in order.
+    // Only the first bucketSize[b] entries of bucket b are in use.
+    private final int[][] buckets;
+    private final long[][] bucketFingerprints;
+    private final int[] bucketSize;
+
+    private DuplicateIndex(int[] head, int[] next, int[] tail,
+                           int[][] buckets, long[][] bucketFingerprints, int[] bucketSize) {
+        this.head = head;
+        this.next = next;
+        this.tail = tail;
+        this.buckets = buckets;
+        this.bucketFingerprints = bucketFingerprints;
+        this.bucketSize = bucketSize;
+    }
+
+    public static DuplicateIndex empty() {
+        int[][] buckets = new int[BAND_OFFSET[BANDS]][];
+        long[][] bucketFingerprints = new long[BAND_OFFSET[BANDS]][];
+        Arrays.fill(buckets, EMPTY_BUCKET);
+        Arrays.fill(bucketFingerprints, EMPTY_FINGERPRINTS);
+        return new DuplicateIndex(new int[0], new int[0], new int[0],
+                buckets, bucketFingerprints, new int[BAND_OFFSET[BANDS]]);
+    }
+
+    public int size() {
+        return head.length;
+    }
+
+    /**
+     * Cluster the articles as ordinals {@code size() .. size() + articles.size() - 1}.
+     */
+    public DuplicateIndex withAdded(List<NewsArticle> articles) {
+        if (articles.isEmpty()) return this;
+        int base = head.length;
+        int n = base + articles.size();
+        int[] nextHead = Arrays.copyOf(head, n);
+        int[] nextNext = Arrays.copyOf(next, n);
+        int[] nextTail = Arrays.copyOf(tail, n);
+        int[][] nextBuckets = buckets.clone();
+        long[][] nextBucketFingerprints = bucketFingerprints.clone();
+        int[] nextBucketSize = bucketSize.clone();
+        // Buckets copied in this call may be appended to in place; the others are still shared.
+        boolean[] owned = new boolean[nextBuckets.length];
+
+        for (int k = 0; k < articles.size(); k++) {
+            int ordinal = base + k;
+            NewsArticle article = articles.get(k);
+            long fingerprint = SimHash.of(join(article.getTitle(), article.getDescription()));
+            nextNext[ordinal] = -1;
+            if (fingerprint == 0) {
+                // No words to compare; an article without text is nobody's duplicate.
+                nextHead[ordinal] = ordinal;
+                nextTail[ordinal] = ordinal;
+                continue;
+            }
+
+            int nearest = -1;
+            int nearestDistance = MAX_DISTANCE + 1;
+            for (int band = 0; band < BANDS; band++) {
+                int b = bucket(band, fingerprint);
+                long[] candidates = nextBucketFingerprints[b];
+                for (int i = 0; i < nextBucketSize[b]; i++) {
+                    int distance = SimHash.distance(fingerprint, candidates[i]);
+                    if (distance > nearestDistance) continue;
+                    int candidate = nextBuckets[b][i];
+                    if (distance < nearestDistance || candidate < nearest) {
+                        nearest = candidate;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+
+            if (nearest >= 0) {
+                nextHead[ordinal] = nearest;
+                nextNext[nextTail[nearest]] = ordinal;
+                nextTail[nearest] = ordinal;
+                continue;
+            }
+            nextHead[ordinal] = ordinal;
+            nextTail[ordinal] = ordinal;
+            for (int band = 0; band < BANDS; band++) {
+                int b = bucket(band, fingerprint);
+                if (!owned[b] || nextBucketSize[b] == nextBuckets[b].length) {
+                    int capacity = Math.max(4, nextBuckets[b].length * 2);
+                    nextBuckets[b] = Arrays.copyOf(nextBuckets[b], capacity);
+                    nextBucketFingerprints[b] = Arrays.copyOf(nextBucketFingerprints[b], capacity);
+                    owned[b] = true;
+                }
+                nextBuckets[b][nextBucketSize[b]] = ordinal;
+                nextBucketFingerprints[b][nextBucketSize[b]++] = fingerprint;
+            }
+        }
+        return new DuplicateIndex(nextHead, nextNext, nextTail,
+                nextBuckets, nextBucketFingerprints, nextBucketSize);
+    }
+
+    /**
+     * The first ordinal of the article's cluster; the article itself when it has no near-duplicates before it.
+     */
+    public int headOf(int ordinal) {
+        return head[ordinal];
+    }
+
+    /**
+     * The next member of the article's cluster in ordinal order, or -1.
+     */
+    public int nextMember(int ordinal) {
+        return next[ordinal];
+    }
+
+    /**
+     * True when the article's cluster has any other member, retired ones included.
+     */
+    public boolean hasCopies(int ordinal) {
+        int h = head[ordinal];
+        return tail[h] != h;
+    }
+
+    private static int bucket(int band, long fingerprint) {
+        return BAND_OFFSET[band] + (int) (fingerprint >>> BAND_SHIFT[band] & ((1L << BAND_BITS[band]) - 1));
+    }
+
+    private static String join(String title, String description) {
+        if (title == null) return description;
+        return description == null ? title : title + " " + description;
+    }
+}
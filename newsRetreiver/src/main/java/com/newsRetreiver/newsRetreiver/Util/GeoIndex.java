@@ -0,0 +1,409 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size latitude/longitude grid over point ordinals.
+ * <p>
+ * Radius queries visit only the cells overlapping the query's bounding box, reject
+ * points outside the box with plain comparisons, and run Haversine on what is left.
+ * Nearest-neighbour queries open blocks of cells, then cells, best-first, in order of the least
+ * distance a point inside them could have, and stop as soon as the caller has enough points.
+ */
+public final class GeoIndex {
+
+    private static final double CELL_DEGREES = 0.5;
+    private static final int ROWS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.ceil(360 / CELL_DEGREES);
+    // Nearest-neighbour searches rule out empty space a block of BLOCK_CELLS x BLOCK_CELLS cells at a time.
+    private static final int BLOCK_CELLS = 16;
+    private static final int BLOCK_COLUMNS = COLUMNS / BLOCK_CELLS;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double[] latitude;
+    private final double[] longitude;
+    private final int[] cellKeys;
+    private final int[] cellStart;
+    private final int[] ordinals;
+    // Keys (block row * BLOCK_COLUMNS + block column) of the blocks holding any cell, ascending.
+    private final int[] blocks;
+
+    private GeoIndex(double[] latitude, double[] longitude, int[] cellKeys, int[] cellStart, int[] ordinals) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.ordinals = ordinals;
+        this.blocks = Arrays.stream(cellKeys)
+                .map(key -> key / COLUMNS / BLOCK_CELLS * BLOCK_COLUMNS + key % COLUMNS / BLOCK_CELLS)
+                .sorted().distinct().toArray();
+    }
+
+    /**
+     * Index every ordinal whose latitude is not NaN. The arrays are retained, not copied.
+     */
+    public static GeoIndex build(double[] latitude, double[] longitude) {
+        long[] keyed = keyed(latitude, longitude, 0);
+        Arrays.sort(keyed);
+        return fromSorted(latitude, longitude, keyed);
+    }
+
+    /**
+     * Index over ordinals {@code firstAdded ..} of the given arrays plus this index's points, dropping any
+     * whose latitude is now NaN. Existing cells are merged in order rather than re-sorted, so the cost is
+     * one pass over the index plus sorting the added points. The arrays are retained, not copied.
+     */
+    public GeoIndex withAdded(double[] latitude, double[] longitude, int firstAdded) {
+        long[] added = keyed(latitude, longitude, firstAdded);
+        Arrays.sort(added);
+        long[] merged = new long[ordinals.length + added.length];
+        int size = 0;
+        int next = 0;
+        for (int cell = 0; cell < cellKeys.length; cell++) {
+            long key = (long) cellKeys[cell] << 32;
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                if (Double.isNaN(latitude[ordinals[i]])) continue;
+                long existing = key | ordinals[i];
+                while (next < added.length && added[next] < existing) {
+                    merged[size++] = added[next++];
+                }
+                merged[size++] = existing;
+            }
+        }
+        while (next < added.length) {
+            merged[size++] = added[next++];
+        }
+        return fromSorted(latitude, longitude, Arrays.copyOf(merged, size));
+    }
+
+    private static long[] keyed(double[] latitude, double[] longitude, int from) {
+        int located = 0;
+        for (int i = from; i < latitude.length; i++) {
+            if (!Double.isNaN(latitude[i])) located++;
+        }
+        long[] keyed = new long[located];
+        int next = 0;
+        for (int i = from; i < latitude.length; i++) {
+            if (Double.isNaN(latitude[i])) continue;
+            long key = cellKey(row(latitude[i]), column(longitude[i]));
+            keyed[next++] = (key << 32) | i;
+        }
+        return keyed;
+    }
+
+    /**
+     * CSR layout from (cell key, ordinal) pairs packed into longs and sorted ascending.
+     */
+    private static GeoIndex fromSorted(double[] latitude, double[] longitude, long[] keyed) {
+        int located = keyed.length;
+        int[] ordinals = new int[located];
+        int[] keys = new int[located];
+        int[] starts = new int[located + 1];
+        int cells = 0;
+        for (int i = 0; i < located; i++) {
+            int key = (int) (keyed[i] >>> 32);
+            ordinals[i] = (int) keyed[i];
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells++] = i;
+            }
+        }
+        starts[cells] = located;
+        return new GeoIndex(latitude, longitude, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1), ordinals);
+    }
+
+    public int size() {
+        return ordinals.length;
+    }
+
+    /**
+     * All indexed points within {@code radiusKm} of the given point, unordered.
+     */
+    public Matches within(double lat, double lon, double radiusKm) {
+        Matches matches = new Matches();
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double minLat = lat - latSpan;
+        double maxLat = lat + latSpan;
+        double lonSpan = longitudeSpan(lat, radiusKm);
+
+        int minRow = row(Math.max(-90, minLat));
+        int maxRow = row(Math.min(90, maxLat));
+        int columnSpan = lonSpan >= 180 ? COLUMNS : (int) Math.ceil(lonSpan / CELL_DEGREES) + 1;
+        int columns = (int) Math.min(COLUMNS, 2L * columnSpan + 1);
+        long cellsInBox = (long) (maxRow - minRow + 1) * columns;
+
+        // When the box covers more cells than there are points, a straight scan is cheaper.
+        if (cellsInBox >= ordinals.length) {
+            for (int ordinal : ordinals) {
+                collect(ordinal, lat, lon, radiusKm, minLat, maxLat, lonSpan, matches);
+            }
+            return matches;
+        }
+
+        int firstColumn = columns == COLUMNS ? 0 : column(lon) - columnSpan;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int dc = 0; dc < columns; dc++) {
+                int c = Math.floorMod(firstColumn + dc, COLUMNS);
+                int cell = Arrays.binarySearch(cellKeys, cellKey(r, c));
+                if (cell < 0) continue;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    collect(ordinals[i], lat, lon, radiusKm, minLat, maxLat, lonSpan, matches);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Upper bound on {@code within(lat, lon, radiusKm).size()}: the points in the grid cells the
+     * query's bounding box touches, counted without any distance computation.
+     */
+    public int estimateWithin(double lat, double lon, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = longitudeSpan(lat, radiusKm);
+        int minRow = row(Math.max(-90, lat - latSpan));
+        int maxRow = row(Math.min(90, lat + latSpan));
+        int columnSpan = lonSpan >= 180 ? COLUMNS : (int) Math.ceil(lonSpan / CELL_DEGREES) + 1;
+        int columns = (int) Math.min(COLUMNS, 2L * columnSpan + 1);
+        if ((long) (maxRow - minRow + 1) * columns >= ordinals.length) return ordinals.length;
+
+        int firstColumn = columns == COLUMNS ? 0 : column(lon) - columnSpan;
+        int count = 0;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int dc = 0; dc < columns; dc++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(r, Math.floorMod(firstColumn + dc, COLUMNS)));
+                if (cell >= 0) count += cellStart[cell + 1] - cellStart[cell];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Indexed points in order of distance from the given point, nearest first, leaving out those
+     * closer than {@code fromKm}. Points are found as they are read, so a caller paging from a cursor
+     * distance opens the cells out to that distance and then only as many more as its page needs.
+     */
+    public Nearest nearest(double lat, double lon, double fromKm) {
+        return new Nearest(lat, lon, fromKm);
+    }
+
+    private void collect(int ordinal, double lat, double lon, double radiusKm,
+                         double minLat, double maxLat, double lonSpan, Matches matches) {
+        double pointLat = latitude[ordinal];
+        if (pointLat < minLat || pointLat > maxLat) return;
+        if (lonSpan < 180) {
+            double dLon = Math.abs(longitude[ordinal] - lon);
+            if (Math.min(dLon, 360 - dLon) > lonSpan) return;
+        }
+        double distance = Haversine.calculateDistance(lat, lon, pointLat, longitude[ordinal]);
+        if (distance <= radiusKm) {
+            matches.add(ordinal, distance);
+        }
+    }
+
+    /**
+     * Half-width in degrees of longitude of the bounding box around a circle, or 180 when it reaches a pole.
+     */
+    private static double longitudeSpan(double lat, double radiusKm) {
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        if (angular >= Math.PI / 2 - Math.abs(Math.toRadians(lat))) return 180;
+        return Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(lat))));
+    }
+
+    private static int row(double lat) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((lat + 90) / CELL_DEGREES)));
+    }
+
+    private static int column(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    /**
+     * The least distance from the query point to the area {@code rows x columns} cells from the given
+     * corner cell. Off the area's longitudes it is the distance to the nearer of its side meridians,
+     * since along a parallel distance only grows away from the query's meridian. Slightly under the
+     * exact value so rounding in {@link Haversine} never hands out a point before an area holding a
+     * nearer one.
+     */
+    private static double bound(double lat, double lon, int row, int column, int rows, int columns) {
+        double south = row * CELL_DEGREES - 90;
+        double north = Math.min(90, south + rows * CELL_DEGREES);
+        double west = column * CELL_DEGREES - 180;
+        double width = columns * CELL_DEGREES;
+        double nearest;
+        if (((lon - west) % 360 + 360) % 360 <= width) {
+            nearest = (lat < south ? south - lat : Math.max(0, lat - north)) * KM_PER_DEGREE;
+        } else {
+            nearest = Math.min(toMeridian(lat, lon, west, south, north), toMeridian(lat, lon, west + width, south, north));
+        }
+        return Math.max(0, nearest - 1e-6);
+    }
+
+    /**
+     * The least distance from the query point to the given meridian between two latitudes.
+     */
+    private static double toMeridian(double lat, double lon, double meridian, double south, double north) {
+        double nearest = Math.min(Haversine.calculateDistance(lat, lon, south, meridian),
+                Haversine.calculateDistance(lat, lon, north, meridian));
+        double across = Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(meridian - lon));
+        if (across > 0) {
+            // Within 90 degrees of longitude the distance dips to its least at one latitude between the ends.
+            double closest = Math.toDegrees(Math.atan2(Math.sin(Math.toRadians(lat)), across));
+            if (closest > south && closest < north) {
+                nearest = Math.min(nearest, Haversine.calculateDistance(lat, lon, closest, meridian));
+            }
+        }
+        return nearest;
+    }
+
+    private static int cellKey(int row, int column) {
+        return row * COLUMNS + column;
+    }
+
+    /**
+     * Ordinals with their distance in kilometres from the query point.
+     */
+    public static final class Matches {
+        private int[] ordinals = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public int ordinal(int index) {
+            return ordinals[index];
+        }
+
+        public double distance(int index) {
+            return distances[index];
+        }
+
+        void add(int ordinal, double distance) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            ordinals[size] = ordinal;
+            distances[size++] = distance;
+        }
+    }
+
+    /**
+     * Best-first walk over the grid. A heap holds blocks and cells keyed by {@link #bound} and opened
+     * cells' points keyed by their distance; a point is handed out when it reaches the top, since
+     * everything still closed then can only hold points at least as far. Every occupied block is
+     * queued up front, so no path over a pole or the antimeridian is missed.
+     */
+    public final class Nearest {
+        // Entries of the heap: points are ordinals; cells and blocks are tagged in the top bits.
+        private static final int CELL = 1 << 30;
+        private static final int BLOCK = 1 << 29;
+
+        private final double lat;
+        private final double lon;
+        private final double fromKm;
+        private double[] keys = new double[64];
+        private int[] entries = new int[64];
+        private int size;
+        private int ordinal = -1;
+        private double distance;
+
+        private Nearest(double lat, double lon, double fromKm) {
+            this.lat = lat;
+            this.lon = lon;
+            this.fromKm = fromKm;
+            for (int block : blocks) {
+                push(bound(lat, lon, block / BLOCK_COLUMNS * BLOCK_CELLS, block % BLOCK_COLUMNS * BLOCK_CELLS,
+                        BLOCK_CELLS, BLOCK_CELLS), -1 - (BLOCK | block));
+            }
+        }
+
+        /**
+         * Moves to the next point, or returns false when every point has been read.
+         */
+        public boolean next() {
+            while (size > 0) {
+                double key = keys[0];
+                int entry = entries[0];
+                pop();
+                if (entry >= 0) {
+                    ordinal = entry;
+                    distance = key;
+                    return true;
+                }
+                int tagged = -1 - entry;
+                if ((tagged & CELL) != 0) {
+                    openCell(tagged & ~CELL);
+                } else {
+                    openBlock(tagged & ~BLOCK);
+                }
+            }
+            return false;
+        }
+
+        public int ordinal() {
+            return ordinal;
+        }
+
+        public double distance() {
+            return distance;
+        }
+
+        private void openBlock(int block) {
+            int firstRow = block / BLOCK_COLUMNS * BLOCK_CELLS;
+            int firstColumn = block % BLOCK_COLUMNS * BLOCK_CELLS;
+            for (int row = firstRow; row < Math.min(ROWS, firstRow + BLOCK_CELLS); row++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(row, firstColumn));
+                for (cell = cell < 0 ? -1 - cell : cell; cell < cellKeys.length; cell++) {
+                    int column = cellKeys[cell] - row * COLUMNS;
+                    if (column >= firstColumn + BLOCK_CELLS) break;
+                    push(bound(lat, lon, row, column, 1, 1), -1 - (CELL | cell));
+                }
+            }
+        }
+
+        private void openCell(int cell) {
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                double d = Haversine.calculateDistance(lat, lon, latitude[ordinals[i]], longitude[ordinals[i]]);
+                if (d >= fromKm) push(d, ordinals[i]);
+            }
+        }
+
+        private void push(double key, int entry) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                entries[i] = entries[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            entries[i] = entry;
+        }
+
+        private void pop() {
+            double key = keys[--size];
+            int entry = entries[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= key) break;
+                keys[i] = keys[child];
+                entries[i] = entries[child];
+                i = child;
+            }
+            keys[i] = key;
+            entries[i] = entry;
+        }
+    }
+}
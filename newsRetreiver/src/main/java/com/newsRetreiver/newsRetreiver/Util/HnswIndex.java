@@ -0,0 +1,429 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour search by inner product
+ * over unit-length vectors (so similarity is cosine).
+ * <p>
+ * Vectors are stored as int8 codes with one float scale each, a quarter of the float footprint;
+ * queries stay in float and are scored against the codes directly. Nodes are only ever added: a
+ * node whose vector is superseded is marked deleted and keeps routing searches but is never returned.
+ * One writer at a time inserts under the write lock; searches share the read lock.
+ */
+public final class HnswIndex {
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinksLayer0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    private byte[] codes;
+    private float[] scales;
+    // links[node][level]: neighbour count followed by the neighbours.
+    private int[][][] links;
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction) {
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinksLayer0 = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+        this.codes = new byte[16 * dimensions];
+        this.scales = new float[16];
+        this.links = new int[16][][];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nodes marked deleted. They stay in the graph, so {@link #size()} counts them too.
+     */
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Add a unit-length vector and return its node number; nodes are numbered from 0 in insertion order.
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            int node = size;
+            grow(node + 1);
+            quantize(vector, node);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            links[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[(l == 0 ? maxLinksLayer0 : maxLinks) + 1];
+            }
+            size++;
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                topLevel = level;
+                return node;
+            }
+            int current = entryPoint;
+            for (int l = topLevel; l > level; l--) {
+                current = greedy(vector, current, l);
+            }
+            for (int l = Math.min(level, topLevel); l >= 0; l--) {
+                long[] candidates = searchLayer(vector, current, efConstruction, l, node);
+                // A new node takes maxLinks neighbours; layer 0 lists may grow to twice that as others link back.
+                int capacity = l == 0 ? maxLinksLayer0 : maxLinks;
+                int[] own = links[node][l];
+                selectNeighbours(candidates, own);
+                for (int i = 1; i <= own[0]; i++) {
+                    link(own[i], node, l, capacity);
+                }
+                current = Candidates.node(candidates[0]);
+            }
+            if (level > topLevel) {
+                topLevel = level;
+                entryPoint = node;
+            }
+            return node;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exclude a node from search results. It still routes searches through the graph.
+     */
+    public void delete(int node) {
+        lock.writeLock().lock();
+        try {
+            deleted.set(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code k} live nodes most similar to {@code query}, best first, exploring {@code ef} candidates.
+     */
+    public Result search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) return new Result(new int[0], new float[0]);
+            int current = entryPoint;
+            for (int l = topLevel; l > 0; l--) {
+                current = greedy(query, current, l);
+            }
+            long[] candidates = searchLayer(query, current, Math.max(ef, k), 0, -1);
+            int[] nodes = new int[Math.min(k, candidates.length)];
+            float[] similarities = new float[nodes.length];
+            int found = 0;
+            for (int i = 0; i < candidates.length && found < nodes.length; i++) {
+                int node = Candidates.node(candidates[i]);
+                if (deleted.get(node)) continue;
+                nodes[found] = node;
+                similarities[found++] = Candidates.similarity(candidates[i]);
+            }
+            return new Result(Arrays.copyOf(nodes, found), Arrays.copyOf(similarities, found));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedy(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float s = similarity(query, neighbours[i]);
+                if (s > best) {
+                    best = s;
+                    current = neighbours[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The {@code ef} most similar nodes reachable on {@code level} from {@code start}, best first.
+     * {@code exclude} is the node being inserted, which must not link to itself.
+     */
+    private long[] searchLayer(float[] query, int start, int ef, int level, int exclude) {
+        Visited seen = visited.get();
+        seen.reset();
+        Candidates frontier = new Candidates(true);
+        Candidates results = new Candidates(false);
+        long first = Candidates.of(similarity(query, start), start);
+        seen.mark(start);
+        frontier.push(first);
+        if (start != exclude) results.push(first);
+        while (!frontier.isEmpty()) {
+            long closest = frontier.pop();
+            if (results.size() >= ef && Candidates.similarity(closest) < Candidates.similarity(results.peek())) break;
+            int[] neighbours = links[Candidates.node(closest)][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (!seen.mark(neighbour) || neighbour == exclude) continue;
+                float s = similarity(query, neighbour);
+                if (results.size() < ef || s > Candidates.similarity(results.peek())) {
+                    long candidate = Candidates.of(s, neighbour);
+                    frontier.push(candidate);
+                    results.push(candidate);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+        long[] best = results.drain();
+        // drain() yields worst first.
+        for (int i = 0, j = best.length - 1; i < j; i++, j--) {
+            long t = best[i];
+            best[i] = best[j];
+            best[j] = t;
+        }
+        return best;
+    }
+
+    /**
+     * Fill {@code list} from best-first {@code candidates}, skipping any candidate closer to an
+     * already chosen neighbour than to the new node, so links spread across directions instead of
+     * all pointing into one cluster.
+     */
+    private void selectNeighbours(long[] candidates, int[] list) {
+        for (int i = 0; i < candidates.length && list[0] < maxLinks; i++) {
+            int candidate = Candidates.node(candidates[i]);
+            float toNode = Candidates.similarity(candidates[i]);
+            boolean diverse = true;
+            for (int j = 1; j <= list[0] && diverse; j++) {
+                diverse = similarity(candidate, list[j]) <= toNode;
+            }
+            if (diverse) list[++list[0]] = candidate;
+        }
+    }
+
+    /**
+     * Add {@code target} to {@code node}'s links on {@code level}; when full, drop the least similar.
+     */
+    private void link(int node, int target, int level, int limit) {
+        int[] list = links[node][level];
+        if (list[0] < limit) {
+            list[++list[0]] = target;
+            return;
+        }
+        int weakest = -1;
+        float weakestSimilarity = similarity(node, target);
+        for (int i = 1; i <= list[0]; i++) {
+            float s = similarity(node, list[i]);
+            if (s < weakestSimilarity) {
+                weakestSimilarity = s;
+                weakest = i;
+            }
+        }
+        if (weakest > 0) list[weakest] = target;
+    }
+
+    private float similarity(float[] query, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * codes[offset + i];
+        }
+        return dot * scales[node];
+    }
+
+    private float similarity(int a, int b) {
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        int dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += codes[offsetA + i] * codes[offsetB + i];
+        }
+        return dot * scales[a] * scales[b];
+    }
+
+    private void quantize(float[] vector, int node) {
+        float max = 0;
+        for (float v : vector) max = Math.max(max, Math.abs(v));
+        float scale = max > 0 ? max / 127 : 1;
+        int offset = node * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            codes[offset + i] = (byte) Math.round(vector[i] / scale);
+        }
+        scales[node] = scale;
+    }
+
+    private void grow(int capacity) {
+        if (capacity <= scales.length) return;
+        int next = Math.max(capacity, scales.length * 2);
+        codes = Arrays.copyOf(codes, next * dimensions);
+        scales = Arrays.copyOf(scales, next);
+        links = Arrays.copyOf(links, next);
+    }
+
+    public static final class Result {
+        private final int[] nodes;
+        private final float[] similarities;
+
+        Result(int[] nodes, float[] similarities) {
+            this.nodes = nodes;
+            this.similarities = similarities;
+        }
+
+        public int size() { return nodes.length; }
+        public int node(int i) { return nodes[i]; }
+        public float similarity(int i) { return similarities[i]; }
+    }
+
+    /**
+     * Binary heap of (similarity, node) pairs packed into longs so that long order is similarity order.
+     */
+    private static final class Candidates {
+        private final boolean max;
+        private long[] heap = new long[64];
+        private int size;
+
+        Candidates(boolean max) {
+            this.max = max;
+        }
+
+        static long of(float similarity, int node) {
+            int bits = Float.floatToRawIntBits(similarity);
+            bits ^= (bits >> 31) & 0x7fffffff;
+            return ((long) bits << 32) | node;
+        }
+
+        static float similarity(long candidate) {
+            int bits = (int) (candidate >> 32);
+            bits ^= (bits >> 31) & 0x7fffffff;
+            return Float.intBitsToFloat(bits);
+        }
+
+        static int node(long candidate) {
+            return (int) candidate;
+        }
+
+        int size() { return size; }
+        boolean isEmpty() { return size == 0; }
+        long peek() { return heap[0]; }
+
+        void push(long value) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(value, heap[parent])) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+                if (!before(heap[child], last)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        long[] drain() {
+            long[] values = new long[size];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = pop();
+            }
+            return values;
+        }
+
+        private boolean before(long a, long b) {
+            return max ? a > b : a < b;
+        }
+    }
+
+    /**
+     * Per-thread set of visited nodes: an open-addressing table sized by how far searches spread rather
+     * than by the corpus, cleared in O(1) by bumping the epoch.
+     */
+    private static final class Visited {
+        private int[] nodes = new int[1024];
+        private int[] stamps = new int[1024];
+        private int epoch;
+        private int count;
+
+        void reset() {
+            count = 0;
+            if (++epoch == 0) {
+                Arrays.fill(stamps, 0);
+                epoch = 1;
+            }
+        }
+
+        /**
+         * Mark the node, returning false if it was already marked.
+         */
+        boolean mark(int node) {
+            if (count * 2 >= nodes.length) rehash();
+            int mask = nodes.length - 1;
+            for (int slot = (node * 0x9E3779B9) & mask; ; slot = (slot + 1) & mask) {
+                if (stamps[slot] != epoch) {
+                    stamps[slot] = epoch;
+                    nodes[slot] = node;
+                    count++;
+                    return true;
+                }
+                if (nodes[slot] == node) return false;
+            }
+        }
+
+        private void rehash() {
+            int[] oldNodes = nodes;
+            int[] oldStamps = stamps;
+            nodes = new int[oldNodes.length * 2];
+            stamps = new int[oldNodes.length * 2];
+            count = 0;
+            for (int i = 0; i < oldNodes.length; i++) {
+                if (oldStamps[i] == epoch) mark(oldNodes[i]);
+            }
+        }
+    }
+}
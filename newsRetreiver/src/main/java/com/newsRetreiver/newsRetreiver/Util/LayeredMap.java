@@ -0,0 +1,49 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable map for indexes that derive a new version on every update: a large base layer shared by
+ * successive versions and a small layer of recent updates that each version copies. Once the recent
+ * layer outgrows an eighth of the base the two are folded into a new base, so an update costs the
+ * size of the recent layer plus, amortized, a constant per updated key. Null values are not supported.
+ */
+public final class LayeredMap<K, V> {
+
+    private static final int MIN_RECENT = 4096;
+    private static final LayeredMap<?, ?> EMPTY = new LayeredMap<>(Map.of(), Map.of());
+
+    private final Map<K, V> base;
+    private final Map<K, V> recent;
+
+    private LayeredMap(Map<K, V> base, Map<K, V> recent) {
+        this.base = base;
+        this.recent = recent;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> LayeredMap<K, V> empty() {
+        return (LayeredMap<K, V>) EMPTY;
+    }
+
+    public V get(K key) {
+        V value = recent.get(key);
+        return value != null ? value : base.get(key);
+    }
+
+    /**
+     * A new version with {@code updates} put over this one's entries.
+     */
+    public LayeredMap<K, V> withAll(Map<K, V> updates) {
+        if (updates.isEmpty()) return this;
+        Map<K, V> nextRecent = new HashMap<>(recent);
+        nextRecent.putAll(updates);
+        if (nextRecent.size() <= Math.max(MIN_RECENT, base.size() / 8)) {
+            return new LayeredMap<>(base, nextRecent);
+        }
+        Map<K, V> folded = new HashMap<>(base);
+        folded.putAll(nextRecent);
+        return new LayeredMap<>(folded, Map.of());
+    }
+}
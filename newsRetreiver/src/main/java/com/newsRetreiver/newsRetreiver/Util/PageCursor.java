@@ -0,0 +1,68 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position: the sort key and id of the last article on a page. The next page starts strictly
+ * after it, so it costs the same however deep it is. Clients see it only as an opaque token.
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '\u0000';
+
+    private final String key;
+    private final String id;
+
+    public PageCursor(String key, String id) {
+        this.key = key != null ? key : "";
+        this.id = id != null ? id : "";
+    }
+
+    public static PageCursor of(double key, String id) {
+        return new PageCursor(Double.toString(key), id);
+    }
+
+    /**
+     * The sort key as text; empty when the last article had no value for it.
+     */
+    public String key() {
+        return key;
+    }
+
+    public double numericKey() {
+        try {
+            return Double.parseDouble(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token from {@link #encode()}; null or blank means "first page".
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new PageCursor(parts[1], parts[2]);
+    }
+}
@@ -0,0 +1,196 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over tokens: finds every dictionary phrase occurring in a token sequence in
+ * one pass, however many phrases there are. Phrases and input are tokenized by {@link Tokenizer}, so
+ * matches always fall on word boundaries.
+ * <p>
+ * Transitions live in one open-addressing table keyed by (state, token id). A phrase added twice keeps
+ * its first value, so callers add their most trusted phrases first.
+ */
+public final class PhraseMatcher<T> {
+
+    private static final long EMPTY = -1L;
+
+    private final Map<String, Integer> tokenIds;
+    private final long[] keys;
+    private final int[] targets;
+    private final int mask;
+    private final int[] failure;
+    // Nearest state on the failure chain (itself included) that ends a phrase, or -1.
+    private final int[] output;
+    private final int[] depth;
+    private final Object[] values;
+
+    private PhraseMatcher(Builder<T> builder) {
+        this.tokenIds = builder.tokenIds;
+        int states = builder.children.size();
+        int edges = states - 1;
+        int capacity = Integer.highestOneBit(Math.max(4, edges * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.targets = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        this.failure = new int[states];
+        this.output = new int[states];
+        this.depth = builder.depth.stream().mapToInt(Integer::intValue).toArray();
+        this.values = builder.values.toArray();
+
+        for (int state = 0; state < states; state++) {
+            for (Map.Entry<Integer, Integer> edge : builder.children.get(state).entrySet()) {
+                put(state, edge.getKey(), edge.getValue());
+            }
+        }
+
+        // Breadth-first, so every shorter state's failure link is known before it is needed.
+        output[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : builder.children.get(0).values()) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = values[state] != null ? state : output[failure[state]];
+            for (Map.Entry<Integer, Integer> edge : builder.children.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                while (fallback != 0 && next(fallback, edge.getKey()) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = next(fallback, edge.getKey());
+                failure[child] = target >= 0 ? target : 0;
+                queue.add(child);
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Every phrase occurrence in {@code tokens}, overlapping ones included, ordered by end position.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Match<T>> findAll(List<String> tokens) {
+        List<Match<T>> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            Integer token = tokenIds.get(tokens.get(i));
+            if (token == null) {
+                state = 0;
+                continue;
+            }
+            int target;
+            while ((target = next(state, token)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(target, 0);
+            for (int hit = output[state]; hit > 0; hit = output[failure[hit]]) {
+                matches.add(new Match<>(i + 1 - depth[hit], i + 1, (T) values[hit]));
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        int phrases = 0;
+        for (Object value : values) {
+            if (value != null) phrases++;
+        }
+        return phrases;
+    }
+
+    private int next(int state, int token) {
+        long key = ((long) state << 32) | token;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return targets[slot];
+            if (keys[slot] == EMPTY) return -1;
+        }
+    }
+
+    private void put(int state, int token, int target) {
+        long key = ((long) state << 32) | token;
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        targets[slot] = target;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Tokens {@code [start, end)} of the input matched a phrase carrying {@code value}.
+     */
+    public static final class Match<T> {
+        private final int start;
+        private final int end;
+        private final T value;
+
+        Match(int start, int end, T value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public int start() { return start; }
+        public int end() { return end; }
+        public int length() { return end - start; }
+        public T value() { return value; }
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, Integer> tokenIds = new HashMap<>();
+        private final List<Map<Integer, Integer>> children = new ArrayList<>();
+        private final List<Integer> depth = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+            newState(0);
+        }
+
+        /**
+         * Add a phrase unless it tokenizes to nothing or is already present.
+         */
+        public Builder<T> add(String phrase, T value) {
+            List<String> tokens = Tokenizer.tokenize(phrase);
+            if (tokens.isEmpty()) return this;
+            int state = 0;
+            for (String token : tokens) {
+                Integer id = tokenIds.computeIfAbsent(token, t -> tokenIds.size());
+                Integer child = children.get(state).get(id);
+                if (child == null) {
+                    child = newState(depth.get(state) + 1);
+                    children.get(state).put(id, child);
+                }
+                state = child;
+            }
+            if (values.get(state) == null) values.set(state, value);
+            return this;
+        }
+
+        public PhraseMatcher<T> build() {
+            return new PhraseMatcher<>(this);
+        }
+
+        private int newState(int stateDepth) {
+            children.add(new HashMap<>(4));
+            depth.add(stateDepth);
+            values.add(null);
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+/**
+ * 64-bit SimHash fingerprints: texts sharing most of their words get fingerprints a few bits apart,
+ * so near-duplicates can be found by Hamming distance instead of comparing the texts.
+ */
+public final class SimHash {
+
+    private static final long LOW_BIT_OF_EACH_BYTE = 0x0101010101010101L;
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprint of the text's lower-cased letter/digit runs (the words {@link Tokenizer} would
+     * produce), each weighted by its frequency. Zero for text without words.
+     */
+    public static long of(String text) {
+        if (text == null) return 0;
+        // Per-bit vote counts, eight bytes per long: lanes[k] byte j counts ones at bit 8j + k.
+        // Bytes overflow after 255 words, so the lanes are flushed into totals before that.
+        long[] lanes = new long[8];
+        int[] totals = null;
+        int words = 0;
+        int inLanes = 0;
+        long hash = 0;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) hash = 0xcbf29ce484222325L;
+                hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+                inWord = true;
+                continue;
+            }
+            if (!inWord) continue;
+            inWord = false;
+            long h = mix(hash);
+            for (int k = 0; k < 8; k++) {
+                lanes[k] += h >>> k & LOW_BIT_OF_EACH_BYTE;
+            }
+            words++;
+            if (++inLanes == 255) {
+                totals = flush(lanes, totals);
+                inLanes = 0;
+            }
+        }
+        if (words == 0) return 0;
+        totals = flush(lanes, totals);
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (2 * totals[bit] > words) fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static int[] flush(long[] lanes, int[] totals) {
+        if (totals == null) totals = new int[64];
+        for (int k = 0; k < 8; k++) {
+            for (int j = 0; j < 8; j++) {
+                totals[8 * j + k] += (int) (lanes[k] >>> 8 * j & 0xff);
+            }
+            lanes[k] = 0;
+        }
+        return totals;
+    }
+
+    // Murmur3's 64-bit finalizer over the FNV-1a hash of the word, so every bit depends on every char.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
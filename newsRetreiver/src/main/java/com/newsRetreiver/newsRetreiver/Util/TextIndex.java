@@ -0,0 +1,376 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Positional inverted index over article title and description, scored with BM25.
+ * <p>
+ * Instances are immutable. {@link #withAdded(List)} returns a new index that shares almost all
+ * of the previous one: each postings list is a table of blocks of up to {@link #BLOCK_DOCS}
+ * documents, and a term the new documents contain gets a copy of its last block and of its block
+ * table only. The vocabulary is a {@link LayeredMap}, so only its small recent layer is copied.
+ * What still grows with the corpus is the per-document length array, copied on every append, and
+ * the block tables of very common terms, about one reference per {@code BLOCK_DOCS} documents each.
+ */
+public final class TextIndex {
+
+    public static final int TITLE = 0;
+    public static final int DESCRIPTION = 1;
+
+    // Same relative weighting the substring matcher used: a title hit is worth 0.5, a description hit 0.3.
+    private static final double[] FIELD_WEIGHTS = {0.5, 0.3};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int BLOCK_DOCS = 256;
+
+    private final Field[] fields;
+    private final int docCount;
+
+    private TextIndex(Field[] fields, int docCount) {
+        this.fields = fields;
+        this.docCount = docCount;
+    }
+
+    public static TextIndex empty() {
+        return new TextIndex(new Field[]{Field.EMPTY, Field.EMPTY}, 0);
+    }
+
+    public int docCount() {
+        return docCount;
+    }
+
+    /**
+     * Index the articles as documents {@code docCount() .. docCount() + articles.size() - 1}.
+     */
+    public TextIndex withAdded(List<NewsArticle> articles) {
+        if (articles.isEmpty()) return this;
+        String[] titles = new String[articles.size()];
+        String[] descriptions = new String[articles.size()];
+        for (int i = 0; i < articles.size(); i++) {
+            titles[i] = articles.get(i).getTitle();
+            descriptions[i] = articles.get(i).getDescription();
+        }
+        Field[] next = {
+                fields[TITLE].withAdded(docCount, titles),
+                fields[DESCRIPTION].withAdded(docCount, descriptions)
+        };
+        return new TextIndex(next, docCount + articles.size());
+    }
+
+    /**
+     * Score every document containing at least one entity. Multi-word entities must match as a phrase.
+     * Each field's BM25 score is squashed into (0, 1) and scaled by the field weight, so a document's
+     * score stays on the same scale as the article relevance score it is later combined with.
+     */
+    public Hits search(List<String> entities) {
+        Hits hits = new Hits();
+        for (String entity : entities) {
+            List<String> terms = Tokenizer.tokenize(entity);
+            if (terms.isEmpty()) continue;
+            for (int f = 0; f < fields.length; f++) {
+                matchPhrase(fields[f], terms, FIELD_WEIGHTS[f], hits);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Upper bound on the documents {@link #search} would return for one entity: for each field, the
+     * document count of the entity's rarest term, summed over fields. Costs one lookup per term.
+     */
+    public int estimateMatches(String entity) {
+        List<String> terms = Tokenizer.tokenize(entity);
+        if (terms.isEmpty()) return 0;
+        int estimate = 0;
+        for (Field field : fields) {
+            int rarest = Integer.MAX_VALUE;
+            for (String term : terms) {
+                Postings postings = field.terms.get(term);
+                rarest = Math.min(rarest, postings != null ? postings.size() : 0);
+            }
+            estimate += rarest;
+        }
+        return Math.min(estimate, docCount);
+    }
+
+    private void matchPhrase(Field field, List<String> terms, double weight, Hits hits) {
+        int m = terms.size();
+        Postings[] lists = new Postings[m];
+        int driver = 0;
+        double idf = 0;
+        for (int j = 0; j < m; j++) {
+            lists[j] = field.terms.get(terms.get(j));
+            if (lists[j] == null) return;
+            if (lists[j].size() < lists[driver].size()) driver = j;
+            idf += idf(lists[j].size());
+        }
+        double avgLength = docCount == 0 ? 1 : Math.max(1.0, (double) field.totalLength / docCount);
+
+        Block[] blocks = new Block[m];
+        int[] cursor = new int[m];
+        for (Block drive : lists[driver].blocks) {
+            for (int i = 0; i < drive.size(); i++) {
+                int doc = drive.docs[i];
+                boolean all = true;
+                for (int j = 0; j < m && all; j++) {
+                    blocks[j] = j == driver ? drive : lists[j].blockOf(doc);
+                    cursor[j] = j == driver ? i : blocks[j] == null ? -1 : Arrays.binarySearch(blocks[j].docs, doc);
+                    all = cursor[j] >= 0;
+                }
+                if (!all) continue;
+                int frequency = m == 1 ? drive.frequency(i) : phraseFrequency(blocks, cursor);
+                if (frequency == 0) continue;
+
+                double norm = K1 * (1 - B + B * field.lengths[doc] / avgLength);
+                double bm25 = idf * frequency * (K1 + 1) / (frequency + norm);
+                hits.add(doc, weight * bm25 / (bm25 + 1));
+            }
+        }
+    }
+
+    private static int phraseFrequency(Block[] blocks, int[] cursor) {
+        Block first = blocks[0];
+        int frequency = 0;
+        for (int p = first.positionStart[cursor[0]]; p < first.positionStart[cursor[0] + 1]; p++) {
+            int position = first.positions[p];
+            boolean match = true;
+            for (int j = 1; j < blocks.length && match; j++) {
+                Block next = blocks[j];
+                int from = next.positionStart[cursor[j]];
+                int to = next.positionStart[cursor[j] + 1];
+                match = Arrays.binarySearch(next.positions, from, to, position + j) >= 0;
+            }
+            if (match) frequency++;
+        }
+        return frequency;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static final class Field {
+        static final Field EMPTY = new Field(LayeredMap.empty(), new int[0], 0);
+
+        final LayeredMap<String, Postings> terms;
+        final int[] lengths;
+        final long totalLength;
+
+        Field(LayeredMap<String, Postings> terms, int[] lengths, long totalLength) {
+            this.terms = terms;
+            this.lengths = lengths;
+            this.totalLength = totalLength;
+        }
+
+        Field withAdded(int firstDoc, String[] texts) {
+            Map<String, PostingsBuilder> added = new HashMap<>();
+            int[] nextLengths = Arrays.copyOf(lengths, firstDoc + texts.length);
+            long nextTotal = totalLength;
+            for (int i = 0; i < texts.length; i++) {
+                List<String> tokens = Tokenizer.tokenize(texts[i]);
+                nextLengths[firstDoc + i] = tokens.size();
+                nextTotal += tokens.size();
+                for (int position = 0; position < tokens.size(); position++) {
+                    added.computeIfAbsent(tokens.get(position), t -> new PostingsBuilder())
+                            .add(firstDoc + i, position);
+                }
+            }
+            Map<String, Postings> updated = new HashMap<>(added.size() * 2);
+            added.forEach((term, builder) -> updated.put(term, builder.appendTo(terms.get(term))));
+            return new Field(terms.withAll(updated), nextLengths, nextTotal);
+        }
+    }
+
+    /**
+     * One term's documents in ascending order, as blocks of up to {@link #BLOCK_DOCS} documents.
+     * Blocks are immutable and shared between successive indexes.
+     */
+    private static final class Postings {
+        final Block[] blocks;
+        final int size;
+
+        Postings(Block[] blocks, int size) {
+            this.blocks = blocks;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * The block that would hold {@code doc}, or null when {@code doc} precedes every block.
+         */
+        Block blockOf(int doc) {
+            int low = 0;
+            int high = blocks.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (blocks[mid].docs[0] <= doc) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return blocks[low].docs[0] <= doc ? blocks[low] : null;
+        }
+    }
+
+    /**
+     * Doc ids ascending, with each doc's token positions stored contiguously.
+     */
+    private static final class Block {
+        final int[] docs;
+        final int[] positionStart;
+        final int[] positions;
+
+        Block(int[] docs, int[] positionStart, int[] positions) {
+            this.docs = docs;
+            this.positionStart = positionStart;
+            this.positions = positions;
+        }
+
+        int size() {
+            return docs.length;
+        }
+
+        int frequency(int index) {
+            return positionStart[index + 1] - positionStart[index];
+        }
+    }
+
+    private static final class PostingsBuilder {
+        int[] docs = new int[4];
+        int[] positionStart = new int[5];
+        int[] positions = new int[4];
+        int docSize;
+        int positionSize;
+
+        void add(int doc, int position) {
+            if (docSize == 0 || docs[docSize - 1] != doc) {
+                if (docSize == docs.length) {
+                    docs = Arrays.copyOf(docs, docSize * 2);
+                    positionStart = Arrays.copyOf(positionStart, docSize * 2 + 1);
+                }
+                docs[docSize++] = doc;
+                positionStart[docSize - 1] = positionSize;
+            }
+            if (positionSize == positions.length) {
+                positions = Arrays.copyOf(positions, positionSize * 2);
+            }
+            positions[positionSize++] = position;
+            positionStart[docSize] = positionSize;
+        }
+
+        /**
+         * The existing postings followed by these documents: the existing last block is topped up to
+         * {@link #BLOCK_DOCS} and the rest go into new blocks. Every other existing block is shared.
+         */
+        Postings appendTo(Postings existing) {
+            Block[] previous = existing != null ? existing.blocks : new Block[0];
+            Block last = previous.length > 0 ? previous[previous.length - 1] : null;
+            int topUp = last != null ? Math.min(docSize, BLOCK_DOCS - last.size()) : 0;
+            int fresh = (docSize - topUp + BLOCK_DOCS - 1) / BLOCK_DOCS;
+            int kept = topUp > 0 ? previous.length - 1 : previous.length;
+            Block[] blocks = Arrays.copyOf(previous, kept + (topUp > 0 ? 1 : 0) + fresh);
+            int next = kept;
+            if (topUp > 0) {
+                blocks[next++] = concat(last, block(0, topUp));
+            }
+            for (int from = topUp; from < docSize; from += BLOCK_DOCS) {
+                blocks[next++] = block(from, Math.min(docSize, from + BLOCK_DOCS));
+            }
+            return new Postings(blocks, (existing != null ? existing.size : 0) + docSize);
+        }
+
+        private Block block(int from, int to) {
+            int[] starts = new int[to - from + 1];
+            for (int i = from; i <= to; i++) {
+                starts[i - from] = positionStart[i] - positionStart[from];
+            }
+            return new Block(Arrays.copyOfRange(docs, from, to), starts,
+                    Arrays.copyOfRange(positions, positionStart[from], positionStart[to]));
+        }
+
+        private static Block concat(Block head, Block tail) {
+            int docs = head.size();
+            int positions = head.positions.length;
+            int[] mergedDocs = Arrays.copyOf(head.docs, docs + tail.size());
+            System.arraycopy(tail.docs, 0, mergedDocs, docs, tail.size());
+            int[] mergedStart = Arrays.copyOf(head.positionStart, docs + tail.size() + 1);
+            for (int i = 0; i <= tail.size(); i++) {
+                mergedStart[docs + i] = positions + tail.positionStart[i];
+            }
+            int[] mergedPositions = Arrays.copyOf(head.positions, positions + tail.positions.length);
+            System.arraycopy(tail.positions, 0, mergedPositions, positions, tail.positions.length);
+            return new Block(mergedDocs, mergedStart, mergedPositions);
+        }
+    }
+
+    /**
+     * Accumulated per-document scores for one query, sized by the number of matched documents.
+     */
+    public static final class Hits {
+        private int[] docs = new int[16];
+        private double[] scores = new double[16];
+        private int[] table = new int[32];
+        private int size;
+
+        Hits() {
+            Arrays.fill(table, -1);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int doc(int index) {
+            return docs[index];
+        }
+
+        public double score(int index) {
+            return scores[index];
+        }
+
+        void add(int doc, double score) {
+            int mask = table.length - 1;
+            int slot = mix(doc) & mask;
+            while (table[slot] >= 0) {
+                if (docs[table[slot]] == doc) {
+                    scores[table[slot]] += score;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            table[slot] = size++;
+            if (size * 2 > table.length) rehash();
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = mix(docs[i]) & mask;
+                while (table[slot] >= 0) slot = (slot + 1) & mask;
+                table[slot] = i;
+            }
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import java.util.Arrays;
+
+/**
+ * Bounded top-k selection over int ordinals without boxing.
+ */
+public final class TopK {
+
+    @FunctionalInterface
+    public interface OrdinalComparator {
+        int compare(int a, int b);
+    }
+
+    private TopK() {
+    }
+
+    /**
+     * Returns the best {@code k} of the first {@code count} ordinals, best first,
+     * where "best" is whatever {@code comparator} orders first.
+     */
+    public static int[] select(int[] ordinals, int count, int k, OrdinalComparator comparator) {
+        if (k <= 0 || count <= 0) return new int[0];
+        int size = Math.min(k, count);
+        // Heap with the worst retained element at the root.
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = ordinals[i];
+            if (heapSize < size) {
+                heap[heapSize] = ordinal;
+                siftUp(heap, heapSize++, comparator);
+            } else if (comparator.compare(ordinal, heap[0]) < 0) {
+                heap[0] = ordinal;
+                siftDown(heap, heapSize, comparator);
+            }
+        }
+        int[] result = Arrays.copyOf(heap, heapSize);
+        sort(result, comparator);
+        return result;
+    }
+
+    public static void sort(int[] ordinals, OrdinalComparator comparator) {
+        Integer[] boxed = new Integer[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            boxed[i] = ordinals[i];
+        }
+        Arrays.sort(boxed, comparator::compare);
+        for (int i = 0; i < boxed.length; i++) {
+            ordinals[i] = boxed[i];
+        }
+    }
+
+    private static void siftUp(int[] heap, int index, OrdinalComparator comparator) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(value, heap[parent]) <= 0) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, OrdinalComparator comparator) {
+        int index = 0;
+        int value = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(heap[child], value) <= 0) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,163 @@
+package com.newsRetreiver.newsRetreiver.Controller;
+
+import com.newsRetreiver.newsRetreiver.Service.DatasetVersion;
+import com.newsRetreiver.newsRetreiver.Service.NewsService;
+import com.newsRetreiver.newsRetreiver.Service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ResponseCacheFilterTest {
+
+    private final StubController controller = new StubController();
+    private final DatasetVersion datasetVersion = new DatasetVersion();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+        ResponseCacheFilter filter = new ResponseCacheFilter();
+        ReflectionTestUtils.setField(filter, "datasetVersion", datasetVersion);
+        ReflectionTestUtils.setField(filter, "metrics", metrics);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxBytes", 1L << 20);
+        ReflectionTestUtils.setField(filter, "ttlSeconds", 300L);
+        filter.init();
+        mvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+    }
+
+    @Test
+    void equivalentNumbersShareAnEntry() throws Exception {
+        String first = body("/api/v1/news/score?threshold=0.70");
+
+        assertThat(body("/api/v1/news/score?threshold=0.7")).isEqualTo(first);
+        assertThat(body("/api/v1/news/score?threshold=0.7&limit=5")).isNotEqualTo(first);
+        assertThat(controller.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void parameterOrderAndSourceCaseDoNotMatter() throws Exception {
+        String first = body("/api/v1/news/source?name=Reuters&limit=5");
+
+        assertThat(body("/api/v1/news/source?limit=5&name=REUTERS")).isEqualTo(first);
+        assertThat(body("/api/v1/news/source?limit=5&name= reuters ")).isEqualTo(first);
+        assertThat(controller.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void categoryNamesStayCaseSensitive() throws Exception {
+        body("/api/v1/news/category?name=World");
+        body("/api/v1/news/category?name=world");
+
+        assertThat(controller.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModified() throws Exception {
+        MvcResult first = mvc.perform(get("/api/v1/news/score?threshold=0.5")).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"").endsWith("\"");
+
+        mvc.perform(get("/api/v1/news/score?threshold=0.5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        // Strong form of the same tag, and one tag in a list, match weakly too.
+        mvc.perform(get("/api/v1/news/score?threshold=0.5").header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/v1/news/score?threshold=0.5").header(HttpHeaders.IF_NONE_MATCH, "W/\"other\", " + etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/v1/news/score?threshold=0.5").header(HttpHeaders.IF_NONE_MATCH, "W/\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void newDatasetVersionMissesTheCache() throws Exception {
+        String first = body("/api/v1/news/score?threshold=0.5");
+        datasetVersion.bump();
+
+        assertThat(body("/api/v1/news/score?threshold=0.5")).isNotEqualTo(first);
+    }
+
+    @Test
+    void degradedPagesAreServedButNotCached() throws Exception {
+        String first = body("/api/v1/news/category?name=degraded");
+
+        assertThat(body("/api/v1/news/category?name=degraded")).isNotEqualTo(first);
+        assertThat(controller.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void asyncResponsesAreCaptured() throws Exception {
+        MvcResult started = mvc.perform(get("/api/v1/news/nearby?lat=1&lon=2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body("/api/v1/news/nearby?lon=2.0&lat=1.00")).isEqualTo(body);
+        assertThat(controller.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void otherPathsAreNotCached() throws Exception {
+        body("/api/v1/news/search?query=storm");
+        body("/api/v1/news/search?query=storm");
+
+        assertThat(controller.calls.get()).isEqualTo(2);
+    }
+
+    private String body(String uri) throws Exception {
+        return mvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Answers every list endpoint with a body that changes on each call, so a repeated body means a cache hit.
+     */
+    @RestController
+    @RequestMapping("/api/v1/news")
+    static class StubController {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @GetMapping({"/score", "/source", "/search"})
+        String page() {
+            return "page " + calls.incrementAndGet();
+        }
+
+        @GetMapping("/category")
+        String category(@RequestParam String name, HttpServletRequest request) {
+            if (name.equals("degraded")) request.setAttribute(NewsService.DEGRADED_RESPONSE, Boolean.TRUE);
+            return "page " + calls.incrementAndGet();
+        }
+
+        @GetMapping("/nearby")
+        CompletableFuture<String> nearby() {
+            return CompletableFuture.completedFuture("page " + calls.incrementAndGet());
+        }
+    }
+}
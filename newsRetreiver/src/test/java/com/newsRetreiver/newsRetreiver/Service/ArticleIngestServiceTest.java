@@ -0,0 +1,86 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsRetreiver.newsRetreiver.Model.IngestReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ArticleIngestServiceTest {
+
+    private static final String BODY = """
+            {"id":"a1","title":"Storm reaches the coast","source_name":"Wire"}
+            {"id":"a2","title":"Markets close higher","source_name":"Wire"}
+            """;
+
+    private final ArticleBulkWriter bulkWriter = mock(ArticleBulkWriter.class);
+    private final ArticleCatalog catalog = mock(ArticleCatalog.class);
+    private final ArticleIngestService service = new ArticleIngestService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "bulkWriter", bulkWriter);
+        ReflectionTestUtils.setField(service, "catalog", catalog);
+        ReflectionTestUtils.setField(service, "datasetVersion", mock(DatasetVersion.class));
+        ReflectionTestUtils.setField(service, "semanticIndex", mock(SemanticIndex.class));
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 1000);
+        ReflectionTestUtils.setField(service, "queueCapacity", 4);
+        ReflectionTestUtils.setField(service, "offerTimeoutMs", 1000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void storedArticlesAreAppliedToTheCatalog() throws IOException {
+        IngestReport report = ingest();
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        assertThat(report.getBatches().get(0).getErrors()).isEmpty();
+        verify(catalog).upsert(anyList());
+        verify(catalog, never()).reload();
+    }
+
+    @Test
+    void failedCatalogUpdateFallsBackToReload() throws IOException {
+        doThrow(new IllegalStateException("boom")).when(catalog).upsert(anyList());
+
+        IngestReport report = ingest();
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        assertThat(report.getBatches().get(0).getErrors()).isEmpty();
+        verify(catalog).reload();
+    }
+
+    @Test
+    void batchesSayWhenStoredArticlesAreNotQueryable() throws IOException {
+        doThrow(new IllegalStateException("boom")).when(catalog).upsert(anyList());
+        doThrow(new IllegalStateException("mongo down")).when(catalog).reload();
+
+        IngestReport report = ingest();
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        assertThat(report.getBatches().get(0).getErrors())
+                .singleElement().asString().contains("not yet queryable");
+    }
+
+    private IngestReport ingest() throws IOException {
+        return service.ingest(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    private static final List<String> SOURCES = List.of("Reuters", "BBC", "AP", "Al Jazeera", "NDTV");
+    private static final List<String> CATEGORIES = List.of("world", "business", "sports", "technology");
+
+    @Test
+    void upsertedSnapshotListsWhatAFullBuildLists() {
+        Random random = new Random(3);
+        Map<String, NewsArticle> current = new LinkedHashMap<>();
+        CatalogSnapshot snapshot = CatalogSnapshot.empty();
+        long version = 0;
+        for (int round = 0; round < 20; round++) {
+            List<NewsArticle> batch = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                // Half new articles, half replacements of existing ones, some of them twice in one batch.
+                String id = current.isEmpty() || random.nextBoolean()
+                        ? "a" + (current.size() + batch.size())
+                        : "a" + random.nextInt(current.size());
+                batch.add(article(id, random));
+            }
+            batch.forEach(article -> current.put(article.getId(), article));
+            snapshot = snapshot.withUpserted(batch, ++version);
+
+            CatalogSnapshot rebuilt = CatalogSnapshot.build(new ArrayList<>(current.values()), version);
+            assertSameListings(snapshot, rebuilt);
+        }
+        assertThat(snapshot.size() - snapshot.retiredCount()).isEqualTo(current.size());
+    }
+
+    @Test
+    void replacingAnArticleRetiresItsOldOrdinal() {
+        NewsArticle original = article("x", new Random(1));
+        original.setCategory(List.of("world"));
+        original.setSourceName("BBC");
+        CatalogSnapshot first = CatalogSnapshot.build(List.of(original), 1);
+
+        NewsArticle replacement = new NewsArticle(original);
+        replacement.setCategory(List.of("sports"));
+        replacement.setSourceName("AP");
+        replacement.setLatitude(null);
+        CatalogSnapshot second = first.withUpserted(List.of(replacement), 2);
+
+        assertThat(second.isLive(0)).isFalse();
+        assertThat(second.ordinalOf("x")).isEqualTo(1);
+        assertThat(second.retiredCount()).isEqualTo(1);
+        assertThat(second.byCategory("world")).isEmpty();
+        assertThat(second.byCategory("sports")).containsExactly(1);
+        assertThat(second.bySource("bbc")).isEmpty();
+        assertThat(second.bySource("AP")).containsExactly(1);
+        assertThat(second.byScoreDescending()).containsExactly(1);
+        assertThat(second.byDateDescending()).containsExactly(1);
+        assertThat(second.geoIndex().size()).isZero();
+        assertThat(second.liveArticles()).containsExactly(replacement);
+        // The earlier snapshot is untouched.
+        assertThat(first.isLive(0)).isTrue();
+        assertThat(first.byCategory("world")).containsExactly(0);
+        assertThat(first.geoIndex().size()).isEqualTo(1);
+    }
+
+    private static void assertSameListings(CatalogSnapshot upserted, CatalogSnapshot rebuilt) {
+        assertThat(ids(upserted, upserted.byScoreDescending())).isEqualTo(ids(rebuilt, rebuilt.byScoreDescending()));
+        assertThat(ids(upserted, upserted.byDateDescending())).isEqualTo(ids(rebuilt, rebuilt.byDateDescending()));
+        for (String category : CATEGORIES) {
+            assertThat(ids(upserted, upserted.byCategory(category))).isEqualTo(ids(rebuilt, rebuilt.byCategory(category)));
+        }
+        for (String source : SOURCES) {
+            assertThat(ids(upserted, upserted.bySource(source))).isEqualTo(ids(rebuilt, rebuilt.bySource(source)));
+        }
+        assertThat(upserted.geoIndex().size()).isEqualTo(rebuilt.geoIndex().size());
+        assertThat(upserted.geoIndex().within(20, 70, 20_000).size()).isEqualTo(rebuilt.geoIndex().within(20, 70, 20_000).size());
+    }
+
+    private static List<String> ids(CatalogSnapshot snapshot, int[] ordinals) {
+        List<String> ids = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            assertThat(snapshot.isLive(ordinal)).isTrue();
+            ids.add(snapshot.article(ordinal).getId());
+        }
+        return ids;
+    }
+
+    private static NewsArticle article(String id, Random random) {
+        NewsArticle article = new NewsArticle();
+        article.setId(id);
+        article.setTitle("Title " + id);
+        article.setDescription("Description of " + id + " " + random.nextInt(1000));
+        article.setSourceName(SOURCES.get(random.nextInt(SOURCES.size())));
+        article.setCategory(random.nextInt(4) == 0
+                ? List.of(CATEGORIES.get(random.nextInt(2)), CATEGORIES.get(2 + random.nextInt(2)))
+                : List.of(CATEGORIES.get(random.nextInt(CATEGORIES.size()))));
+        // Coarse values so scores and dates tie often; some articles have neither.
+        article.setRelevanceScore(random.nextInt(5) == 0 ? null : random.nextInt(10) / 10.0);
+        article.setPublicationDate(random.nextInt(5) == 0 ? null
+                : LocalDateTime.of(2025, 3, 1 + random.nextInt(5), random.nextInt(3), 0).toString());
+        if (random.nextInt(3) > 0) {
+            article.setLatitude(random.nextDouble() * 60);
+            article.setLongitude(random.nextDouble() * 120);
+        }
+        return article;
+    }
+}
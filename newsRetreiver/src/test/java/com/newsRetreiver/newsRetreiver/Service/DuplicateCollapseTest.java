@@ -0,0 +1,167 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Collapsed listings paged to the end show every story once, under the same copy on every page.
+ */
+class DuplicateCollapseTest {
+
+    private static final int STORIES = 7;
+
+    @Test
+    void representativeIsTheFirstLiveMatchingCopy() {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(corpus(), 1);
+        DuplicateCollapse collapse = DuplicateCollapse.of(snapshot, ordinal -> true);
+
+        // Story 0 has copies at ordinals 0, 7 and 14.
+        assertThat(collapse.keeps(14)).isFalse();
+        assertThat(collapse.keeps(0)).isTrue();
+        assertThat(collapse.keeps(7)).isFalse();
+        assertThat(collapse.duplicates(0)).isEqualTo(2);
+
+        DuplicateCollapse withoutFirst = DuplicateCollapse.of(snapshot, ordinal -> ordinal != 0);
+        assertThat(withoutFirst.keeps(7)).isTrue();
+        assertThat(withoutFirst.duplicates(7)).isEqualTo(1);
+    }
+
+    @Test
+    void retiredCopiesHandTheStoryToTheNextOne() {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(corpus(), 1);
+        NewsArticle replacement = new NewsArticle(snapshot.article(0));
+        replacement.setDescription("An unrelated correction notice with entirely different words in it.");
+        CatalogSnapshot next = snapshot.withUpserted(List.of(replacement), 2);
+        DuplicateCollapse collapse = DuplicateCollapse.of(next, ordinal -> true);
+
+        assertThat(collapse.keeps(7)).isTrue();
+        assertThat(collapse.duplicates(7)).isEqualTo(1);
+        assertThat(collapse.keeps(next.ordinalOf(replacement.getId()))).isTrue();
+    }
+
+    @Test
+    void collapsedCategoryPagesShowEachStoryOnce() {
+        NewsService service = service();
+
+        for (int limit = 1; limit <= STORIES + 1; limit++) {
+            int pageSize = limit;
+            List<NewsArticle> paged = pageThrough(cursor -> service.findByCategory("world", pageSize, cursor, ArticleFields.ALL));
+            assertThat(ids(paged)).as("limit %d", limit).containsExactlyElementsOf(ids(service.findByCategory(
+                    "world", STORIES + 1, null, ArticleFields.ALL).getArticles()));
+            assertThat(stories(paged)).as("limit %d", limit).doesNotHaveDuplicates().hasSize(STORIES);
+        }
+    }
+
+    @Test
+    void collapsedNearbyPagesShowEachStoryOnce() {
+        NewsService service = service();
+
+        for (int limit = 1; limit <= STORIES + 1; limit++) {
+            int pageSize = limit;
+            List<NewsArticle> unbounded = pageThrough(cursor -> service.findNearby(0, 0, null, pageSize, cursor, ArticleFields.ALL));
+            assertThat(stories(unbounded)).as("unbounded, limit %d", limit).doesNotHaveDuplicates().hasSize(STORIES);
+            assertThat(distances(unbounded)).as("unbounded, limit %d", limit).isSorted();
+
+            List<NewsArticle> bounded = pageThrough(cursor -> service.findNearby(0, 0, 5000.0, pageSize, cursor, ArticleFields.ALL));
+            assertThat(ids(bounded)).as("radius, limit %d", limit).containsExactlyElementsOf(ids(unbounded));
+        }
+    }
+
+    @Test
+    void storiesOutsideTheRadiusAreShownByACopyInside() {
+        NewsService service = service();
+
+        // Every story's first copy lies beyond 1000 km; its later copies are nearer.
+        List<NewsArticle> paged = pageThrough(cursor -> service.findNearby(0, 0, 1000.0, 2, cursor, ArticleFields.ALL));
+
+        assertThat(stories(paged)).doesNotHaveDuplicates().hasSize(STORIES);
+        assertThat(paged).allSatisfy(article -> assertThat(article.getId()).doesNotEndWith("-0"));
+    }
+
+    /**
+     * Three copies of each story, at ordinals story, story + STORIES and story + 2 * STORIES. Later copies
+     * are newer and nearer to (0, 0), so neither date nor distance order starts a cluster with its first copy.
+     */
+    private static List<NewsArticle> corpus() {
+        List<NewsArticle> corpus = new ArrayList<>();
+        for (int copy = 0; copy < 3; copy++) {
+            for (int story = 0; story < STORIES; story++) {
+                NewsArticle article = new NewsArticle();
+                article.setId("story" + story + "-" + copy);
+                article.setTitle(text(story, 6));
+                article.setDescription(text(story, 40) + (copy > 0 ? " update" + copy : ""));
+                article.setCategory(List.of("world"));
+                article.setSourceName("Source" + copy);
+                article.setPublicationDate(String.format("2025-03-%02dT%02d:00:00", 10 + copy, story));
+                article.setLatitude(copy == 0 ? 20.0 + story : 3.0 - copy - story * 0.1);
+                article.setLongitude(0.0);
+                corpus.add(article);
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Words that belong to one story only, so different stories are never near-duplicates.
+     */
+    private static String text(int story, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int k = 0; k < words; k++) {
+            text.append(" s").append(story).append("w").append(k);
+        }
+        return text.toString().trim();
+    }
+
+    private static NewsService service() {
+        ArticleCatalog catalog = new ArticleCatalog();
+        ReflectionTestUtils.setField(catalog, "repository", mock(NewsArticleRepository.class));
+        ReflectionTestUtils.setField(catalog, "enabled", true);
+        catalog.replace(corpus());
+        PipelineMetrics metrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+        NewsService service = new NewsService();
+        ReflectionTestUtils.setField(service, "catalog", catalog);
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        ReflectionTestUtils.setField(service, "collapseDuplicates", true);
+        return service;
+    }
+
+    private static List<NewsArticle> pageThrough(PageFetch fetch) {
+        List<NewsArticle> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ArticlePage page = fetch.page(cursor);
+            all.addAll(page.getArticles());
+            cursor = page.getNextCursor();
+        } while (cursor != null && all.size() < 100);
+        return all;
+    }
+
+    private static List<String> ids(List<NewsArticle> articles) {
+        return articles.stream().map(NewsArticle::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> stories(List<NewsArticle> articles) {
+        return articles.stream().map(article -> article.getId().substring(0, article.getId().indexOf('-'))).collect(Collectors.toList());
+    }
+
+    private static List<Double> distances(List<NewsArticle> articles) {
+        return articles.stream().map(article -> Math.abs(article.getLatitude())).collect(Collectors.toList());
+    }
+
+    private interface PageFetch {
+        ArticlePage page(String cursor);
+    }
+}
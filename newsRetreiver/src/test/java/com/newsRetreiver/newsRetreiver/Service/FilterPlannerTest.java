@@ -0,0 +1,321 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFilter;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Util.Haversine;
+import com.newsRetreiver.newsRetreiver.Util.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every plan is checked against a brute-force scan of the live articles, whichever condition drives
+ * it and whether the others are materialized as bitsets or tested per candidate.
+ */
+class FilterPlannerTest {
+
+    private static final String[] CATEGORIES = {"world", "sports", "business", "Health___Fitness"};
+    // Herald is rare, so it drives; the others are common enough to be tested per candidate.
+    private static final String[] SOURCES = {"Wire", "Daily", "wire", "Herald"};
+    private static final String[] WORDS = {"market", "election", "rain", "court", "team", "river", "city", "budget"};
+    private static final double DELHI_LAT = 28.61;
+    private static final double DELHI_LON = 77.21;
+    private static final long OPEN_FROM = Long.MIN_VALUE + 1;
+    private static final long OPEN_TO = Long.MAX_VALUE;
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.build(corpus(new Random(42), 0, 2000), 1);
+
+    @Test
+    void rareSourceDrivesAndCommonCategoryIsTestedPerCandidate() {
+        ArticleFilter filter = new ArticleFilter();
+        filter.setSource("HERALD");
+        filter.setCategory("world");
+
+        FilterPlanner.Plan plan = check(snapshot, filter, OPEN_FROM, OPEN_TO);
+
+        assertThat(plan.describe()).startsWith("source(").contains("& test category(");
+        assertThat(plan.count()).isPositive();
+    }
+
+    @Test
+    void radiusAfterASmallDriverIsMaterialized() {
+        ArticleFilter filter = new ArticleFilter();
+        filter.setCategory("world");
+        filter.setLat(DELHI_LAT);
+        filter.setLon(DELHI_LON);
+        filter.setRadius(150.0);
+
+        FilterPlanner.Plan plan = check(snapshot, filter, OPEN_FROM, OPEN_TO);
+
+        assertThat(plan.describe()).startsWith("category(").contains("& bitset radius(");
+        assertThat(plan.count()).isPositive();
+    }
+
+    @Test
+    void radiusAfterATinyDriverIsTestedPerCandidate() {
+        ArticleFilter filter = new ArticleFilter();
+        filter.setSource("Herald");
+        filter.setMinScore(0.9);
+        filter.setLat(DELHI_LAT);
+        filter.setLon(DELHI_LON);
+        filter.setRadius(300.0);
+
+        FilterPlanner.Plan plan = check(snapshot, filter, OPEN_FROM, OPEN_TO);
+
+        assertThat(plan.describe()).contains("& test radius(");
+    }
+
+    @Test
+    void textIsAlwaysMaterializedAndMatchesAsAPhrase() {
+        ArticleFilter filter = new ArticleFilter();
+        filter.setSource("herald");
+        filter.setText("monsoon flooding");
+
+        FilterPlanner.Plan plan = check(snapshot, filter, OPEN_FROM, OPEN_TO);
+
+        assertThat(plan.describe()).contains("& bitset text(");
+        assertThat(plan.count()).isPositive();
+    }
+
+    @Test
+    void everyConditionTogether() {
+        ArticleFilter filter = new ArticleFilter();
+        filter.setCategory("world");
+        filter.setSource("Wire");
+        filter.setMinScore(0.2);
+        filter.setMaxScore(0.9);
+        filter.setFrom("2025-03-05");
+        filter.setTo("2025-03-25");
+        filter.setLat(DELHI_LAT);
+        filter.setLon(DELHI_LON);
+        filter.setRadius(400.0);
+        filter.setText("rain");
+
+        check(snapshot, filter, epochSeconds("2025-03-05T00:00:00"), epochSeconds("2025-03-25T23:59:59"));
+    }
+
+    @Test
+    void scoreSliceIsClosedAtBothEndsAndMayBeOpen() {
+        ArticleFilter between = new ArticleFilter();
+        between.setMinScore(0.25);
+        between.setMaxScore(0.5);
+        ArticleFilter atLeast = new ArticleFilter();
+        atLeast.setMinScore(0.75);
+        atLeast.setCategory("sports");
+        ArticleFilter atMost = new ArticleFilter();
+        atMost.setMaxScore(0.1);
+        atMost.setSource("Daily");
+
+        assertThat(check(snapshot, between, OPEN_FROM, OPEN_TO).describe()).startsWith("score(");
+        check(snapshot, atLeast, OPEN_FROM, OPEN_TO);
+        check(snapshot, atMost, OPEN_FROM, OPEN_TO);
+    }
+
+    @Test
+    void dateSliceIsClosedAtBothEndsAndMayBeOpen() {
+        long from = epochSeconds("2025-03-10T00:00:00");
+        long to = epochSeconds("2025-03-12T23:00:00");
+        ArticleFilter between = new ArticleFilter();
+        between.setFrom("2025-03-10");
+        between.setTo("2025-03-12T23:00:00");
+        ArticleFilter since = new ArticleFilter();
+        since.setFrom("2025-03-10");
+        since.setCategory("business");
+        ArticleFilter until = new ArticleFilter();
+        until.setTo("2025-03-12T23:00:00");
+        until.setSource("Herald");
+
+        assertThat(check(snapshot, between, from, to).describe()).startsWith("date(");
+        check(snapshot, since, from, OPEN_TO);
+        check(snapshot, until, OPEN_FROM, to);
+    }
+
+    @Test
+    void conditionsWithNoMatchesYieldAnEmptyPlan() {
+        ArticleFilter unknownCategory = new ArticleFilter();
+        unknownCategory.setCategory("weather");
+        unknownCategory.setSource("Wire");
+        ArticleFilter unknownSource = new ArticleFilter();
+        unknownSource.setSource("Nobody");
+        unknownSource.setText("rain");
+        ArticleFilter invertedScores = new ArticleFilter();
+        invertedScores.setMinScore(0.8);
+        invertedScores.setMaxScore(0.2);
+        ArticleFilter futureDates = new ArticleFilter();
+        futureDates.setFrom("2030-01-01");
+        futureDates.setCategory("world");
+        ArticleFilter emptyIntersection = new ArticleFilter();
+        emptyIntersection.setText("monsoon flooding");
+        emptyIntersection.setLat(-33.87);
+        emptyIntersection.setLon(151.21);
+        emptyIntersection.setRadius(50.0);
+
+        assertThat(check(snapshot, unknownCategory, OPEN_FROM, OPEN_TO).count()).isZero();
+        assertThat(check(snapshot, unknownSource, OPEN_FROM, OPEN_TO).count()).isZero();
+        assertThat(check(snapshot, invertedScores, OPEN_FROM, OPEN_TO).count()).isZero();
+        assertThat(check(snapshot, futureDates, epochSeconds("2030-01-01T00:00:00"), OPEN_TO).count()).isZero();
+        assertThat(check(snapshot, emptyIntersection, OPEN_FROM, OPEN_TO).count()).isZero();
+    }
+
+    @Test
+    void retiredOrdinalsNeverMatchAfterAnUpsert() {
+        Random random = new Random(7);
+        // Re-publish every third article with fresh fields, and add some new ones.
+        List<NewsArticle> batch = new ArrayList<>();
+        List<NewsArticle> replacements = corpus(random, 0, 2000);
+        for (int i = 0; i < replacements.size(); i += 3) {
+            batch.add(replacements.get(i));
+        }
+        batch.addAll(corpus(random, 2000, 300));
+        Collections.shuffle(batch, random);
+        CatalogSnapshot updated = snapshot.withUpserted(batch, 2);
+        assertThat(updated.retiredCount()).isPositive();
+
+        List<ArticleFilter> filters = new ArrayList<>();
+        ArticleFilter sourceAndCategory = new ArticleFilter();
+        sourceAndCategory.setSource("Herald");
+        sourceAndCategory.setCategory("world");
+        filters.add(sourceAndCategory);
+        ArticleFilter categoryAndRadius = new ArticleFilter();
+        categoryAndRadius.setCategory("Health___Fitness");
+        categoryAndRadius.setLat(DELHI_LAT);
+        categoryAndRadius.setLon(DELHI_LON);
+        categoryAndRadius.setRadius(200.0);
+        filters.add(categoryAndRadius);
+        ArticleFilter scoreAndText = new ArticleFilter();
+        scoreAndText.setMinScore(0.5);
+        scoreAndText.setText("monsoon flooding");
+        filters.add(scoreAndText);
+        ArticleFilter textOnly = new ArticleFilter();
+        textOnly.setText("rain");
+        filters.add(textOnly);
+        ArticleFilter radiusOnly = new ArticleFilter();
+        radiusOnly.setLat(DELHI_LAT);
+        radiusOnly.setLon(DELHI_LON);
+        radiusOnly.setRadius(100.0);
+        filters.add(radiusOnly);
+
+        for (ArticleFilter filter : filters) {
+            BitSet matches = check(updated, filter, OPEN_FROM, OPEN_TO).matches();
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                assertThat(updated.isLive(ordinal)).as("ordinal %d", ordinal).isTrue();
+            }
+        }
+        ArticleFilter between = new ArticleFilter();
+        between.setFrom("2025-03-10");
+        between.setTo("2025-03-20");
+        between.setSource("daily");
+        check(updated, between, epochSeconds("2025-03-10T00:00:00"), epochSeconds("2025-03-20T23:59:59"));
+    }
+
+    /**
+     * Runs the planner, compares its matches with a brute-force scan and checks the count agrees.
+     */
+    private static FilterPlanner.Plan check(CatalogSnapshot snapshot, ArticleFilter filter, long publishedFrom, long publishedTo) {
+        FilterPlanner.Plan plan = FilterPlanner.run(snapshot, filter, publishedFrom, publishedTo);
+
+        BitSet expected = new BitSet(snapshot.size());
+        for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+            if (snapshot.isLive(ordinal) && matches(snapshot.article(ordinal), filter, publishedFrom, publishedTo)) {
+                expected.set(ordinal);
+            }
+        }
+        assertThat(plan.matches()).as(plan.describe()).isEqualTo(expected);
+        assertThat(plan.count()).as(plan.describe()).isEqualTo(plan.matches().cardinality());
+        return plan;
+    }
+
+    private static boolean matches(NewsArticle article, ArticleFilter filter, long publishedFrom, long publishedTo) {
+        if (filter.getCategory() != null
+                && (article.getCategory() == null || !article.getCategory().contains(filter.getCategory()))) {
+            return false;
+        }
+        if (filter.getSource() != null
+                && (article.getSourceName() == null || !article.getSourceName().equalsIgnoreCase(filter.getSource()))) {
+            return false;
+        }
+        if (filter.getMinScore() != null || filter.getMaxScore() != null) {
+            Double score = article.getRelevanceScore();
+            if (score == null
+                    || (filter.getMinScore() != null && score < filter.getMinScore())
+                    || (filter.getMaxScore() != null && score > filter.getMaxScore())) {
+                return false;
+            }
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            long published = CatalogSnapshot.parseEpochSeconds(article.getPublicationDate());
+            if (published == CatalogSnapshot.UNKNOWN_DATE || published < publishedFrom || published > publishedTo) {
+                return false;
+            }
+        }
+        if (filter.getRadius() != null) {
+            if (article.getLatitude() == null || article.getLongitude() == null) return false;
+            double distance = Haversine.calculateDistance(filter.getLat(), filter.getLon(),
+                    article.getLatitude(), article.getLongitude());
+            if (distance > filter.getRadius()) return false;
+        }
+        if (filter.getText() != null) {
+            List<String> phrase = Tokenizer.tokenize(filter.getText());
+            return containsPhrase(Tokenizer.tokenize(article.getTitle()), phrase)
+                    || containsPhrase(Tokenizer.tokenize(article.getDescription()), phrase);
+        }
+        return true;
+    }
+
+    private static boolean containsPhrase(List<String> tokens, List<String> phrase) {
+        return Collections.indexOfSubList(tokens, phrase) >= 0;
+    }
+
+    /**
+     * {@code count} articles with ids from {@code first}; each field is sometimes missing, scores
+     * repeat, and "monsoon flooding" appears in both word orders so only a phrase match tells them apart.
+     */
+    private static List<NewsArticle> corpus(Random random, int first, int count) {
+        List<NewsArticle> articles = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            NewsArticle article = new NewsArticle();
+            article.setId("a" + i);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 4; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            int phrase = random.nextInt(10);
+            if (phrase == 0) title.append("monsoon flooding");
+            if (phrase == 1) title.append("flooding after the monsoon");
+            article.setTitle(title.toString().trim());
+            article.setDescription(phrase == 2 ? "Monsoon: flooding in the city" : "Story " + i);
+            if (random.nextInt(10) > 0) {
+                List<String> categories = new ArrayList<>();
+                categories.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                if (random.nextInt(4) == 0) categories.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                article.setCategory(categories);
+            }
+            int source = random.nextInt(20);
+            article.setSourceName(source == 0 ? null : SOURCES[source < 2 ? 3 : source % 3]);
+            if (random.nextInt(10) > 0) {
+                article.setRelevanceScore(random.nextInt(101) / 100.0);
+            }
+            if (random.nextInt(10) > 0) {
+                article.setPublicationDate(String.format("2025-03-%02dT%02d:00:00", 1 + random.nextInt(31), random.nextInt(24)));
+            }
+            if (random.nextInt(10) < 6) {
+                article.setLatitude(DELHI_LAT + random.nextGaussian() * 2);
+                article.setLongitude(DELHI_LON + random.nextGaussian() * 2);
+            }
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    private static long epochSeconds(String dateTime) {
+        return LocalDateTime.parse(dateTime).toEpochSecond(ZoneOffset.UTC);
+    }
+}
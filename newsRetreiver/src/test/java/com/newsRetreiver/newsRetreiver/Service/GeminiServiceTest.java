@@ -0,0 +1,37 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiServiceTest {
+
+    private static final long DEFAULT_MS = 30_000;
+    private static final long NOW = Instant.parse("2015-10-21T07:28:00Z").toEpochMilli();
+
+    @Test
+    void retryAfterInSeconds() {
+        assertThat(GeminiService.parseRetryAfter("120", NOW, DEFAULT_MS)).isEqualTo(120_000);
+        assertThat(GeminiService.parseRetryAfter(" 0 ", NOW, DEFAULT_MS)).isZero();
+    }
+
+    @Test
+    void retryAfterAsHttpDate() {
+        assertThat(GeminiService.parseRetryAfter("Wed, 21 Oct 2015 07:29:30 GMT", NOW, DEFAULT_MS)).isEqualTo(90_000);
+    }
+
+    @Test
+    void retryAfterInThePastMeansNoWait() {
+        assertThat(GeminiService.parseRetryAfter("Wed, 21 Oct 2015 07:00:00 GMT", NOW, DEFAULT_MS)).isZero();
+        assertThat(GeminiService.parseRetryAfter("-5", NOW, DEFAULT_MS)).isZero();
+    }
+
+    @Test
+    void missingOrUnparseableRetryAfterGetsTheDefault() {
+        assertThat(GeminiService.parseRetryAfter(null, NOW, DEFAULT_MS)).isEqualTo(DEFAULT_MS);
+        assertThat(GeminiService.parseRetryAfter("soon", NOW, DEFAULT_MS)).isEqualTo(DEFAULT_MS);
+        assertThat(GeminiService.parseRetryAfter("2015-10-21T07:29:30Z", NOW, DEFAULT_MS)).isEqualTo(DEFAULT_MS);
+    }
+}
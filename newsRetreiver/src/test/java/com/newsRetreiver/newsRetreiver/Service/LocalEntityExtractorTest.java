@@ -0,0 +1,109 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Confidence is the share of content words covered by dictionary phrases, against the configured 0.75.
+ */
+class LocalEntityExtractorTest {
+
+    private final LocalEntityExtractor extractor = new LocalEntityExtractor();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ArticleCatalog catalog = new ArticleCatalog();
+        ReflectionTestUtils.setField(catalog, "repository", mock(NewsArticleRepository.class));
+        ReflectionTestUtils.setField(catalog, "enabled", true);
+        catalog.replace(List.of(
+                article("a1", "Reuters", "world", "Nitin Gadkari opens a highway"),
+                article("a2", "Reuters", "Health___Fitness", "Why Nitin Gadkari walks every morning"),
+                article("a3", "Daily Post", "Health___Fitness", "Ten habits for a longer life")));
+        ReflectionTestUtils.setField(extractor, "catalog", catalog);
+        ReflectionTestUtils.setField(extractor, "datasetVersion", new DatasetVersion());
+        ReflectionTestUtils.setField(extractor, "enabled", true);
+        ReflectionTestUtils.setField(extractor, "minConfidence", 0.75);
+        ReflectionTestUtils.setField(extractor, "gazetteer", new ClassPathResource("gazetteer.txt"));
+        ReflectionTestUtils.setField(extractor, "titlePhraseMinArticles", 2);
+        ReflectionTestUtils.setField(extractor, "rebuildIntervalSeconds", 60L);
+        extractor.init();
+        extractor.rebuild();
+    }
+
+    @Test
+    void fillerOnlyQueryIsNeverConfident() {
+        LocalEntityExtractor.Result result = extractor.extract("show me the latest news please");
+
+        assertThat(result.response()).isNull();
+        assertThat(result.confidence()).isZero();
+        assertThat(result.isConfident()).isFalse();
+    }
+
+    @Test
+    void fullyCoveredQueryIsConfident() {
+        LocalEntityExtractor.Result result = extractor.extract("Reuters news about Nitin Gadkari in Mumbai");
+
+        assertThat(result.confidence()).isEqualTo(1.0);
+        assertThat(result.isConfident()).isTrue();
+        assertThat(result.response().getEntities()).containsExactly("reuters", "nitin gadkari", "mumbai");
+        assertThat(result.response().getIntent()).isEqualTo("source");
+    }
+
+    @Test
+    void partlyCoveredQueryFallsShort() {
+        LocalEntityExtractor.Result result = extractor.extract("monsoon flooding in Mumbai suburbs");
+
+        assertThat(result.confidence()).isCloseTo(1.0 / 4, within(1e-9));
+        assertThat(result.isConfident()).isFalse();
+        assertThat(result.response().getEntities()).containsExactly("mumbai");
+        assertThat(result.response().getIntent()).isEqualTo("location");
+    }
+
+    @Test
+    void coverageExactlyAtTheThresholdIsConfident() {
+        LocalEntityExtractor.Result result = extractor.extract("Delhi and Mumbai monsoon from Reuters");
+
+        assertThat(result.confidence()).isEqualTo(0.75);
+        assertThat(result.isConfident()).isTrue();
+    }
+
+    @Test
+    void tripleUnderscoreCategoryMatchesItsSpokenForm() {
+        LocalEntityExtractor.Result result = extractor.extract("health and fitness news");
+
+        assertThat(result.confidence()).isEqualTo(1.0);
+        assertThat(result.isConfident()).isTrue();
+        assertThat(result.response().getEntities()).containsExactly("health and fitness");
+        assertThat(result.response().getIntent()).isEqualTo("category");
+    }
+
+    @Test
+    void disabledExtractorReturnsNothing() {
+        ReflectionTestUtils.setField(extractor, "enabled", false);
+
+        assertThat(extractor.extract("Reuters").isConfident()).isFalse();
+        assertThat(extractor.extract("Reuters").response()).isNull();
+    }
+
+    private static NewsArticle article(String id, String source, String category, String title) {
+        NewsArticle article = new NewsArticle();
+        article.setId(id);
+        article.setTitle(title);
+        article.setSourceName(source);
+        article.setCategory(List.of(category));
+        article.setPublicationDate("2025-03-26T12:00:00");
+        article.setRelevanceScore(0.5);
+        return article;
+    }
+}
@@ -0,0 +1,175 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.ArticleFields;
+import com.newsRetreiver.newsRetreiver.Model.ArticlePage;
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import com.newsRetreiver.newsRetreiver.Repository.NewsArticleRepository;
+import com.newsRetreiver.newsRetreiver.Util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset paging over the catalog: every listing, paged to the end, returns each article exactly once
+ * and in the same order MongoDB pages use, so a cursor from either side continues on the other.
+ */
+class NewsServicePagingTest {
+
+    // Newest first, ties on date broken by id, undated last (also by id).
+    private static final List<NewsArticle> WORLD_IN_ORDER = List.of(
+            article("w07", "2025-03-27T09:00:00", 0.9),
+            article("w02", "2025-03-26T12:00:00", 0.4),
+            article("w05", "2025-03-26T12:00:00", 0.7),
+            article("w09", "2025-03-26T12:00:00", 0.4),
+            article("w01", "2025-03-25T08:30:00", 0.4),
+            article("w08", "2025-03-24T23:59:59", 0.2),
+            article("w03", null, 0.8),
+            article("w06", null, 0.4),
+            article("w10", null, null));
+
+    private final NewsArticleRepository repository = mock(NewsArticleRepository.class);
+
+    @Test
+    void categoryPagesCoverTheListingOnceInOrder() {
+        NewsService service = service(shuffledCorpus(), true);
+
+        for (int limit = 1; limit <= WORLD_IN_ORDER.size() + 1; limit++) {
+            int pageSize = limit;
+            assertThat(ids(pageThrough(cursor -> service.findByCategory("world", pageSize, cursor, ArticleFields.ALL))))
+                    .as("limit %d", limit)
+                    .containsExactlyElementsOf(ids(WORLD_IN_ORDER));
+        }
+    }
+
+    @Test
+    void sourcePagesMatchCaseInsensitively() {
+        NewsService service = service(shuffledCorpus(), true);
+
+        List<NewsArticle> paged = pageThrough(cursor -> service.findBySource("WIRE", 2, cursor, ArticleFields.ALL));
+
+        assertThat(ids(paged)).containsExactly("w07", "w05", "w09", "w01", "w03");
+    }
+
+    @Test
+    void scorePagesBreakTiesByIdAndStopAtTheThreshold() {
+        NewsService service = service(shuffledCorpus(), true);
+
+        List<NewsArticle> paged = pageThrough(cursor -> service.findByScore(0.4, 2, cursor, ArticleFields.ALL));
+
+        assertThat(ids(paged)).containsExactly("w07", "w03", "w05", "w01", "w02", "w06", "w09");
+    }
+
+    @Test
+    void catalogCursorContinuesOnMongo() {
+        NewsService catalogService = service(shuffledCorpus(), true);
+        NewsService mongoService = service(shuffledCorpus(), false);
+        when(repository.findPageByCategory(eq("world"), any(), anyInt(), any())).thenReturn(List.of());
+
+        ArticlePage first = catalogService.findByCategory("world", 3, null, ArticleFields.ALL);
+        mongoService.findByCategory("world", 3, first.getNextCursor(), ArticleFields.ALL);
+
+        ArgumentCaptor<PageCursor> after = ArgumentCaptor.forClass(PageCursor.class);
+        verify(repository).findPageByCategory(eq("world"), after.capture(), eq(4), any());
+        assertThat(after.getValue().key()).isEqualTo("2025-03-26T12:00:00");
+        assertThat(after.getValue().id()).isEqualTo("w05");
+    }
+
+    @Test
+    void mongoCursorContinuesOnTheCatalog() {
+        NewsService mongoService = service(shuffledCorpus(), false);
+        NewsService catalogService = service(shuffledCorpus(), true);
+        when(repository.findPageByCategory(eq("world"), any(), anyInt(), any())).thenReturn(WORLD_IN_ORDER.subList(0, 6));
+        when(repository.countByCategory("world")).thenReturn((long) WORLD_IN_ORDER.size());
+
+        ArticlePage first = mongoService.findByCategory("world", 5, null, ArticleFields.ALL);
+        ArticlePage second = catalogService.findByCategory("world", 5, first.getNextCursor(), ArticleFields.ALL);
+
+        assertThat(ids(first.getArticles())).containsExactlyElementsOf(ids(WORLD_IN_ORDER.subList(0, 5)));
+        assertThat(ids(second.getArticles())).containsExactlyElementsOf(ids(WORLD_IN_ORDER.subList(5, 9)));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorIntoTheUndatedTailContinuesById() {
+        NewsService service = service(shuffledCorpus(), true);
+
+        ArticlePage page = service.findByCategory("world", 5, new PageCursor(null, "w03").encode(), ArticleFields.ALL);
+
+        assertThat(ids(page.getArticles())).containsExactly("w06", "w10");
+    }
+
+    private NewsService service(List<NewsArticle> corpus, boolean catalogEnabled) {
+        ArticleCatalog catalog = new ArticleCatalog();
+        ReflectionTestUtils.setField(catalog, "repository", repository);
+        ReflectionTestUtils.setField(catalog, "enabled", catalogEnabled);
+        if (catalogEnabled) catalog.replace(corpus);
+        PipelineMetrics metrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+        NewsService service = new NewsService();
+        ReflectionTestUtils.setField(service, "catalog", catalog);
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        return service;
+    }
+
+    /**
+     * The world articles in neither id nor date order, plus articles of other categories around them.
+     */
+    private static List<NewsArticle> shuffledCorpus() {
+        List<NewsArticle> corpus = new ArrayList<>();
+        int[] order = {4, 8, 0, 6, 2, 7, 1, 5, 3};
+        for (int i : order) {
+            corpus.add(new NewsArticle(WORLD_IN_ORDER.get(i)));
+            NewsArticle other = article("s" + i, "2025-03-2" + i + "T10:00:00", 0.1);
+            other.setCategory(List.of("sports"));
+            other.setSourceName("Other");
+            corpus.add(other);
+        }
+        return corpus;
+    }
+
+    private static NewsArticle article(String id, String date, Double score) {
+        NewsArticle article = new NewsArticle();
+        article.setId(id);
+        article.setTitle("Headline " + id);
+        article.setDescription("Story " + id);
+        article.setPublicationDate(date);
+        article.setRelevanceScore(score);
+        article.setCategory(List.of("world"));
+        // Odd ids come from Wire, even ones from Daily.
+        article.setSourceName(Integer.parseInt(id.substring(1)) % 2 == 1 ? "Wire" : "Daily");
+        return article;
+    }
+
+    private static List<NewsArticle> pageThrough(PageFetch fetch) {
+        List<NewsArticle> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ArticlePage page = fetch.page(cursor);
+            all.addAll(page.getArticles());
+            cursor = page.getNextCursor();
+        } while (cursor != null && all.size() < 100);
+        return all;
+    }
+
+    private static List<String> ids(List<NewsArticle> articles) {
+        return articles.stream().map(NewsArticle::getId).collect(Collectors.toList());
+    }
+
+    private interface PageFetch {
+        ArticlePage page(String cursor);
+    }
+}
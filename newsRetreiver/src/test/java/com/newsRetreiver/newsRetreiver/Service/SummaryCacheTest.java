@@ -0,0 +1,139 @@
+package com.newsRetreiver.newsRetreiver.Service;
+
+import com.newsRetreiver.newsRetreiver.Model.CachedSummary;
+import com.newsRetreiver.newsRetreiver.Model.GeminiResult;
+import com.newsRetreiver.newsRetreiver.Repository.CachedSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummaryCacheTest {
+
+    private static final String TEXT = "A description long enough to be worth summarizing.";
+    private static final String SUMMARY = "A summary long enough to count as usable.";
+
+    private final GeminiService gemini = mock(GeminiService.class);
+    private final CachedSummaryRepository repository = mock(CachedSummaryRepository.class);
+    private final SummaryCache cache = new SummaryCache();
+
+    @BeforeEach
+    void setUp() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "geminiService", gemini);
+        ReflectionTestUtils.setField(cache, "repository", repository);
+        ReflectionTestUtils.setField(cache, "metrics", metrics);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(cache, "loaderThreads", 2);
+        ReflectionTestUtils.setField(cache, "batchSize", 10);
+        cache.init();
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void blockedTextIsSentOnceAndRemembered() {
+        when(gemini.summarizeArticle(TEXT)).thenReturn(GeminiResult.blocked());
+
+        assertThat(cache.summarize(TEXT)).isNull();
+        assertThat(cache.summarize(TEXT)).isNull();
+
+        verify(gemini, times(1)).summarizeArticle(TEXT);
+        assertThat(cache.isBlocked(TEXT)).isTrue();
+        ArgumentCaptor<CachedSummary> saved = ArgumentCaptor.forClass(CachedSummary.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().isBlocked()).isTrue();
+        assertThat(saved.getValue().getSummary()).isNull();
+    }
+
+    @Test
+    void otherFailuresAreRetriedByLaterRequests() {
+        when(gemini.summarizeArticle(TEXT)).thenReturn(GeminiResult.error("503"), GeminiResult.success(SUMMARY));
+
+        assertThat(cache.summarize(TEXT)).isNull();
+        assertThat(cache.isBlocked(TEXT)).isFalse();
+        // The cache drops a null result just after completing it.
+        awaitAbsent(TEXT);
+        assertThat(cache.summarize(TEXT)).isEqualTo(SUMMARY);
+
+        verify(gemini, times(2)).summarizeArticle(TEXT);
+    }
+
+    @Test
+    void storedBlockedMarkerIsHonouredWithinTheTtl() {
+        when(repository.findById(SummaryCache.key(TEXT))).thenReturn(Optional.of(
+                new CachedSummary(SummaryCache.key(TEXT), null, GeminiService.SUMMARY_PROMPT_VERSION, Instant.now(), true)));
+
+        assertThat(cache.summarize(TEXT)).isNull();
+
+        assertThat(cache.isBlocked(TEXT)).isTrue();
+        verify(gemini, never()).summarizeArticle(anyString());
+    }
+
+    @Test
+    void expiredBlockedMarkerIsSentAgain() {
+        Instant old = Instant.now().minus(Duration.ofHours(2));
+        when(repository.findById(SummaryCache.key(TEXT))).thenReturn(Optional.of(
+                new CachedSummary(SummaryCache.key(TEXT), null, GeminiService.SUMMARY_PROMPT_VERSION, old, true)));
+        when(gemini.summarizeArticle(TEXT)).thenReturn(GeminiResult.success(SUMMARY));
+
+        assertThat(cache.summarize(TEXT)).isEqualTo(SUMMARY);
+    }
+
+    @Test
+    void failedBatchCallCompletesItsChunkInTheNonBlockingPath() throws Exception {
+        ReactiveMongoTemplate reactiveMongo = mock(ReactiveMongoTemplate.class);
+        ReflectionTestUtils.setField(cache, "reactiveMongo", reactiveMongo);
+        ReflectionTestUtils.setField(cache, "nonBlocking", true);
+        when(reactiveMongo.find(any(Query.class), eq(CachedSummary.class))).thenReturn(Flux.empty());
+        when(gemini.summarizeArticlesAsync(anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("queue full")));
+        String other = TEXT + " And a second one.";
+
+        List<CompletableFuture<String>> results = cache.summarizeAllAsync(List.of(TEXT, other));
+
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isNull();
+        }
+        // Left pending, the entries would hold every later request for these texts.
+        awaitAbsent(TEXT);
+        awaitAbsent(other);
+    }
+
+    private void awaitAbsent(String text) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.contains(text) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(cache.contains(text)).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void admitsUpToTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsByAboutOneSlotPerWindowOfFastSuccesses() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 100);
+
+        for (int i = 0; i < 4; i++) succeed(limiter, 50);
+        assertThat(limiter.limit()).isEqualTo(4);
+        succeed(limiter, 50);
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnThrottlingAndSlowCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 100);
+
+        limiter.tryAcquire();
+        limiter.onThrottled();
+        assertThat(limiter.limit()).isEqualTo(6);
+
+        succeed(limiter, 101);
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void staysWithinItsBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 3, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.onThrottled();
+        }
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        for (int i = 0; i < 100; i++) succeed(limiter, 1);
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoredFailuresLeaveTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 100);
+
+        limiter.tryAcquire();
+        limiter.onIgnored();
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    private static void succeed(AdaptiveConcurrencyLimiter limiter, long latencyMillis) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onSuccess(latencyMillis);
+    }
+}
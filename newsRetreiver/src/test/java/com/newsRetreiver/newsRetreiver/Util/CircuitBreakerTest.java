@@ -0,0 +1,72 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 500, now::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void letsOneTrialThroughOnceTheOpenPeriodEnds() {
+        open();
+        now.addAndGet(499);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        now.addAndGet(1);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitForAnotherPeriod() {
+        open();
+        now.addAndGet(500);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        now.addAndGet(499);
+        assertThat(breaker.allowRequest()).isFalse();
+        now.addAndGet(1);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void releasedTrialCanBeTakenByAnotherCaller() {
+        open();
+        now.addAndGet(500);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.release();
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) breaker.recordFailure();
+    }
+}
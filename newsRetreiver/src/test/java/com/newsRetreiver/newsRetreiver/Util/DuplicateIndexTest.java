@@ -0,0 +1,68 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateIndexTest {
+
+    private static final String TITLE = "Yunus dismisses coup rumours";
+    private static final String OTHER_TITLE = "Central bank holds rates";
+    private static final String OTHER = "Central bank holds interest rates steady as inflation cools, with officials "
+            + "signalling that cuts could come later this year if the labour market continues to soften.";
+
+    @Test
+    void copiesJoinTheFirstArticlesCluster() {
+        DuplicateIndex index = DuplicateIndex.empty().withAdded(List.of(
+                article(TITLE, SimHashTest.STORY),
+                article(OTHER_TITLE, OTHER),
+                article(TITLE.toUpperCase(), SimHashTest.STORY + " Reporting by our correspondent."),
+                article(TITLE, SimHashTest.STORY.replace("dismissed", "rejected"))));
+
+        assertThat(members(index, 0)).containsExactly(0, 2, 3);
+        assertThat(index.headOf(3)).isZero();
+        assertThat(index.hasCopies(2)).isTrue();
+        assertThat(index.hasCopies(1)).isFalse();
+        assertThat(members(index, 1)).containsExactly(1);
+    }
+
+    @Test
+    void laterCopyJoinsAnEarlierClusterAndLeavesThePreviousIndexAlone() {
+        DuplicateIndex first = DuplicateIndex.empty().withAdded(List.of(
+                article(TITLE, SimHashTest.STORY), article(OTHER_TITLE, OTHER)));
+        DuplicateIndex second = first.withAdded(List.of(article(TITLE, SimHashTest.STORY + " Updated.")));
+
+        assertThat(second.size()).isEqualTo(3);
+        assertThat(second.headOf(2)).isZero();
+        assertThat(members(second, 0)).containsExactly(0, 2);
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(first.hasCopies(0)).isFalse();
+    }
+
+    @Test
+    void articlesWithoutTextAreNobodysDuplicate() {
+        DuplicateIndex index = DuplicateIndex.empty().withAdded(List.of(article(null, null), article(null, "")));
+
+        assertThat(index.hasCopies(0)).isFalse();
+        assertThat(index.hasCopies(1)).isFalse();
+    }
+
+    private static List<Integer> members(DuplicateIndex index, int ordinal) {
+        List<Integer> members = new ArrayList<>();
+        for (int member = index.headOf(ordinal); member >= 0; member = index.nextMember(member)) {
+            members.add(member);
+        }
+        return members;
+    }
+
+    private static NewsArticle article(String title, String description) {
+        NewsArticle article = new NewsArticle();
+        article.setTitle(title);
+        article.setDescription(description);
+        return article;
+    }
+}
@@ -0,0 +1,96 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoIndexTest {
+
+    @Test
+    void nearestReadsPointsInDistanceOrder() {
+        Random random = new Random(7);
+        double[] latitude = new double[2_000];
+        double[] longitude = new double[latitude.length];
+        for (int i = 0; i < latitude.length; i++) {
+            // A dense cluster, a sparse spread and a band along the poles and the antimeridian.
+            if (i % 4 == 0) {
+                latitude[i] = 19 + random.nextDouble();
+                longitude[i] = 72 + random.nextDouble();
+            } else if (i % 4 == 1) {
+                latitude[i] = (random.nextBoolean() ? 89 : -90) + random.nextDouble();
+                longitude[i] = random.nextDouble() * 360 - 180;
+            } else if (i % 4 == 2) {
+                latitude[i] = random.nextDouble() * 180 - 90;
+                longitude[i] = random.nextBoolean() ? 179.9 : -180;
+            } else {
+                latitude[i] = random.nextDouble() * 180 - 90;
+                longitude[i] = random.nextDouble() * 360 - 180;
+            }
+        }
+        latitude[5] = Double.NaN;
+        GeoIndex index = GeoIndex.build(latitude, longitude);
+
+        double[][] queries = {{19.5, 72.5}, {0, -150}, {89.9, 10}, {-89.9, -170}, {10, 179.99}, {-45, -179.99}};
+        for (double[] query : queries) {
+            assertOrdered(index, latitude, longitude, query[0], query[1], 0);
+            assertOrdered(index, latitude, longitude, query[0], query[1], 5_000);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertOrdered(index, latitude, longitude, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180, 0);
+        }
+    }
+
+    @Test
+    void nearestOnAnEmptyIndexHasNoPoints() {
+        GeoIndex index = GeoIndex.build(new double[] {Double.NaN}, new double[] {0});
+
+        assertThat(index.nearest(0, 0, 0).next()).isFalse();
+    }
+
+    @Test
+    void withinMatchesBruteForce() {
+        Random random = new Random(11);
+        double[] latitude = new double[500];
+        double[] longitude = new double[latitude.length];
+        for (int i = 0; i < latitude.length; i++) {
+            latitude[i] = random.nextDouble() * 20 + 40;
+            longitude[i] = random.nextDouble() * 20;
+        }
+        GeoIndex index = GeoIndex.build(latitude, longitude);
+
+        GeoIndex.Matches matches = index.within(50, 10, 300);
+
+        long expected = Arrays.stream(distances(latitude, longitude, 50, 10)).filter(d -> d <= 300).count();
+        assertThat(matches.size()).isEqualTo(expected);
+        for (int i = 0; i < matches.size(); i++) {
+            assertThat(matches.distance(i)).isLessThanOrEqualTo(300);
+        }
+    }
+
+    private static void assertOrdered(GeoIndex index, double[] latitude, double[] longitude,
+                                      double lat, double lon, double fromKm) {
+        double[] expected = Arrays.stream(distances(latitude, longitude, lat, lon)).filter(d -> d >= fromKm).sorted().toArray();
+        GeoIndex.Nearest nearest = index.nearest(lat, lon, fromKm);
+        double[] read = new double[expected.length];
+        int count = 0;
+        while (nearest.next()) {
+            assertThat(count).isLessThan(expected.length);
+            assertThat(nearest.distance()).isEqualTo(Haversine.calculateDistance(lat, lon,
+                    latitude[nearest.ordinal()], longitude[nearest.ordinal()]));
+            read[count++] = nearest.distance();
+        }
+        assertThat(read).containsExactly(expected);
+    }
+
+    private static double[] distances(double[] latitude, double[] longitude, double lat, double lon) {
+        double[] distances = new double[latitude.length];
+        int count = 0;
+        for (int i = 0; i < latitude.length; i++) {
+            if (!Double.isNaN(latitude[i])) distances[count++] = Haversine.calculateDistance(lat, lon, latitude[i], longitude[i]);
+        }
+        return Arrays.copyOf(distances, count);
+    }
+}
@@ -0,0 +1,168 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recall against an exact brute-force scan, with the index's default build and search settings.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 64;
+    private static final int NODES = 5_000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+    private static final int EF = 64;
+
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    @Test
+    void recallAtTenAgainstBruteForce() {
+        float[][] vectors = clustered(NODES);
+        HnswIndex index = build(vectors);
+
+        double recall = recall(index, vectors, new BitSet());
+
+        System.out.printf("HNSW recall@%d, ef=%d, %d nodes: %.3f%n", K, EF, NODES, recall);
+        assertThat(recall).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void recallHoldsWithAQuarterOfTheNodesDeleted() {
+        float[][] vectors = clustered(NODES);
+        HnswIndex index = build(vectors);
+        BitSet deleted = new BitSet();
+        for (int node = 0; node < NODES; node++) {
+            if (random.nextInt(4) == 0) {
+                index.delete(node);
+                deleted.set(node);
+            }
+        }
+
+        double recall = recall(index, vectors, deleted);
+
+        System.out.printf("HNSW recall@%d, ef=%d, %d nodes, %d deleted: %.3f%n", K, EF, NODES, deleted.cardinality(), recall);
+        assertThat(index.deletedCount()).isEqualTo(deleted.cardinality());
+        assertThat(recall).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void deletedNodesAreNeverReturned() {
+        float[][] vectors = clustered(500);
+        HnswIndex index = build(vectors);
+        for (int node = 0; node < 500; node += 2) {
+            index.delete(node);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            HnswIndex.Result result = index.search(vectors[q], K, EF);
+            assertThat(result.size()).isEqualTo(K);
+            for (int i = 0; i < result.size(); i++) {
+                assertThat(result.node(i) % 2).isEqualTo(1);
+            }
+        }
+    }
+
+    private static HnswIndex build(float[][] vectors) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+        return index;
+    }
+
+    /**
+     * Mean fraction of the exact top {@code K} live nodes the index returns, over queries near the data.
+     */
+    private double recall(HnswIndex index, float[][] vectors, BitSet deleted) {
+        int hits = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = perturb(vectors[random.nextInt(vectors.length)]);
+            int[] exact = bruteForce(vectors, deleted, query);
+            HnswIndex.Result result = index.search(query, K, EF);
+            for (int i = 0; i < result.size(); i++) {
+                for (int node : exact) {
+                    if (node == result.node(i)) hits++;
+                }
+            }
+        }
+        return hits / (double) (QUERIES * K);
+    }
+
+    private static int[] bruteForce(float[][] vectors, BitSet deleted, float[] query) {
+        Integer[] nodes = new Integer[vectors.length];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i;
+        }
+        double[] similarity = new double[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            similarity[i] = dot(vectors[i], query);
+        }
+        return Arrays.stream(nodes)
+                .filter(node -> !deleted.get(node))
+                .sorted((a, b) -> Double.compare(similarity[b], similarity[a]))
+                .limit(K)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Unit vectors around a few dozen topic centres, the way article embeddings bunch up.
+     */
+    private float[][] clustered(int count) {
+        float[][] centres = new float[40][];
+        for (int c = 0; c < centres.length; c++) {
+            centres[c] = normalize(gaussian(1));
+        }
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            float[] centre = centres[random.nextInt(centres.length)];
+            float[] noise = gaussian(0.6 / Math.sqrt(DIMENSIONS));
+            for (int d = 0; d < DIMENSIONS; d++) {
+                noise[d] += centre[d];
+            }
+            vectors[i] = normalize(noise);
+        }
+        return vectors;
+    }
+
+    private float[] perturb(float[] vector) {
+        float[] noise = gaussian(0.1 / Math.sqrt(DIMENSIONS));
+        for (int d = 0; d < DIMENSIONS; d++) {
+            noise[d] += vector[d];
+        }
+        return normalize(noise);
+    }
+
+    private float[] gaussian(double sigma) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            // Box-Muller
+            double u = 1 - random.nextDouble();
+            double v = random.nextDouble();
+            vector[d] = (float) (sigma * Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v));
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] /= (float) norm;
+        }
+        return vector;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int d = 0; d < a.length; d++) {
+            sum += a[d] * b[d];
+        }
+        return sum;
+    }
+}
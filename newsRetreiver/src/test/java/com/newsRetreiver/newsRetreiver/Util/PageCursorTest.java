@@ -0,0 +1,68 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("2025-03-26T04:46:55", "19aa-dd").encode());
+
+        assertThat(cursor.key()).isEqualTo("2025-03-26T04:46:55");
+        assertThat(cursor.id()).isEqualTo("19aa-dd");
+    }
+
+    @Test
+    void numericKeysSurviveTheRoundTripExactly() {
+        double distance = 12.345678901234567;
+        PageCursor cursor = PageCursor.decode(PageCursor.of(distance, "a1").encode());
+
+        assertThat(cursor.numericKey()).isEqualTo(distance);
+    }
+
+    @Test
+    void missingKeyOrIdBecomesEmpty() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(null, null).encode());
+
+        assertThat(cursor.key()).isEmpty();
+        assertThat(cursor.id()).isEmpty();
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = new PageCursor("ÿþ?/+", "id/with+chars").encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode("not base64!"));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode(raw("1\u0000only-key")));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode(raw("2\u0000key\u0000id")));
+        assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode(raw("1\u0000a\u0000b\u0000c")));
+    }
+
+    @Test
+    void rejectsNonNumericKeyWhereANumberIsExpected() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("2025-03-26", "a1").encode());
+
+        assertThatIllegalArgumentException().isThrownBy(cursor::numericKey);
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
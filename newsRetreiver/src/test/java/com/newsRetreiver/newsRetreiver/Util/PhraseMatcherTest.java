@@ -0,0 +1,76 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhraseMatcherTest {
+
+    @Test
+    void reportsNestedAndOverlappingPhrasesByEndPosition() {
+        PhraseMatcher<String> matcher = PhraseMatcher.<String>builder()
+                .add("new york", "city")
+                .add("New York Times", "paper")
+                .add("york times", "tail")
+                .build();
+
+        assertThat(describe(matcher.findAll(Tokenizer.tokenize("Read the New York Times today"))))
+                .containsExactly("2-4 city", "2-5 paper", "3-5 tail");
+    }
+
+    @Test
+    void fallsBackMidPhraseToTheLongestSuffixThatIsAPrefix() {
+        PhraseMatcher<String> matcher = PhraseMatcher.<String>builder()
+                .add("new york city hall", "hall")
+                .add("york city council", "council")
+                .build();
+
+        // "new york city" leads nowhere on "council"; the failure link resumes at "york city".
+        assertThat(describe(matcher.findAll(Tokenizer.tokenize("new york city council"))))
+                .containsExactly("1-4 council");
+        assertThat(describe(matcher.findAll(Tokenizer.tokenize("new york city hall"))))
+                .containsExactly("0-4 hall");
+    }
+
+    @Test
+    void repeatedPhraseKeepsItsFirstValue() {
+        PhraseMatcher<String> matcher = PhraseMatcher.<String>builder()
+                .add("New York", "place")
+                .add("new-york", "paper")
+                .add(" ... ", "nothing")
+                .build();
+
+        assertThat(matcher.size()).isEqualTo(1);
+        assertThat(describe(matcher.findAll(Tokenizer.tokenize("new york")))).containsExactly("0-2 place");
+    }
+
+    @Test
+    void unknownOrUnexpectedTokensResetTheState() {
+        PhraseMatcher<String> matcher = PhraseMatcher.<String>builder()
+                .add("new york", "city")
+                .add("york times", "tail")
+                .build();
+
+        assertThat(matcher.findAll(Tokenizer.tokenize("new jersey york"))).isEmpty();
+        assertThat(matcher.findAll(Tokenizer.tokenize("new times"))).isEmpty();
+        assertThat(describe(matcher.findAll(Tokenizer.tokenize("old new york new york"))))
+                .containsExactly("1-3 city", "3-5 city");
+    }
+
+    @Test
+    void emptyMatcherFindsNothing() {
+        PhraseMatcher<String> matcher = PhraseMatcher.<String>builder().build();
+
+        assertThat(matcher.size()).isZero();
+        assertThat(matcher.findAll(Tokenizer.tokenize("new york"))).isEmpty();
+    }
+
+    private static List<String> describe(List<PhraseMatcher.Match<String>> matches) {
+        return matches.stream()
+                .map(match -> match.start() + "-" + match.end() + " " + match.value())
+                .collect(Collectors.toList());
+    }
+}
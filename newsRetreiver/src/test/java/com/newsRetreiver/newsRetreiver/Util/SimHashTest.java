@@ -0,0 +1,48 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimHashTest {
+
+    static final String STORY = "Bangladesh's interim government leader Muhammad Yunus dismissed rumours that a coup "
+            + "is being plotted against him by the military, calling the claims attempts to mislead people "
+            + "and urging citizens to ignore reports spread on social media over the weekend.";
+
+    @Test
+    void ignoresCasePunctuationAndSpacing() {
+        String reformatted = STORY.toUpperCase().replace(",", " ;  ").replace("'", "’");
+
+        assertThat(SimHash.of(reformatted)).isEqualTo(SimHash.of(STORY));
+    }
+
+    @Test
+    void republishedCopiesFallWithinTheDuplicateDistance() {
+        String withByline = STORY + " Reporting by our correspondent.";
+        String reworded = STORY.replace("dismissed", "rejected");
+
+        assertThat(SimHash.distance(SimHash.of(STORY), SimHash.of(withByline))).isLessThanOrEqualTo(DuplicateIndex.MAX_DISTANCE);
+        assertThat(SimHash.distance(SimHash.of(STORY), SimHash.of(reworded))).isLessThanOrEqualTo(DuplicateIndex.MAX_DISTANCE);
+    }
+
+    @Test
+    void unrelatedStoriesAreFarApart() {
+        String other = "Central bank holds interest rates steady as inflation cools, with officials signalling "
+                + "that cuts could come later this year if the labour market continues to soften.";
+
+        assertThat(SimHash.distance(SimHash.of(STORY), SimHash.of(other))).isGreaterThan(DuplicateIndex.MAX_DISTANCE);
+    }
+
+    @Test
+    void textWithoutWordsHasNoFingerprint() {
+        assertThat(SimHash.of(null)).isZero();
+        assertThat(SimHash.of(" -- !! ")).isZero();
+    }
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertThat(SimHash.distance(0b1011L, 0b0110L)).isEqualTo(3);
+        assertThat(SimHash.distance(-1L, 0L)).isEqualTo(64);
+    }
+}
@@ -0,0 +1,106 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import com.newsRetreiver.newsRetreiver.Model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TextIndexTest {
+
+    @Test
+    void bm25RanksFrequentAndShortMatchesFirst() {
+        TextIndex index = TextIndex.empty().withAdded(List.of(
+                article("Flood warning", "Rivers rise after the storm"),
+                article("Flood flood warning", "Rivers rise after the storm"),
+                article("Flood warning issued for the northern coastal districts tonight", "Rivers rise after the storm"),
+                article("Budget talks", "Ministers meet again")));
+
+        Map<Integer, Double> scores = scores(index.search(List.of("flood")));
+
+        assertThat(scores).containsOnlyKeys(0, 1, 2);
+        assertThat(scores.get(1)).isGreaterThan(scores.get(0));
+        assertThat(scores.get(0)).isGreaterThan(scores.get(2));
+    }
+
+    @Test
+    void multiWordEntitiesMatchOnlyAsAPhrase() {
+        TextIndex index = TextIndex.empty().withAdded(List.of(
+                article("New York mayor resigns", null),
+                article("York hosts a new festival", null),
+                article("Mayor of new york city", "Talks in New York")));
+
+        Map<Integer, Double> scores = scores(index.search(List.of("New York")));
+
+        assertThat(scores).containsOnlyKeys(0, 2);
+    }
+
+    @Test
+    void titleHitsWeighFiveThirdsOfDescriptionHits() {
+        TextIndex index = TextIndex.empty().withAdded(List.of(
+                article("solar power plant", "quiet town news"),
+                article("quiet town news", "solar power plant")));
+
+        Map<Integer, Double> scores = scores(index.search(List.of("solar")));
+
+        assertThat(scores.get(0) / scores.get(1)).isCloseTo(0.5 / 0.3, within(1e-12));
+        assertThat(scores.get(0)).isLessThan(0.5);
+        assertThat(scores.get(1)).isLessThan(0.3);
+    }
+
+    @Test
+    void appendingInBatchesMatchesOneBuild() {
+        Random random = new Random(5);
+        String[] words = {"the", "of", "market", "election", "new", "york", "storm", "coast", "rates", "bank"};
+        List<NewsArticle> articles = new ArrayList<>();
+        for (int i = 0; i < 6_000; i++) {
+            // A word of its own per article grows the vocabulary past the point where its layers are folded.
+            articles.add(article(sentence(random, words, 3 + random.nextInt(5)),
+                    sentence(random, words, 5 + random.nextInt(20)) + " w" + i));
+        }
+        TextIndex built = TextIndex.empty().withAdded(articles);
+        TextIndex appended = TextIndex.empty();
+        for (int from = 0; from < articles.size(); ) {
+            int to = Math.min(articles.size(), from + 1 + random.nextInt(600));
+            appended = appended.withAdded(articles.subList(from, to));
+            from = to;
+        }
+
+        assertThat(appended.docCount()).isEqualTo(built.docCount());
+        for (List<String> query : List.of(List.of("the"), List.of("new york"), List.of("market", "the coast"),
+                List.of("of the bank"), List.of("w17", "w5999"), List.of("missing"))) {
+            assertThat(scores(appended.search(query))).isEqualTo(scores(built.search(query)));
+            assertThat(appended.estimateMatches(query.get(0))).isEqualTo(built.estimateMatches(query.get(0)));
+        }
+        assertThat(scores(built.search(List.of("the")))).hasSizeGreaterThan(5_000);
+    }
+
+    private static Map<Integer, Double> scores(TextIndex.Hits hits) {
+        Map<Integer, Double> scores = new TreeMap<>();
+        for (int i = 0; i < hits.size(); i++) {
+            scores.put(hits.doc(i), hits.score(i));
+        }
+        return scores;
+    }
+
+    private static String sentence(Random random, String[] words, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sentence.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return sentence.toString();
+    }
+
+    private static NewsArticle article(String title, String description) {
+        NewsArticle article = new NewsArticle();
+        article.setTitle(title);
+        article.setDescription(description);
+        return article;
+    }
+}
@@ -0,0 +1,46 @@
+package com.newsRetreiver.newsRetreiver.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(10));
+
+    @Test
+    void startsFullAndAllowsABurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 3, now::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 3, now::get);
+        for (int i = 0; i < 3; i++) bucket.tryAcquire();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(bucket.availableTokens()).isCloseTo(0.5, within(1e-9));
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 3, now::get);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertThat(bucket.availableTokens()).isEqualTo(3);
+    }
+}